@@ -0,0 +1,90 @@
+package edlab.eda.ace;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of the parameter handling of an environment, i.e., setting a
+ * sizing and saving and restoring the status. The environment is created
+ * without a simulator and {@value #NUM_OF_PARAMETERS} sizing parameters.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnvironmentBenchmark {
+
+  public static final int NUM_OF_PARAMETERS = 20;
+
+  private AnalogCircuitEnvironment env;
+  private Map<String, Double> sizing;
+  private JSONObject status;
+
+  @Setup
+  public void setup() {
+
+    final JSONObject parameters = new JSONObject();
+    JSONObject parameter;
+
+    for (int i = 0; i < NUM_OF_PARAMETERS; i++) {
+
+      parameter = new JSONObject();
+      parameter.put("min", 1e-6);
+      parameter.put("max", 100e-6);
+      parameter.put("grid", 0.1e-6);
+      parameter.put("init", 10e-6);
+      parameter.put("sizing", true);
+
+      parameters.put("w" + i, parameter);
+    }
+
+    parameter = new JSONObject();
+    parameter.put("init", 1.8);
+    parameter.put("sizing", false);
+    parameters.put("vdd", parameter);
+
+    this.env = ExtractionBenchmark.environment(ExtractionBenchmark.NAND4,
+        parameters);
+
+    final Random random = new Random(42);
+
+    this.sizing = new HashMap<>();
+
+    for (int i = 0; i < NUM_OF_PARAMETERS; i++) {
+      this.sizing.put("w" + i, 1e-6 + (99e-6 * random.nextDouble()));
+    }
+
+    this.status = this.env.getStatus();
+  }
+
+  @Benchmark
+  public boolean set() {
+    return this.env.set(this.sizing);
+  }
+
+  @Benchmark
+  public JSONObject getStatus() {
+    return this.env.getStatus();
+  }
+
+  @Benchmark
+  public boolean setStatus() {
+    return this.env.setStatus(this.status);
+  }
+}
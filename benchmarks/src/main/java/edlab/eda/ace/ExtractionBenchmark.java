@@ -0,0 +1,224 @@
+package edlab.eda.ace;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edlab.eda.reader.nutmeg.NutReader;
+import edlab.eda.reader.nutmeg.NutmegPlot;
+
+/**
+ * Benchmark of the extraction of performances from simulation results. The
+ * results are read from a {@link NutmegFixture} of the circuit, such that
+ * the benchmark runs without a simulator.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExtractionBenchmark {
+
+  public static final String OPAMP = "op";
+  public static final String NAND4 = "nand4";
+  public static final String SCHMITT_TRIGGER = "st";
+
+  private static final double VS = 1.8;
+  private static final double VDD = 1.8;
+
+  /**
+   * Circuit of the environment
+   */
+  @Param({ OPAMP, NAND4, SCHMITT_TRIGGER })
+  public String circuit;
+
+  private AnalogCircuitEnvironment env;
+  private File file;
+  private List<NutmegPlot> plots;
+  private Map<String, Double> values;
+  private final Set<String> blacklistAnalyses = Collections.emptySet();
+
+  @Setup
+  public void setup() throws IOException {
+
+    final NutmegFixture fixture;
+
+    this.values = new HashMap<>();
+
+    if (OPAMP.equals(this.circuit)) {
+
+      fixture = NutmegFixture.singleEndedOpamp(VS, VS);
+      this.values.put("vs", VS);
+      this.values.put("vsup", VS);
+      this.values.put("A", 1.2e-9);
+
+    } else if (NAND4.equals(this.circuit)) {
+
+      fixture = NutmegFixture.nand4(VDD);
+      this.values.put("vdd", VDD);
+
+    } else {
+
+      fixture = NutmegFixture.schmittTrigger(VDD);
+      this.values.put("vdd", VDD);
+    }
+
+    this.file = File.createTempFile("ace-" + this.circuit, ".raw");
+    fixture.write(this.file);
+
+    this.env = environment(this.circuit, new JSONObject());
+    this.plots = this.parse();
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(this.file.toPath());
+  }
+
+  /**
+   * Read the results from the file
+   * 
+   * @return list of plots
+   */
+  @Benchmark
+  public List<NutmegPlot> parse() {
+    return NutReader.getNutasciiReader(this.file.toString()).read().parse()
+        .getPlots();
+  }
+
+  /**
+   * Extract the performances from the results that were read in the setup
+   * 
+   * @return performances
+   */
+  @Benchmark
+  public PerformanceVector extract() {
+
+    final PerformanceVector performanceValues = new PerformanceVector(
+        this.env.performanceSchema);
+
+    this.env.extract(this.env.getNominalCorner(), this.plots, this.values,
+        this.blacklistAnalyses, performanceValues);
+
+    return performanceValues;
+  }
+
+  /**
+   * Create an environment without a simulator
+   * 
+   * @param circuit    circuit of the environment
+   * @param parameters JSON object of parameters
+   * @return environment
+   */
+  static AnalogCircuitEnvironment environment(final String circuit,
+      final JSONObject parameters) {
+
+    final JSONObject jsonObj = new JSONObject();
+
+    jsonObj.put(AnalogCircuitEnvironment.PARAMETERS_ID, parameters);
+    jsonObj.put(AnalogCircuitEnvironment.PERFORMANCES_ID,
+        performances(circuit));
+
+    if (OPAMP.equals(circuit)) {
+      return new SingleEndedOpampEnvironment(null, jsonObj, null,
+          new File[0]);
+    } else if (NAND4.equals(circuit)) {
+      return new Nand4Environment(null, jsonObj, null, new File[0]);
+    } else {
+      return new SchmittTriggerEnvironment(null, jsonObj, null, new File[0]);
+    }
+  }
+
+  /**
+   * Create the table of performances of a circuit
+   * 
+   * @param circuit circuit of the environment
+   * @return JSON object where the key corresponds to the name of the analysis
+   *         and the value to a JSON object of performances
+   */
+  private static JSONObject performances(final String circuit) {
+
+    final JSONObject retval = new JSONObject();
+
+    if (OPAMP.equals(circuit)) {
+
+      final JSONObject dcop = analysis("A");
+      dcop.put("idd", reference("DUT:VDD"));
+      dcop.put("gm_mnd11", reference("DUT:MND11:gm"));
+      dcop.put("id_mnd11", reference("DUT:MND11:id"));
+
+      final JSONObject dcmatch = new JSONObject();
+      dcmatch.put("voff_stat", reference("totalOutput.sigmaOut"));
+      dcmatch.put("voff_sys", reference("totalOutput.dcOp"));
+
+      retval.put(SingleEndedOpampEnvironment.DCOP_ANALYSIS_ID, dcop);
+      retval.put(SingleEndedOpampEnvironment.DCMATCH_ANALYSIS_ID, dcmatch);
+      retval.put(SingleEndedOpampEnvironment.STB_ANALYSIS_ID,
+          analysis("a_0", "ugbw", "cof", "pm", "gm"));
+      retval.put(SingleEndedOpampEnvironment.TRAN_ANALYSIS_ID,
+          analysis("sr_r", "sr_f", "overshoot_r", "overshoot_f"));
+      retval.put(SingleEndedOpampEnvironment.NOISE_ANALYSIS_ID, analysis(
+          "vn_1Hz", "vn_10Hz", "vn_100Hz", "vn_1kHz", "vn_10kHz", "vn_100kHz"));
+      retval.put(SingleEndedOpampEnvironment.DC1_ANALYSIS_ID,
+          analysis("v_ol", "v_oh"));
+      retval.put(SingleEndedOpampEnvironment.XF_ANALYSIS_ID,
+          analysis("psrr_p", "psrr_n", "cmrr"));
+      retval.put(SingleEndedOpampEnvironment.AC_ANALYSIS_ID,
+          analysis("v_il", "v_ih"));
+      retval.put(SingleEndedOpampEnvironment.DC3_ANALYSIS_ID,
+          analysis("i_out_min"));
+      retval.put(SingleEndedOpampEnvironment.DC4_ANALYSIS_ID,
+          analysis("i_out_max"));
+
+    } else if (NAND4.equals(circuit)) {
+
+      retval.put(Nand4Environment.DC0, analysis("vs0"));
+      retval.put(Nand4Environment.DC1, analysis("vs1"));
+      retval.put(Nand4Environment.DC2, analysis("vs2"));
+      retval.put(Nand4Environment.DC3, analysis("vs3"));
+
+    } else {
+      retval.put(SchmittTriggerEnvironment.TRAN,
+          analysis("v_il", "v_ih", "t_plh", "t_phl"));
+    }
+
+    return retval;
+  }
+
+  private static JSONObject analysis(final String... identifiers) {
+
+    final JSONObject retval = new JSONObject();
+
+    for (final String identifier : identifiers) {
+      retval.put(identifier, new JSONObject());
+    }
+
+    return retval;
+  }
+
+  private static JSONObject reference(final String reference) {
+    return new JSONObject().put(AnalogCircuitEnvironment.REFERENCE_ID,
+        reference);
+  }
+}
@@ -0,0 +1,385 @@
+package edlab.eda.ace;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Synthetic simulation results in the nutascii format of Spectre. The
+ * fixtures reproduce the analyses, signal names and the order of the plots
+ * that are returned for the circuits of the environments, such that the
+ * extraction of the environments can be benchmarked without a simulator.
+ * The waveforms are analytical models of the circuits.
+ */
+public final class NutmegFixture {
+
+  /**
+   * Number of points of swept analyses
+   */
+  public static final int NUM_OF_POINTS = 1001;
+
+  private final List<Plot> plots = new ArrayList<>();
+
+  /**
+   * Single plot of the fixture
+   */
+  private static final class Plot {
+
+    private final String name;
+    private final boolean complex;
+    private final String[] variables;
+    private final String[] units;
+    private final double[][] real;
+    private final double[][] imag;
+
+    private Plot(final String name, final boolean complex,
+        final String[] variables, final String[] units, final double[][] real,
+        final double[][] imag) {
+      this.name = name;
+      this.complex = complex;
+      this.variables = variables;
+      this.units = units;
+      this.real = real;
+      this.imag = imag;
+    }
+  }
+
+  private NutmegFixture real(final String name, final String[] variables,
+      final String[] units, final double[]... values) {
+    this.plots
+        .add(new Plot(name, false, variables, units, values, null));
+    return this;
+  }
+
+  private NutmegFixture complex(final String name, final String[] variables,
+      final String[] units, final double[][] real, final double[][] imag) {
+    this.plots.add(new Plot(name, true, variables, units, real, imag));
+    return this;
+  }
+
+  /**
+   * Write the fixture to a file
+   * 
+   * @param file file
+   * @throws IOException when the file cannot be written
+   */
+  public void write(final File file) throws IOException {
+
+    try (PrintWriter writer = new PrintWriter(
+        Files.newBufferedWriter(file.toPath(), StandardCharsets.US_ASCII))) {
+
+      for (final Plot plot : this.plots) {
+
+        writer.println("Title: ace benchmark fixture");
+        writer.println("Date: 1:00:00 AM, Sat Jan 1, 2022");
+        writer.println("Plotname: " + plot.name);
+        writer.println("Flags: " + (plot.complex ? "complex" : "real"));
+        writer.println("No. Variables: " + plot.variables.length);
+        writer.println("No. Points: " + plot.real[0].length);
+        writer.println("Variables:");
+
+        for (int i = 0; i < plot.variables.length; i++) {
+          writer.println("\t" + i + "\t" + plot.variables[i] + "\t"
+              + plot.units[i]);
+        }
+
+        writer.println("Values:");
+
+        for (int p = 0; p < plot.real[0].length; p++) {
+          for (int i = 0; i < plot.variables.length; i++) {
+
+            writer.print(i == 0 ? p : "");
+            writer.print('\t');
+            writer.print(plot.real[i][p]);
+
+            if (plot.complex) {
+              writer.print(',');
+              writer.print(plot.imag[i][p]);
+            }
+
+            writer.println();
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Create the results of a single-ended operational amplifier
+   * 
+   * @param vs   supply voltage of the testbench
+   * @param vsup supply voltage of the amplifier
+   * @return fixture
+   */
+  public static NutmegFixture singleEndedOpamp(final double vs,
+      final double vsup) {
+
+    final NutmegFixture fixture = new NutmegFixture();
+
+    fixture.real("DC Analysis `dcop'",
+        new String[] { "DUT:VDD", "DUT:A", "DUT:MND11:gm", "DUT:MND11:id" },
+        new String[] { "A", "m2", "S", "A" }, new double[] { 35e-6 },
+        new double[] { 1.2e-9 }, new double[] { 120e-6 },
+        new double[] { 10e-6 });
+
+    fixture.real("DC Match Analysis `dcmatch'",
+        new String[] { "totalOutput.sigmaOut", "totalOutput.dcOp" },
+        new String[] { "V", "V" }, new double[] { 1.5e-3 },
+        new double[] { 2e-4 });
+
+    // two-pole loop gain
+    final double[] f = logSweep(1, 1e10);
+    final double[][] loopGain = twoPole(f, 1e4, 100, 50e6);
+
+    fixture.complex("Stability Analysis `stb': freq = (1 Hz -> 10 GHz)",
+        new String[] { "freq", "loopGain" }, new String[] { "Hz", "" },
+        new double[][] { f, loopGain[0] },
+        new double[][] { new double[f.length], loopGain[1] });
+
+    // step response with finite slew rate and overshoot
+    final double[] t = linSweep(0, 100e-6);
+    final double[] out = new double[t.length];
+
+    for (int i = 0; i < t.length; i++) {
+      out[i] = step(t[i] - 100e-9, vs) - step(t[i] - 50.1e-6, vs) - vs / 2;
+    }
+
+    fixture.real("Transient Analysis `tran': time = (0 s -> 100 us)",
+        new String[] { "time", "OUT" }, new String[] { "s", "V" }, t, out);
+
+    final double[] fn = logSweep(1, 1e6);
+    final double[] noise = new double[fn.length];
+
+    for (int i = 0; i < fn.length; i++) {
+      noise[i] = 1e-6 / Math.sqrt(fn[i]) + 10e-9;
+    }
+
+    fixture.real("Noise Analysis `noise': freq = (1 Hz -> 1 MHz)",
+        new String[] { "freq", "out" }, new String[] { "Hz", "V/sqrt(Hz)" },
+        fn, noise);
+
+    // output swing, the output saturates near the rails
+    final double[] x = linSweep(-vsup / 2, vsup / 2);
+    final double[] swing = new double[x.length];
+
+    for (int i = 0; i < x.length; i++) {
+      swing[i] = 0.45 * vsup * Math.tanh(x[i] / (0.45 * vsup));
+    }
+
+    fixture.real("DC Analysis `dc1': vid = (-0.9 V -> 0.9 V)",
+        new String[] { "vid", "OUT", "OUT_IDEAL" },
+        new String[] { "V", "V", "V" }, x, swing, x.clone());
+
+    final double[][] vid = twoPole(f, 1e4, 100, 50e6);
+    final double[][] vsupp = twoPole(f, 1, 1e3, 100e6);
+    final double[][] vsupn = twoPole(f, 0.5, 1e3, 100e6);
+    final double[][] vicm = twoPole(f, 0.1, 1e4, 100e6);
+
+    fixture.complex(
+        "Transfer Function Analysis `xf': freq = (1 Hz -> 10 GHz)",
+        new String[] { "freq", "VID", "VSUPP", "VSUPN", "VICM" },
+        new String[] { "Hz", "", "", "", "" },
+        new double[][] { f, vid[0], vsupp[0], vsupn[0], vicm[0] },
+        new double[][] { new double[f.length], vid[1], vsupp[1], vsupn[1],
+            vicm[1] });
+
+    // input swing, the gain drops near the rails
+    final double[] ac = new double[x.length];
+
+    for (int i = 0; i < x.length; i++) {
+      ac[i] = 1e4 / Math.cosh(4 * x[i] / vsup);
+    }
+
+    fixture.complex("AC Analysis `ac': vicm = (-0.9 V -> 0.9 V)",
+        new String[] { "vicm", "OUT" }, new String[] { "V", "V" },
+        new double[][] { x, ac },
+        new double[][] { new double[x.length], new double[x.length] });
+
+    fixture.real("DC Analysis `dc3'", new String[] { "DUT:O" },
+        new String[] { "A" }, new double[] { -1.2e-3 });
+
+    fixture.real("DC Analysis `dc4'", new String[] { "DUT:O" },
+        new String[] { "A" }, new double[] { 1.1e-3 });
+
+    return fixture;
+  }
+
+  /**
+   * Create the results of a NAND gate with 4 inputs
+   * 
+   * @param vdd supply voltage
+   * @return fixture
+   */
+  public static NutmegFixture nand4(final double vdd) {
+
+    final NutmegFixture fixture = new NutmegFixture();
+
+    final double[] x = linSweep(0, vdd);
+
+    for (int k = 0; k < 4; k++) {
+
+      final double[] o = new double[x.length];
+      final double threshold = (0.45 + (0.02 * k)) * vdd;
+
+      for (int i = 0; i < x.length; i++) {
+        o[i] = vdd / (1 + Math.exp((x[i] - threshold) / 0.03));
+      }
+
+      fixture.real("DC Analysis `dc" + k + "': vin = (0 V -> 1.8 V)",
+          new String[] { "vin", "O" }, new String[] { "V", "V" }, x, o);
+    }
+
+    return fixture;
+  }
+
+  /**
+   * Create the results of a Schmitt trigger
+   * 
+   * @param vdd supply voltage
+   * @return fixture
+   */
+  public static NutmegFixture schmittTrigger(final double vdd) {
+
+    final double t1 = SchmittTriggerEnvironment.T1;
+    final double t2 = SchmittTriggerEnvironment.T2;
+
+    // slow triangle for the thresholds, fast pulse for the delays
+    final double rise = 10e-12;
+    final double delay = 40e-12;
+    final double pulse = (3.5 * t1);
+    final double pulseEnd = (4.5 * t1) + t2;
+
+    final List<Double> times = new ArrayList<>();
+
+    for (final double time : linSweep(0, 3 * t1)) {
+      times.add(time);
+    }
+
+    for (final double time : linSweep(pulse - 1e-9, pulse + 1e-9)) {
+      times.add(time);
+    }
+
+    for (final double time : linSweep(pulseEnd - 1e-9, pulseEnd + 1e-9)) {
+      times.add(time);
+    }
+
+    times.add(6 * t1);
+
+    final double[] t = new double[times.size()];
+    final double[] i = new double[t.length];
+    final double[] o = new double[t.length];
+
+    boolean high = true;
+
+    for (int k = 0; k < t.length; k++) {
+
+      t[k] = times.get(k);
+
+      if (t[k] <= t1) {
+        i[k] = vdd * t[k] / t1;
+      } else if (t[k] <= 2 * t1) {
+        i[k] = vdd * (2 - t[k] / t1);
+      } else {
+        i[k] = vdd * (ramp((t[k] - pulse) / rise)
+            - ramp((t[k] - pulseEnd) / rise));
+      }
+
+      // inverting with hysteresis, switching is delayed by the pulse
+      if (t[k] <= 3 * t1) {
+        if (high && (i[k] > 0.6 * vdd)) {
+          high = false;
+        } else if (!high && (i[k] < 0.4 * vdd)) {
+          high = true;
+        }
+        o[k] = high ? vdd : 0;
+      } else {
+        o[k] = vdd * (1 - ramp((t[k] - pulse - delay) / rise)
+            + ramp((t[k] - pulseEnd - delay) / rise));
+      }
+    }
+
+    return new NutmegFixture().real(
+        "Transient Analysis `tran': time = (0 s -> 6 s)",
+        new String[] { "time", "I", "O" }, new String[] { "s", "V", "V" }, t,
+        i, o);
+  }
+
+  private static double[] linSweep(final double from, final double to) {
+
+    final double[] retval = new double[NUM_OF_POINTS];
+
+    for (int i = 0; i < NUM_OF_POINTS; i++) {
+      retval[i] = from + ((to - from) * i) / (NUM_OF_POINTS - 1);
+    }
+
+    return retval;
+  }
+
+  private static double[] logSweep(final double from, final double to) {
+
+    final double[] retval = new double[NUM_OF_POINTS];
+
+    for (int i = 0; i < NUM_OF_POINTS; i++) {
+      retval[i] = from
+          * Math.pow(to / from, (double) i / (NUM_OF_POINTS - 1));
+    }
+
+    return retval;
+  }
+
+  /**
+   * Transfer function <code>a0 / ((1 + s/p1) (1 + s/p2))</code>
+   */
+  private static double[][] twoPole(final double[] f, final double a0,
+      final double p1, final double p2) {
+
+    final double[][] retval = new double[2][f.length];
+
+    double re;
+    double im;
+    double denominator;
+
+    for (int i = 0; i < f.length; i++) {
+
+      // (1 + j f/p1) (1 + j f/p2)
+      re = 1 - (f[i] / p1) * (f[i] / p2);
+      im = (f[i] / p1) + (f[i] / p2);
+
+      denominator = (re * re) + (im * im);
+
+      retval[0][i] = a0 * re / denominator;
+      retval[1][i] = -a0 * im / denominator;
+    }
+
+    return retval;
+  }
+
+  /**
+   * Slew-rate limited step with a damped overshoot
+   */
+  private static double step(final double t, final double amplitude) {
+
+    if (t <= 0) {
+      return 0;
+    }
+
+    final double slewTime = 1e-6;
+
+    if (t < slewTime) {
+      return amplitude * t / slewTime;
+    }
+
+    final double settling = (t - slewTime) / 0.5e-6;
+
+    return amplitude
+        * (1 + 0.05 * Math.exp(-settling) * Math.sin(Math.PI * settling));
+  }
+
+  private static double ramp(final double x) {
+    return Math.max(0, Math.min(1, x));
+  }
+}
@@ -0,0 +1,102 @@
+package edlab.eda.ace;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Comparison of {@link Parameter#getValidValue(double)} with the reference
+ * implementation based on {@link java.math.BigDecimal} and sampling with
+ * {@link Parameter#getRandom()}. Each invocation pushes
+ * {@value #NUM_OF_VALUES} random values on the grid.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParameterBenchmark {
+
+  public static final int NUM_OF_VALUES = 1024;
+
+  /**
+   * Range and grid of the parameter as <code>min:max:grid</code>
+   */
+  @Param({ "1e-7:1e-5:1e-8", "0.0:1.0:0.05", "4e-7:2.5e-5:5e-9" })
+  public String range;
+
+  private Parameter parameter;
+  private double[] values;
+  private double[] snapped;
+
+  @Setup
+  public void setup() {
+
+    final String[] tokens = this.range.split(":");
+
+    final double min = Double.parseDouble(tokens[0]);
+    final double max = Double.parseDouble(tokens[1]);
+
+    final JSONObject jsonObj = new JSONObject();
+
+    jsonObj.put("min", min);
+    jsonObj.put("max", max);
+    jsonObj.put("grid", Double.parseDouble(tokens[2]));
+    jsonObj.put("init", min);
+    jsonObj.put("sizing", true);
+
+    this.parameter = Parameter.get("p", jsonObj);
+
+    final Random random = new Random(42);
+
+    this.values = new double[NUM_OF_VALUES];
+    this.snapped = new double[NUM_OF_VALUES];
+
+    for (int i = 0; i < NUM_OF_VALUES; i++) {
+      this.values[i] = min + ((max - min) * random.nextDouble());
+    }
+  }
+
+  @Benchmark
+  public double[] getValidValue() {
+
+    for (int i = 0; i < NUM_OF_VALUES; i++) {
+      this.snapped[i] = this.parameter.getValidValue(this.values[i]);
+    }
+
+    return this.snapped;
+  }
+
+  @Benchmark
+  public double[] getValidValueExact() {
+
+    for (int i = 0; i < NUM_OF_VALUES; i++) {
+      this.snapped[i] = this.parameter.getValidValueExact(this.values[i]);
+    }
+
+    return this.snapped;
+  }
+
+  @Benchmark
+  public double[] getRandom() {
+
+    for (int i = 0; i < NUM_OF_VALUES; i++) {
+      this.snapped[i] = this.parameter.getRandom();
+    }
+
+    return this.snapped;
+  }
+}
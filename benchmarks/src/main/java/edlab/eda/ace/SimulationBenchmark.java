@@ -0,0 +1,74 @@
+package edlab.eda.ace;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of the orchestration of a simulation, i.e., the allocation of
+ * sessions, scheduling, loading of results and extraction. The environment
+ * simulates with a {@link ReplayBackend} that returns the results of a
+ * {@link NutmegFixture}, such that the overhead of the library is measured
+ * without a simulator.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SimulationBenchmark {
+
+  /**
+   * Artificial latency of a run in microseconds
+   */
+  @Param({ "0", "1000" })
+  public long latency;
+
+  private AnalogCircuitEnvironment env;
+  private File file;
+
+  @Setup
+  public void setup() throws IOException {
+
+    this.file = File.createTempFile("ace-replay", ".raw");
+    NutmegFixture.nand4(1.8).write(this.file);
+
+    final JSONObject parameters = new JSONObject();
+
+    parameters.put("vdd", new JSONObject().put("init", 1.8));
+
+    this.env = ExtractionBenchmark.environment(ExtractionBenchmark.NAND4,
+        parameters);
+
+    this.env.setBackend(ReplayBackend.getNutascii(this.file.toString())
+        .setLatency(this.latency, TimeUnit.MICROSECONDS));
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    this.env.stop();
+    Files.deleteIfExists(this.file.toPath());
+  }
+
+  @Benchmark
+  public Map<String, Double> simulate() {
+    return this.env.simulate().getPerformanceValues();
+  }
+}
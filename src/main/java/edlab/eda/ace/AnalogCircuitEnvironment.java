@@ -1,26 +1,44 @@
 package edlab.eda.ace;
 
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitOption;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
-import java.util.concurrent.TimeUnit;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.commons.io.FileUtils;
 import org.json.JSONObject;
 
 import edlab.eda.cadence.rc.spectre.SpectreFactory;
-import edlab.eda.cadence.rc.spectre.SpectreInteractiveSession;
-import edlab.eda.cadence.rc.spectre.parallel.SpectreInteractiveParallelHandle;
-import edlab.eda.cadence.rc.spectre.parallel.SpectreParallelPool;
+import edlab.eda.reader.nutmeg.NutmegPlot;
 
 /**
  * Environment for characterization of an analog circuit
@@ -35,6 +53,7 @@ public abstract class AnalogCircuitEnvironment {
   public static final String PARAMETERS_ID = "parameters";
   public static final String PERFORMANCES_ID = "performances";
   public static final String REFERENCE_ID = "reference";
+  public static final String EXPRESSION_ID = "expression";
   public static final String CORNERS_ID = "corners";
   public static final String NETLIST_ID = "netlist";
   public static final String NOMINAL_ID = "nominal";
@@ -44,20 +63,49 @@ public abstract class AnalogCircuitEnvironment {
   protected JSONObject jsonObject;
 
   protected Map<String, String> corners = new HashMap<>();
-  protected Map<String, SpectreInteractiveParallelHandle> sessions = new HashMap<>();
+  protected Map<String, SimulatorSession> sessions = new ConcurrentHashMap<>();
 
   protected Map<String, Parameter> parameters;
   protected Map<String, Double> parameterValues;
 
-  protected HashMap<String, HashMap<String, Double>> performanceValues;
+  protected Map<String, double[]> performanceValues;
+  protected final PerformanceSchema performanceSchema;
+  protected final ExtractionPlan extractionPlan;
 
   protected Map<String, String> errorMessage;
-  private final SpectreFactory factory;
+  private SimulatorBackend backend;
   private final File[] includeDirs;
   private final File dir;
   private BigDecimal scale;
 
   private final Thread parentThread = Thread.currentThread();
+  private final Map<String, CompletableFuture<Void>> warmUps = new ConcurrentHashMap<>();
+
+  private int maxRetries = 1;
+  private final Map<String, CornerStatus> cornerStatus = new ConcurrentHashMap<>();
+  private final Map<String, Set<String>> unsupportedAnalyses = new ConcurrentHashMap<>();
+
+  private MetricsRegistry metricsRegistry = null;
+  private boolean metrics = true;
+
+  private RecyclingPolicy recyclingPolicy = null;
+  private final Map<String, SessionHealth> health = new ConcurrentHashMap<>();
+  private final Map<String, CompletableFuture<SimulatorSession>> standbys = new ConcurrentHashMap<>();
+
+  // durations of the phases of the last simulation per corner
+  private final Map<String, AtomicLongArray> phaseTimes = new ConcurrentHashMap<>();
+
+  // asynchronous simulations are executed one after another
+  private final Object asyncLock = new Object();
+  private CompletableFuture<SimulationResult> lastAsync = CompletableFuture
+      .completedFuture(null);
+
+  // license tokens that are held by the started sessions
+  private final Map<SimulatorSession, LicenseBudget.Lease> leases = new ConcurrentHashMap<>();
+
+  // parameter values of the last run of each session
+  private final Map<SimulatorSession, AppliedValues> appliedVectors = Collections
+      .synchronizedMap(new WeakHashMap<>());
 
   protected String nomCorner = null;
 
@@ -67,13 +115,38 @@ public abstract class AnalogCircuitEnvironment {
   protected boolean verbose = true;
   protected boolean corrupted = false;
 
+  private boolean incrementalExtraction = false;
+  private boolean parallelExtraction = true;
+
   private String name = "ace";
 
+  private volatile SimulationScheduler scheduler = null;
+  private LicenseBudget licenseBudget = null;
+
+  private final Map<String, Long> licenseWaitTimes = new ConcurrentHashMap<>();
+
+  private SimulationCache cache = null;
+
+  // the store is opened on demand, since it is closed by stop()
+  private File storeDirectory = null;
+  private ResultStore store = null;
+
+  private final String[] parameterOrder;
+  private final Parameter[] parameterArray;
+  private final Map<String, Integer> parameterIndex;
+  private final double[] parameterVector;
+
   protected AnalogCircuitEnvironment(final SpectreFactory factory,
       final JSONObject jsonObject, final File dir, final File[] includeDirs) {
+    this(factory == null ? null : new SpectreBackend(factory), jsonObject, dir,
+        includeDirs);
+  }
+
+  protected AnalogCircuitEnvironment(final SimulatorBackend backend,
+      final JSONObject jsonObject, final File dir, final File[] includeDirs) {
 
-    this.factory = factory;
-    this.factory.setTimeout(1, TimeUnit.MINUTES);
+    // environments without a backend cannot simulate, but extract results
+    this.backend = backend;
     this.includeDirs = includeDirs;
     this.dir = dir;
     this.jsonObject = jsonObject;
@@ -123,7 +196,6 @@ public abstract class AnalogCircuitEnvironment {
       this.nomCorner = NOMINAL_DEFAULT;
     }
 
-    this.parameterValues = new HashMap<>();
     this.performanceValues = new HashMap<>();
     this.parameters = new HashMap<>();
 
@@ -142,208 +214,2143 @@ public abstract class AnalogCircuitEnvironment {
       parameter = Parameter.get(name, parametersJsonObject.getJSONObject(name));
 
       this.parameters.put(parameter.getName(), parameter);
-      this.set(name, parameter.getInit());
+    }
+
+    this.parameterOrder = this.parameters.keySet()
+        .toArray(new String[this.parameters.size()]);
+    Arrays.sort(this.parameterOrder);
+
+    this.parameterArray = new Parameter[this.parameterOrder.length];
+    this.parameterIndex = new HashMap<>();
+    this.parameterVector = new double[this.parameterOrder.length];
+
+    for (int i = 0; i < this.parameterOrder.length; i++) {
+      this.parameterArray[i] = this.parameters.get(this.parameterOrder[i]);
+      this.parameterIndex.put(this.parameterOrder[i], i);
+      this.parameterVector[i] = this.parameterArray[i]
+          .getValidValue(this.parameterArray[i].getInit());
+    }
+
+    this.parameterValues = new ParameterMap(this.parameterOrder,
+        this.parameterIndex, this.parameterVector, null);
+
+    this.extractionPlan = ExtractionPlan
+        .compile(this.jsonObject.getJSONObject(PERFORMANCES_ID));
+
+    // performances that are not declared in the properties (e.g. the area)
+    final Set<String> identifiers = this.getPerformanceIdentifiers();
+    identifiers.addAll(Arrays.asList(this.getAdditionalPerformances()));
+
+    this.performanceSchema = new PerformanceSchema(identifiers);
+  }
+
+  /**
+   * Enable verbose mode. When simulation throws errors, they will be displayed
+   * in the console
+   * 
+   * @return this
+   */
+  public final AnalogCircuitEnvironment enableVerbose() {
+    this.verbose = true;
+    return this;
+  }
+
+  /**
+   * Set the name of the environment
+   * 
+   * @param name Name
+   * @return this
+   */
+  public final AnalogCircuitEnvironment setName(final String name) {
+    this.name = name;
+    return this;
+  }
+
+  /**
+   * Set the simulator backend. The sessions of the previous backend are
+   * stopped, new sessions are created by the next simulation. An enabled
+   * result store is replaced by the store of the new backend when it is used
+   * the next time and an enabled cache is cleared.
+   * 
+   * @param backend backend
+   * @return this when the backend is valid, <code>null</code> otherwise
+   */
+  public final AnalogCircuitEnvironment setBackend(
+      final SimulatorBackend backend) {
+
+    if (backend == null) {
+      System.err.println("No simulator backend is provided");
+      return null;
+    }
+
+    this.stop();
+
+    this.sessions = new ConcurrentHashMap<>();
+    this.warmUps.clear();
+    this.unsupportedAnalyses.clear();
+    this.backend = backend;
+
+    // results of the previous backend are not reused, the store was closed
+    // by stop() and is opened again with the fingerprint of the new backend
+    if (this.cache != null) {
+      this.cache.clear();
+    }
+
+    return this;
+  }
+
+  /**
+   * Get the simulator backend
+   * 
+   * @return backend, <code>null</code> when the environment cannot simulate
+   */
+  public final SimulatorBackend getBackend() {
+    return this.backend;
+  }
+
+  /**
+   * Disable verbose mode. When simulation throws errors, they will not
+   * displayed in the console
+   * 
+   * @return this
+   */
+  public final AnalogCircuitEnvironment disableVerbose() {
+    this.verbose = false;
+    return this;
+  }
+
+  /**
+   * Identify whether the run from last simulation is corrupted. Please enable
+   * verbose mode to identify the reason.
+   * 
+   * @return <code>true</code> when the result is corrupted, <code>false</code>
+   *         otherwise
+   * 
+   * @see AnalogCircuitEnvironment#enableVerbose()
+   */
+  public final boolean isCorrupted() {
+    return this.corrupted;
+  }
+
+  /**
+   * Get the technology scaling
+   * 
+   * @return scale
+   */
+  public final double getScale() {
+    return this.scale.doubleValue();
+  }
+
+  /**
+   * Get the scheduler that executes the simulations of this environment. When
+   * no scheduler was set explicitly, the shared default scheduler is used.
+   * 
+   * @return scheduler
+   * @see SimulationScheduler#getDefault()
+   */
+  public final SimulationScheduler getScheduler() {
+
+    final SimulationScheduler scheduler = this.scheduler;
+
+    if (scheduler == null) {
+      return SimulationScheduler.getDefault();
+    }
+
+    return scheduler;
+  }
+
+  /**
+   * Set the scheduler that executes the simulations of this environment
+   * 
+   * @param scheduler Scheduler, provide <code>null</code> to use the shared
+   *                  default scheduler
+   * @return this
+   */
+  public final AnalogCircuitEnvironment setScheduler(
+      final SimulationScheduler scheduler) {
+    this.scheduler = scheduler;
+    return this;
+  }
+
+  /**
+   * Get the license budget that limits the number of simulators of this
+   * environment that are started at the same time. When no budget was set
+   * explicitly, the shared default budget is used.
+   * 
+   * @return license budget
+   * @see LicenseBudget#getDefault()
+   */
+  public final LicenseBudget getLicenseBudget() {
+
+    if (this.licenseBudget == null) {
+      return LicenseBudget.getDefault();
+    }
+
+    return this.licenseBudget;
+  }
+
+  /**
+   * Set the license budget of this environment. Sessions that are already
+   * started keep the token of the previous budget until they are stopped.
+   * 
+   * @param licenseBudget License budget, provide <code>null</code> to use the
+   *                      shared default budget
+   * @return this
+   */
+  public final AnalogCircuitEnvironment setLicenseBudget(
+      final LicenseBudget licenseBudget) {
+    this.licenseBudget = licenseBudget;
+    return this;
+  }
+
+  /**
+   * Get the time the simulations of the last run waited for a license token.
+   * The key of the map corresponds to the name of the corner and the value to
+   * the waiting time in nanoseconds, summed over all attempts and, for
+   * {@link #simulateBatch(List, Set, Set)}, over all points of the batch.
+   * 
+   * @return map of waiting times
+   */
+  public final Map<String, Long> getLicenseWaitTimes() {
+    return new HashMap<>(this.licenseWaitTimes);
+  }
+
+  /**
+   * Enable the in-memory cache of simulation results. When a simulation is
+   * triggered with parameter values, corners and ignored analyses that were
+   * already simulated, the performances are taken from the cache instead of
+   * running the simulator. Only results that are not corrupted are cached.
+   * 
+   * @param capacity maximal number of results in the cache. When the
+   *                 capacity is exceeded, the least-recently-used result is
+   *                 removed.
+   * @return this
+   */
+  public final AnalogCircuitEnvironment enableCache(final int capacity) {
+    this.cache = new SimulationCache(capacity);
+    return this;
+  }
+
+  /**
+   * Disable the in-memory cache of simulation results
+   * 
+   * @return this
+   */
+  public final AnalogCircuitEnvironment disableCache() {
+    this.cache = null;
+    return this;
+  }
+
+  /**
+   * Get the in-memory cache of simulation results
+   * 
+   * @return cache, <code>null</code> when the cache is disabled
+   * @see #enableCache(int)
+   */
+  public final SimulationCache getCache() {
+    return this.cache;
+  }
+
+  /**
+   * Enable the persistent store of simulation results. Results are written to
+   * a file in the provided directory and reused by subsequent simulations,
+   * also across different runs of the JVM. The file is associated with a
+   * fingerprint of the netlists, the properties, the include directories and
+   * the simulator backend of the environment. When one of these inputs is
+   * changed, a new file is used, i.e., outdated results are never reused. The
+   * file is closed by {@link #stop()} and opened again by the next
+   * simulation.
+   * 
+   * @param directory Directory of the store
+   * @return <code>true</code> when the store was enabled successfully,
+   *         <code>false</code> otherwise
+   */
+  public final synchronized boolean enableResultStore(
+      final String directory) {
+
+    final File directoryFile = new File(directory);
+
+    if (!(directoryFile.exists() && directoryFile.isDirectory()
+        && directoryFile.canRead() && directoryFile.canWrite())) {
+
+      System.err.println("Cannot write results to \"" + directory + "\"");
+
+      return false;
+    }
+
+    this.closeResultStore();
+    this.storeDirectory = directoryFile;
+
+    if (this.openResultStore() == null) {
+      this.storeDirectory = null;
+      return false;
+    }
+
+    return true;
+  }
+
+  /**
+   * Disable the persistent store of simulation results
+   * 
+   * @return this
+   */
+  public final synchronized AnalogCircuitEnvironment disableResultStore() {
+    this.closeResultStore();
+    this.storeDirectory = null;
+    return this;
+  }
+
+  /**
+   * Get the persistent store of simulation results
+   * 
+   * @return store, <code>null</code> when the store is disabled
+   * @see #enableResultStore(String)
+   */
+  public final synchronized ResultStore getResultStore() {
+    return this.openResultStore();
+  }
+
+  /**
+   * Open the enabled result store, unless it is already open. The store is
+   * disabled when it cannot be opened.
+   * 
+   * @return store, <code>null</code> when the store is disabled
+   */
+  private synchronized ResultStore openResultStore() {
+
+    if ((this.store == null) && (this.storeDirectory != null)) {
+
+      try {
+
+        this.store = ResultStore.open(this.storeDirectory,
+            this.dir.getName(), this.getFingerprint(), this.parameterOrder,
+            this.performanceSchema);
+
+      } catch (final IOException e) {
+
+        System.err.println("Cannot open result store in \""
+            + this.storeDirectory + "\"\n" + e.getMessage());
+
+        this.storeDirectory = null;
+      }
+    }
+
+    return this.store;
+  }
+
+  /**
+   * Close the result store. The store remains enabled and is opened again
+   * when it is used.
+   */
+  private synchronized void closeResultStore() {
+
+    if (this.store == null) {
+      return;
+    }
+
+    try {
+      this.store.close();
+    } catch (final IOException e) {
+      System.err.println("Cannot close result store \""
+          + this.store.getFile() + "\"\n" + e.getMessage());
+    }
+
+    this.store = null;
+  }
+
+  /**
+   * Compute a fingerprint of all inputs of the simulation, i.e., the content
+   * of the properties and all netlists, the content of the include
+   * directories including all subdirectories (identified by path, size and
+   * modification time of the files) and the simulator backend.
+   * 
+   * @return fingerprint
+   * @throws IOException when an input cannot be read
+   */
+  private String getFingerprint() throws IOException {
+
+    final MessageDigest digest;
+
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IOException(e);
+    }
+
+    final Set<String> files = new TreeSet<>(this.corners.values());
+    files.add(JSON_FILE_NAME);
+
+    File file;
+
+    for (final String name : files) {
+
+      file = new File(this.dir, name);
 
+      digest.update(name.getBytes(StandardCharsets.UTF_8));
+
+      if (file.exists()) {
+        digest.update(Files.readAllBytes(file.toPath()));
+      }
+    }
+
+    for (final File includeDir : this.includeDirs) {
+
+      final Path root = includeDir.getCanonicalFile().toPath();
+
+      digest.update(root.toString().getBytes(StandardCharsets.UTF_8));
+
+      if (!Files.isDirectory(root)) {
+        continue;
+      }
+
+      final List<Path> content;
+
+      // model files of a PDK are typically located in subdirectories
+      try (Stream<Path> paths = Files.walk(root,
+          FileVisitOption.FOLLOW_LINKS)) {
+        content = paths.filter(Files::isRegularFile).sorted()
+            .collect(Collectors.toList());
+      }
+
+      for (final Path entry : content) {
+        digest.update((root.relativize(entry) + ":" + Files.size(entry) + ":"
+            + Files.getLastModifiedTime(entry).toMillis())
+                .getBytes(StandardCharsets.UTF_8));
+      }
+    }
+
+    if (this.backend != null) {
+      digest.update(
+          this.backend.getIdentifier().getBytes(StandardCharsets.UTF_8));
+    }
+
+    final StringBuilder builder = new StringBuilder();
+
+    for (final byte b : digest.digest()) {
+      builder.append(String.format("%02x", b));
     }
+
+    return builder.substring(0, 16);
   }
 
-  /**
-   * Enable verbose mode. When simulation throws errors, they will be displayed
-   * in the console
-   * 
-   * @return this
-   */
-  public final AnalogCircuitEnvironment enableVerbose() {
-    this.verbose = true;
-    return this;
+  /**
+   * Load the performances of corners from the persistent store
+   * 
+   * @param vector            parameter values in the parameter order
+   * @param corners           corners to be loaded
+   * @param blacklistAnalyses set of analyses to be ignored
+   * @param performanceValues map where the loaded performances are added
+   * @return set of corners that are not available in the store
+   */
+  private Set<String> loadFromStore(final double[] vector,
+      final Set<String> corners, final Set<String> blacklistAnalyses,
+      final Map<String, double[]> performanceValues) {
+
+    final ResultStore store = this.openResultStore();
+
+    if (store == null) {
+      return corners;
+    }
+
+    final Set<String> retval = new HashSet<>();
+
+    double[] stored;
+
+    for (final String corner : corners) {
+
+      try {
+        stored = store.get(corner, blacklistAnalyses, vector);
+      } catch (final IOException e) {
+        stored = null;
+      }
+
+      if (stored == null) {
+        retval.add(corner);
+      } else {
+        performanceValues.put(corner, stored);
+      }
+    }
+
+    return retval;
+  }
+
+  /**
+   * Save the performances of corners to the persistent store
+   * 
+   * @param vector            parameter values in the parameter order
+   * @param corners           corners to be saved
+   * @param blacklistAnalyses set of analyses that were ignored
+   * @param performanceValues map of performances
+   */
+  private void saveToStore(final double[] vector, final Set<String> corners,
+      final Set<String> blacklistAnalyses,
+      final Map<String, double[]> performanceValues) {
+
+    final ResultStore store = this.openResultStore();
+
+    if (store == null) {
+      return;
+    }
+
+    for (final String corner : corners) {
+
+      if (performanceValues.containsKey(corner)) {
+        try {
+          store.put(corner, blacklistAnalyses, vector,
+              performanceValues.get(corner));
+        } catch (final IOException e) {
+          System.err.println("Cannot write to result store \""
+              + store.getFile() + "\"\n" + e.getMessage());
+        }
+      }
+    }
+  }
+
+  /**
+   * Create a map view on a vector of parameter values
+   * 
+   * @param vector     parameter values in the parameter order
+   * @param attributes additional values, <code>null</code> when there are no
+   *                   additional values
+   * @return map view
+   */
+  private Map<String, Double> viewOf(final double[] vector,
+      final Map<String, Double> attributes) {
+    return new ParameterMap(this.parameterOrder, this.parameterIndex, vector,
+        attributes);
+  }
+
+  /**
+   * Parameter values that were pushed to a generation of a simulator
+   */
+  private static final class AppliedValues {
+
+    private final long generation;
+    private final double[] vector;
+
+    private AppliedValues(final long generation, final double[] vector) {
+      this.generation = generation;
+      this.vector = vector;
+    }
+  }
+
+  /**
+   * Push the parameter values of a run to a session. Only the values that
+   * differ from the last run of the session are pushed, all values are pushed
+   * to a new, stopped or restarted session.
+   * 
+   * @param session session
+   * @param vector  parameter values in the parameter order, the array must
+   *                not be modified afterwards
+   * @see SimulatorSession#getGeneration()
+   */
+  private void applyValues(final SimulatorSession session,
+      final double[] vector) {
+
+    final long generation = session.getGeneration();
+    final AppliedValues applied = this.appliedVectors.get(session);
+
+    if ((applied == null) || (applied.generation != generation)) {
+
+      session.setValueAttributes(Collections
+          .<String, Object>unmodifiableMap(this.viewOf(vector, null)));
+
+    } else {
+
+      final Map<String, Object> changes = new HashMap<>();
+
+      for (int i = 0; i < vector.length; i++) {
+        if (Double.doubleToLongBits(vector[i]) != Double
+            .doubleToLongBits(applied.vector[i])) {
+          changes.put(this.parameterOrder[i], vector[i]);
+        }
+      }
+
+      // an empty map replaces the values that were pushed before
+      session.setValueAttributes(Collections.unmodifiableMap(changes));
+    }
+
+    this.appliedVectors.put(session, new AppliedValues(generation, vector));
+  }
+
+  /**
+   * Stop a session and release its license token. The simulator loses the
+   * parameter values, hence all values are pushed by the next run.
+   * 
+   * @param session session
+   */
+  private void stopSession(final SimulatorSession session) {
+
+    this.appliedVectors.remove(session);
+    session.stop();
+
+    final LicenseBudget.Lease lease = this.leases.remove(session);
+
+    if (lease != null) {
+      lease.release();
+    }
+  }
+
+  /**
+   * Get the lease of the license token of a session. The session is stopped
+   * when the token is revoked while the session is idle.
+   * 
+   * @param session       session
+   * @param licenseBudget budget for sessions without a lease
+   * @return lease
+   */
+  private LicenseBudget.Lease leaseOf(final SimulatorSession session,
+      final LicenseBudget licenseBudget) {
+    return this.leases.computeIfAbsent(session,
+        (key) -> licenseBudget.lease(() -> {
+          this.appliedVectors.remove(key);
+          key.stop();
+        }));
+  }
+
+  /**
+   * Allocate simulation sessions. Sessions that are started by
+   * {@link #warmUp()} are awaited instead of being created again and
+   * replacements of recycled sessions that are ready are swapped in.
+   * 
+   * @param corners set of corners to be simulated
+   */
+  private final void allocateSessions(final Set<String> corners) {
+
+    this.swapStandbys();
+
+    CompletableFuture<Void> warmUp;
+
+    for (final String corner : corners) {
+
+      warmUp = this.warmUps.get(corner);
+
+      if (warmUp != null) {
+        try {
+          warmUp.join();
+        } catch (final RuntimeException e) {
+          // the session is created again below
+        }
+      }
+
+      if (!this.sessions.containsKey(corner)) {
+        this.sessions.put(corner, this.createSession(corner, false));
+      }
+    }
+  }
+
+  /**
+   * Create the simulation session of a corner
+   * 
+   * @param corner name of the corner
+   * @param start  start the simulator immediately when <code>true</code>,
+   *               otherwise the simulator is started on demand
+   * @return session
+   */
+  private SimulatorSession createSession(final String corner,
+      final boolean start) {
+
+    final long allocationStart = System.nanoTime();
+
+    final List<File> includeDirs = new ArrayList<>(
+        Arrays.asList(this.includeDirs));
+
+    if (this.jsonObject.has(CORNERS_ID)) {
+      includeDirs.add(this.dir);
+    }
+
+    final SimulatorSession session = this.backend.createSession(
+        this.name + "." + corner, new File(this.dir, this.corners.get(corner)),
+        includeDirs.toArray(new File[includeDirs.size()]));
+
+    session.setParentThread(this.parentThread);
+
+    // the session is started again on demand by the first simulation, a
+    // started session holds a license token until it is stopped
+    if (start) {
+
+      final LicenseBudget.Lease lease = this.leaseOf(session,
+          this.getLicenseBudget());
+
+      try {
+
+        lease.activate();
+
+        if (!session.start() && this.verbose) {
+          System.err.println("Unable to start session of corner \"" + corner
+              + "\", see logfile \"" + session.getLogFile() + "\"");
+        }
+
+        lease.deactivate();
+
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    this.record(corner, null, SimulationPhase.ALLOCATION, allocationStart);
+
+    return session;
+  }
+
+  /**
+   * Start the simulation sessions of all corners concurrently in the
+   * background. Each session is started by a separate dispatcher thread of
+   * the scheduler, such that the time until all sessions are ready
+   * corresponds to the slowest start of a single session and no worker is
+   * occupied by a start. Without a warm-up, sessions are created one after
+   * another by the first simulation of a corner.
+   * 
+   * @return future that is completed when all sessions are ready
+   */
+  public final CompletableFuture<AnalogCircuitEnvironment> warmUp() {
+
+    final SimulationScheduler scheduler = this.getScheduler();
+    final List<CompletableFuture<Void>> warmUps = new ArrayList<>();
+
+    for (final String corner : new TreeSet<>(this.corners.keySet())) {
+
+      final CompletableFuture<Void> warmUp = this.warmUps.computeIfAbsent(
+          corner, (key) -> this.sessions.containsKey(key)
+              ? CompletableFuture.completedFuture(null)
+              : scheduler.dispatch(() -> {
+                this.sessions.put(key, this.createSession(key, true));
+                return null;
+              }));
+
+      warmUps.add(warmUp);
+    }
+
+    return CompletableFuture
+        .allOf(warmUps.toArray(new CompletableFuture<?>[warmUps.size()]))
+        .thenApply((v) -> this);
+  }
+
+  /**
+   * Wait until all sessions that are started by {@link #warmUp()} are ready
+   */
+  private void awaitWarmUp() {
+
+    for (final CompletableFuture<Void> warmUp : this.warmUps.values()) {
+      try {
+        warmUp.join();
+      } catch (final RuntimeException e) {
+      }
+    }
+  }
+
+  /**
+   * Record the duration of a phase in the metrics registry
+   * 
+   * @param corner   name of the corner
+   * @param analysis name of the analysis, <code>null</code> when the phase
+   *                 covers all analyses of the corner
+   * @param phase    phase
+   * @param start    start of the phase as returned by
+   *                 {@link System#nanoTime()}
+   * @return duration of the phase in nanoseconds
+   */
+  private long record(final String corner, final String analysis,
+      final SimulationPhase phase, final long start) {
+
+    final long nanos = System.nanoTime() - start;
+
+    this.phaseTimes.computeIfAbsent(corner,
+        (key) -> new AtomicLongArray(SimulationPhase.values().length))
+        .addAndGet(phase.ordinal(), nanos);
+
+    if (this.metrics) {
+      this.getMetricsRegistry().record(this.name, corner, analysis, phase,
+          nanos);
+    }
+
+    return nanos;
+  }
+
+  /**
+   * Get the registry where the durations of the phases of simulations are
+   * recorded. When no registry was set explicitly, the shared default
+   * registry is used.
+   * 
+   * @return metrics registry
+   * @see MetricsRegistry#getDefault()
+   */
+  public final MetricsRegistry getMetricsRegistry() {
+
+    if (this.metricsRegistry == null) {
+      return MetricsRegistry.getDefault();
+    }
+
+    return this.metricsRegistry;
+  }
+
+  /**
+   * Set the registry where the durations of the phases of simulations are
+   * recorded
+   * 
+   * @param metricsRegistry registry, provide <code>null</code> to use the
+   *                        shared default registry
+   * @return this
+   */
+  public final AnalogCircuitEnvironment setMetricsRegistry(
+      final MetricsRegistry metricsRegistry) {
+    this.metricsRegistry = metricsRegistry;
+    return this;
+  }
+
+  /**
+   * Enable the recording of metrics. This is the default.
+   * 
+   * @return this
+   */
+  public final AnalogCircuitEnvironment enableMetrics() {
+    this.metrics = true;
+    return this;
+  }
+
+  /**
+   * Disable the recording of metrics
+   * 
+   * @return this
+   */
+  public final AnalogCircuitEnvironment disableMetrics() {
+    this.metrics = false;
+    return this;
+  }
+
+  /**
+   * Record a run of a session and start a replacement in the background when
+   * the session must be recycled according to the recycling policy
+   * 
+   * @param corner            name of the corner
+   * @param session           session of the corner
+   * @param blacklistAnalyses set of analyses that were ignored
+   * @param nanos             duration of the run in nanoseconds
+   * @param scheduler         scheduler that starts the replacement
+   * @see #setRecyclingPolicy(RecyclingPolicy)
+   */
+  private void recordRun(final String corner,
+      final SimulatorSession session, final Set<String> blacklistAnalyses,
+      final long nanos, final SimulationScheduler scheduler) {
+
+    final RecyclingPolicy policy = this.recyclingPolicy;
+
+    if (policy == null) {
+      return;
+    }
+
+    final SessionHealth sessionHealth = this.health.computeIfAbsent(corner,
+        (key) -> new SessionHealth(policy));
+
+    if (sessionHealth.record(blacklistAnalyses, nanos,
+        session.getWorkingDir())) {
+
+      this.standbys.computeIfAbsent(corner, (key) -> {
+
+        if (this.verbose) {
+          System.err.println("Recycling session of corner \"" + key
+              + "\" in \"" + session.getWorkingDir() + "\"");
+        }
+
+        // the start must not occupy a worker of the simulations
+        return scheduler.dispatch(() -> this.createSession(key, true));
+      });
+    }
+  }
+
+  /**
+   * Replace recycled sessions by their replacements when they are ready. The
+   * method must only be called between runs.
+   */
+  private void swapStandbys() {
+
+    final Iterator<Entry<String, CompletableFuture<SimulatorSession>>> iterator = this.standbys
+        .entrySet().iterator();
+
+    Entry<String, CompletableFuture<SimulatorSession>> entry;
+    SimulatorSession recycled;
+
+    while (iterator.hasNext()) {
+
+      entry = iterator.next();
+
+      if (!entry.getValue().isDone()) {
+        continue;
+      }
+
+      iterator.remove();
+
+      // a failed replacement is started again when the session is checked
+      if (entry.getValue().isCompletedExceptionally()) {
+        continue;
+      }
+
+      recycled = this.sessions.put(entry.getKey(), entry.getValue().join());
+      this.health.remove(entry.getKey());
+
+      if (recycled != null) {
+        this.discard(recycled);
+      }
+    }
+  }
+
+  /**
+   * Stop a session and delete its working directory
+   * 
+   * @param session session
+   */
+  private void discard(final SimulatorSession session) {
+
+    this.stopSession(session);
+
+    try {
+      FileUtils.deleteDirectory(new File(session.getWorkingDir()));
+    } catch (IOException e) {
+    }
+  }
+
+  /**
+   * Discard all replacements of recycled sessions
+   */
+  private void discardStandbys() {
+
+    for (final CompletableFuture<SimulatorSession> standby : this.standbys
+        .values()) {
+      try {
+        this.discard(standby.join());
+      } catch (final RuntimeException e) {
+      }
+    }
+
+    this.standbys.clear();
+    this.health.clear();
+  }
+
+  /**
+   * Set the policy for recycling of simulation sessions. After each run, the
+   * latency and the resident memory of the simulator are checked. When the
+   * policy is violated, a replacement session is started in the background
+   * and swapped in before the next simulation, such that simulations do not
+   * stall. In contrast to {@link #setRestartPeriod(int)}, only degraded
+   * sessions are replaced.
+   * 
+   * @param recyclingPolicy policy, <code>null</code> disables recycling
+   * @return this
+   */
+  public final AnalogCircuitEnvironment setRecyclingPolicy(
+      final RecyclingPolicy recyclingPolicy) {
+
+    this.recyclingPolicy = recyclingPolicy;
+
+    if (recyclingPolicy == null) {
+      this.discardStandbys();
+    } else {
+      this.health.clear();
+    }
+
+    return this;
+  }
+
+  /**
+   * Get the policy for recycling of simulation sessions
+   * 
+   * @return policy, <code>null</code> when recycling is disabled
+   */
+  public final RecyclingPolicy getRecyclingPolicy() {
+    return this.recyclingPolicy;
+  }
+
+  /**
+   * Simulate a single corner. The method is executed by a worker of the
+   * scheduler. The session holds a license token from its start until it is
+   * stopped or the token is revoked while the session is idle.
+   * 
+   * @param corner            name of the corner
+   * @param session           session of the corner
+   * @param vector            parameter values to be used in the parameter
+   *                          order, the array must not be modified afterwards
+   * @param blacklistAnalyses set of analyses to be ignored
+   * @param licenseBudget     license budget
+   * @param scheduler         scheduler of the simulation
+   * @return raw results of the simulation
+   * @throws InterruptedException when interrupted while waiting for a license
+   */
+  private CornerRun runCorner(final String corner,
+      final SimulatorSession session, final double[] vector,
+      final Set<String> blacklistAnalyses, final LicenseBudget licenseBudget,
+      final SimulationScheduler scheduler) throws InterruptedException {
+
+    if (this.incrementalExtraction) {
+
+      final Set<String> analyses = new TreeSet<>(this.getAnalyses());
+      analyses.removeAll(blacklistAnalyses);
+
+      if (analyses.size() > 1) {
+        return this.runCornerIncrementally(corner, session, vector,
+            blacklistAnalyses, analyses, licenseBudget, scheduler);
+      }
+    }
+
+    // a session holds a license token from its start until it is stopped,
+    // the token of an idle session is revoked when it is needed elsewhere
+    final LicenseBudget.Lease lease = this.leaseOf(session, licenseBudget);
+
+    this.licenseWaitTimes.merge(corner, lease.activate(), Long::sum);
+
+    long start = System.nanoTime();
+
+    final List<NutmegPlot> plots;
+    final Map<String, Double> attributes;
+
+    try {
+
+      session.setBlacklistAnalyses(blacklistAnalyses);
+      this.applyValues(session, vector);
+
+      this.record(corner, null, SimulationPhase.PARAMETERS, start);
+
+      start = System.nanoTime();
+
+      session.run();
+
+      this.recordRun(corner, session, blacklistAnalyses,
+          this.record(corner, null, SimulationPhase.SIMULATION, start),
+          scheduler);
+
+      start = System.nanoTime();
+
+      plots = session.getPlots();
+      attributes = this.readNetlistAttributes(session);
+
+    } finally {
+      lease.deactivate();
+    }
+
+    final Set<String> missingAnalyses = this.getAnalyses();
+    missingAnalyses.removeAll(blacklistAnalyses);
+
+    // a plot is returned for each analysis, unless the simulator failed
+    if (plots.size() >= missingAnalyses.size()) {
+      missingAnalyses.clear();
+    } else {
+
+      final Set<String> plotNames = NutmegPlot.getPlotMap(plots).keySet();
+
+      // all analyses are repeated when the plots cannot be assigned
+      if (!Collections.disjoint(missingAnalyses, plotNames)) {
+        missingAnalyses.removeAll(plotNames);
+      }
+    }
+
+    final Map<String, Double> values = this.viewOf(vector, attributes);
+
+    this.record(corner, null, SimulationPhase.RESULTS, start);
+
+    return new CornerRun(corner, plots, values, blacklistAnalyses,
+        missingAnalyses);
+  }
+
+  /**
+   * Simulate a single corner one analysis after another. The extraction of an
+   * analysis is started as soon as its plot is available and runs on a worker
+   * of the scheduler while the simulator continues with the next analysis.
+   * Each analysis is a separate run of the simulator, i.e., a corner with N
+   * analyses costs N runs and the operating point is computed in each run.
+   * 
+   * @param corner            name of the corner
+   * @param session           session of the corner
+   * @param vector            parameter values to be used in the parameter
+   *                          order, the array must not be modified afterwards
+   * @param blacklistAnalyses set of analyses to be ignored
+   * @param analyses          analyses to be simulated
+   * @param licenseBudget     license budget
+   * @param scheduler         scheduler of the simulation
+   * @return raw results of the simulation with pending extractions
+   * @throws InterruptedException when interrupted while waiting for a license
+   */
+  private CornerRun runCornerIncrementally(final String corner,
+      final SimulatorSession session, final double[] vector,
+      final Set<String> blacklistAnalyses, final Set<String> analyses,
+      final LicenseBudget licenseBudget, final SimulationScheduler scheduler)
+      throws InterruptedException {
+
+    final Set<String> allAnalyses = this.getAnalyses();
+    allAnalyses.addAll(blacklistAnalyses);
+
+    final PerformanceVector performanceValues = new PerformanceVector(
+        this.performanceSchema);
+
+    final List<NutmegPlot> plots = new ArrayList<>();
+    final List<CompletableFuture<Void>> extractions = new ArrayList<>();
+
+    Map<String, Double> values = null;
+
+    final Set<String> missingAnalyses = new HashSet<>();
+
+    // a session holds a license token from its start until it is stopped
+    final LicenseBudget.Lease lease = this.leaseOf(session, licenseBudget);
+
+    this.licenseWaitTimes.merge(corner, lease.activate(), Long::sum);
+
+    long start = System.nanoTime();
+    long nanos = 0;
+
+    try {
+
+      this.applyValues(session, vector);
+
+      this.record(corner, null, SimulationPhase.PARAMETERS, start);
+
+      for (final String analysis : analyses) {
+
+        final Set<String> analysisBlacklist = new HashSet<>(allAnalyses);
+        analysisBlacklist.remove(analysis);
+
+        session.setBlacklistAnalyses(analysisBlacklist);
+
+        start = System.nanoTime();
+        session.run();
+        nanos += this.record(corner, analysis, SimulationPhase.SIMULATION,
+            start);
+
+        start = System.nanoTime();
+
+        final List<NutmegPlot> analysisPlots = session.getPlots();
+
+        if (analysisPlots.isEmpty()) {
+          missingAnalyses.add(analysis);
+          continue;
+        }
+
+        plots.addAll(analysisPlots);
+
+        if (values == null) {
+          values = this.viewOf(vector, this.readNetlistAttributes(session));
+        }
+
+        this.record(corner, analysis, SimulationPhase.RESULTS, start);
+
+        final Map<String, Double> analysisValues = values;
+
+        extractions.add(CompletableFuture.runAsync(() -> {
+
+          final long extractionStart = System.nanoTime();
+
+          this.extract(corner, analysisPlots, analysisValues,
+              analysisBlacklist, performanceValues);
+
+          this.extractExpressions(analysisPlots, analysisValues,
+              analysisBlacklist, performanceValues);
+
+          this.record(corner, analysis, SimulationPhase.EXTRACTION,
+              extractionStart);
+        }, scheduler.getExecutor()));
+      }
+
+    } finally {
+      lease.deactivate();
+    }
+
+    this.recordRun(corner, session, blacklistAnalyses, nanos, scheduler);
+
+    if (values == null) {
+      values = this.viewOf(vector, null);
+    }
+
+    return new CornerRun(corner, plots, values, blacklistAnalyses,
+        missingAnalyses, performanceValues, extractions);
+  }
+
+  /**
+   * Get the analyses of the environment that the simulator backend cannot
+   * simulate in a corner
+   * 
+   * @param corner name of the corner
+   * @return set of analyses
+   * @see SimulatorBackend#getSupportedAnalyses(File)
+   */
+  private Set<String> getUnsupportedAnalyses(final String corner) {
+
+    final SimulatorBackend backend = this.backend;
+
+    return this.unsupportedAnalyses.computeIfAbsent(corner, (key) -> {
+
+      final Set<String> supported = backend
+          .getSupportedAnalyses(new File(this.dir, this.corners.get(key)));
+
+      final Set<String> retval = this.getAnalyses();
+
+      if (supported == null) {
+        retval.clear();
+      } else {
+        retval.removeAll(supported);
+      }
+
+      if (!retval.isEmpty() && this.verbose) {
+        System.err.println("Analyses " + new TreeSet<>(retval)
+            + " are not supported by the simulator and are ignored in corner \""
+            + key + "\"");
+      }
+
+      return Collections.unmodifiableSet(retval);
+    });
+  }
+
+  /**
+   * Simulate a single corner and repeat the analyses that did not return
+   * results. After a failure, the session of the corner is replaced by a new
+   * session and only the failed analyses are simulated again, at most
+   * {@link #getMaxRetries()} times. Analyses that are not supported by the
+   * simulator backend are ignored. The status of the corner is recorded.
+   * 
+   * @param corner            name of the corner
+   * @param vector            parameter values to be used in the parameter
+   *                          order, the array must not be modified afterwards
+   * @param blacklistAnalyses set of analyses to be ignored
+   * @param licenseBudget     license budget
+   * @param scheduler         scheduler of the simulation
+   * @return raw results of all attempts
+   * @throws InterruptedException when interrupted while waiting for a license
+   * @see #getCornerStatus()
+   */
+  private List<CornerRun> simulateCorner(final String corner,
+      final double[] vector, final Set<String> blacklistAnalyses,
+      final LicenseBudget licenseBudget, final SimulationScheduler scheduler)
+      throws InterruptedException {
+
+    final List<CornerRun> runs = new ArrayList<>();
+    final List<String> causes = new ArrayList<>();
+
+    // unsupported analyses would fail in every attempt
+    final Set<String> ignoredAnalyses = new HashSet<>(blacklistAnalyses);
+    ignoredAnalyses.addAll(this.getUnsupportedAnalyses(corner));
+
+    final Set<String> pendingAnalyses = this.getAnalyses();
+    pendingAnalyses.removeAll(ignoredAnalyses);
+
+    final int maxRetries = this.maxRetries;
+
+    Set<String> attemptBlacklist = ignoredAnalyses;
+    SimulatorSession session;
+    CornerRun run;
+    int attempts = 0;
+
+    while (true) {
+
+      session = this.sessions.get(corner);
+      attempts++;
+
+      try {
+
+        run = this.runCorner(corner, session, vector, attemptBlacklist,
+            licenseBudget, scheduler);
+        runs.add(run);
+
+        pendingAnalyses.retainAll(run.getMissingAnalyses());
+
+        if (pendingAnalyses.isEmpty()) {
+          break;
+        }
+
+        causes.add("Analyses " + new TreeSet<>(pendingAnalyses)
+            + " did not return results, see logfile \""
+            + session.getLogFile() + "\"");
+
+      } catch (final RuntimeException e) {
+        causes.add(e.toString());
+      }
+
+      // the logfile of the failed session is kept
+      this.stopSession(session);
+      this.health.remove(corner);
+      this.sessions.put(corner, this.createSession(corner, false));
+
+      if (attempts > maxRetries) {
+        break;
+      }
+
+      // simulate only the analyses that failed
+      attemptBlacklist = this.getAnalyses();
+      attemptBlacklist.addAll(ignoredAnalyses);
+      attemptBlacklist.removeAll(pendingAnalyses);
+    }
+
+    if (this.verbose) {
+      for (final String cause : causes) {
+        System.err.println("Corner \"" + corner + "\": " + cause);
+      }
+    }
+
+    this.cornerStatus.merge(corner,
+        new CornerStatus(corner, attempts, attempts - 1,
+            !pendingAnalyses.isEmpty(), pendingAnalyses, causes),
+        CornerStatus::merge);
+
+    if (runs.isEmpty()) {
+      throw new IllegalStateException("Simulation of corner \"" + corner
+          + "\" failed: " + String.join("; ", causes));
+    }
+
+    return runs;
+  }
+
+  /**
+   * Read the netlist attributes from a session
+   * 
+   * @param session session
+   * @return map of attribute values, <code>null</code> when the environment
+   *         has no netlist attributes
+   * @see #getNetlistAttributes()
+   */
+  private Map<String, Double> readNetlistAttributes(
+      final SimulatorSession session) {
+
+    final String[] attributes = this.getNetlistAttributes();
+
+    if (attributes.length == 0) {
+      return null;
+    }
+
+    final Map<String, Double> retval = new HashMap<>();
+
+    for (final String attribute : attributes) {
+
+      retval.put(attribute, session.getNumericValueAttribute(attribute));
+    }
+
+    return retval;
+  }
+
+  /**
+   * Get the names of netlist attributes that are read from the simulator
+   * after each simulation. The values are provided to
+   * {@link #extract(String, List, Map, Set, PerformanceVector)} in addition to
+   * the parameter values. The method is called by the constructor, i.e., it
+   * must not depend on fields of the subclass.
+   * 
+   * @return array of attribute names
+   * @see #getAdditionalPerformances()
+   */
+  protected String[] getNetlistAttributes() {
+    return new String[0];
+  }
+
+  /**
+   * Get the identifiers of performances that are extracted, but not declared
+   * in the properties, e.g. netlist attributes that are reported as
+   * performances. The identifiers are part of the performance schema. The
+   * method is called by the constructor, i.e., it must not depend on fields
+   * of the subclass.
+   * 
+   * @return array of performance identifiers
+   */
+  protected String[] getAdditionalPerformances() {
+    return new String[0];
+  }
+
+  /**
+   * Extract the performances of a corner from the results of a simulation.
+   * The method is called concurrently for different corners by the workers of
+   * the scheduler, i.e., it must not modify the environment. Unavailable
+   * results are reported with {@link PerformanceVector#setCorrupted()}.
+   * 
+   * @param corner            name of the corner
+   * @param plots             plots that were returned by the simulator
+   * @param values            values of the parameters and netlist attributes
+   *                          during the simulation
+   * @param blacklistAnalyses set of analyses that were ignored
+   * @param performanceValues vector where the extracted performances are
+   *                          stored
+   * @see #getNetlistAttributes()
+   */
+  protected abstract void extract(final String corner,
+      final List<NutmegPlot> plots, final Map<String, Double> values,
+      final Set<String> blacklistAnalyses,
+      final PerformanceVector performanceValues);
+
+  /**
+   * Extract the performances of a simulated corner
+   * 
+   * @param run raw results of the simulation
+   * @return vector of performances
+   */
+  private PerformanceVector extract(final CornerRun run) {
+
+    if (run.isExtractedIncrementally()) {
+      return run.awaitExtractions();
+    }
+
+    final long start = System.nanoTime();
+
+    final PerformanceVector performanceValues = new PerformanceVector(
+        this.performanceSchema);
+
+    this.extract(run.getCorner(), run.getPlots(), run.getValues(),
+        run.getBlacklistAnalyses(), performanceValues);
+
+    this.extractExpressions(run.getPlots(), run.getValues(),
+        run.getBlacklistAnalyses(), performanceValues);
+
+    this.record(run.getCorner(), null, SimulationPhase.EXTRACTION, start);
+
+    return performanceValues;
+  }
+
+  /**
+   * Extract the performances of a corner that was simulated in multiple
+   * attempts. Each attempt provides the performances of the analyses that
+   * were simulated successfully.
+   * 
+   * @param runs raw results of all attempts
+   * @return vector of performances
+   */
+  private PerformanceVector extract(final List<CornerRun> runs) {
+
+    final PerformanceVector retval = this.extract(runs.get(0));
+
+    PerformanceVector attempt;
+    double[] values;
+
+    for (int i = 1; i < runs.size(); i++) {
+
+      attempt = this.extract(runs.get(i));
+      values = attempt.getValues();
+
+      for (int j = 0; j < values.length; j++) {
+        if (!Double.isNaN(values[j])) {
+          retval.put(j, values[j]);
+        }
+      }
+
+      if (attempt.isCorrupted()) {
+        retval.setCorrupted();
+      }
+    }
+
+    return retval;
+  }
+
+  /**
+   * Extract the performances that are defined by a measurement expression in
+   * the properties of the environment. The plot of an analysis is identified
+   * by its name. Expressions are evaluated after
+   * {@link #extract(String, List, Map, Set, PerformanceVector)} and overwrite
+   * the values of the environment.
+   * 
+   * @param plots             plots that were returned by the simulator
+   * @param values            values of the parameters and netlist attributes
+   *                          during the simulation
+   * @param blacklistAnalyses set of analyses that were ignored
+   * @param performanceValues vector where the extracted performances are
+   *                          stored
+   */
+  private void extractExpressions(final List<NutmegPlot> plots,
+      final Map<String, Double> values, final Set<String> blacklistAnalyses,
+      final PerformanceVector performanceValues) {
+
+    final Map<String, List<PerformanceDefinition>> expressions = this.extractionPlan
+        .getExpressions();
+
+    if (expressions.isEmpty()) {
+      return;
+    }
+
+    final Map<String, NutmegPlot> plotsMap = NutmegPlot.getPlotMap(plots);
+
+    NutmegPlot plot;
+    AnalysisResults results;
+
+    for (final Entry<String, List<PerformanceDefinition>> entry : expressions
+        .entrySet()) {
+
+      plot = plotsMap.get(entry.getKey());
+
+      if (blacklistAnalyses.contains(entry.getKey()) || (plot == null)) {
+        continue;
+      }
+
+      results = new AnalysisResults(entry.getKey(), plot, values);
+
+      for (final PerformanceDefinition definition : entry.getValue()) {
+        performanceValues.put(definition.getIdentifier(),
+            definition.getExtractor().extract(results));
+      }
+    }
+  }
+
+  /**
+   * Enable the incremental extraction of performances. The analyses of a
+   * corner are simulated one after another and the performances of an
+   * analysis are extracted in the background while the simulator continues
+   * with the next analysis. Analyses in the netlist that are not part of the
+   * table of performances are simulated together with every analysis, i.e.,
+   * the netlist should only contain analyses that are part of the table.
+   * Each analysis is a separate run of the simulator, such that the mode only
+   * pays off when the extraction takes longer than the overhead of a run.
+   * 
+   * @return this
+   */
+  public final AnalogCircuitEnvironment enableIncrementalExtraction() {
+    this.incrementalExtraction = true;
+    return this;
+  }
+
+  /**
+   * Disable the incremental extraction of performances. All analyses of a
+   * corner are simulated at once and the performances are extracted
+   * afterwards.
+   * 
+   * @return this
+   * @see #enableIncrementalExtraction()
+   */
+  public final AnalogCircuitEnvironment disableIncrementalExtraction() {
+    this.incrementalExtraction = false;
+    return this;
+  }
+
+  /**
+   * Enable the parallel extraction of performances. The performances of a
+   * corner are extracted in the common fork-join pool as soon as the
+   * simulation of the corner terminated. This is the default.
+   * 
+   * @return this
+   */
+  public final AnalogCircuitEnvironment enableParallelExtraction() {
+    this.parallelExtraction = true;
+    return this;
+  }
+
+  /**
+   * Disable the parallel extraction of performances. The performances of all
+   * corners are extracted one after another by the thread that triggered the
+   * simulation, which simplifies debugging of the extraction.
+   * 
+   * @return this
+   */
+  public final AnalogCircuitEnvironment disableParallelExtraction() {
+    this.parallelExtraction = false;
+    return this;
+  }
+
+  /**
+   * Create the extraction of a corner. In parallel mode, the extraction is
+   * started by a worker of the scheduler as soon as the simulation
+   * terminated. In serial mode, the extraction is executed by the thread that
+   * requests the result.
+   * 
+   * @param runs      future of the simulation of the corner
+   * @param scheduler scheduler of the simulation
+   * @return supplier of the vector of performances
+   */
+  private Supplier<PerformanceVector> extraction(
+      final CompletableFuture<List<CornerRun>> runs,
+      final SimulationScheduler scheduler) {
+
+    if (this.parallelExtraction) {
+
+      final CompletableFuture<PerformanceVector> extraction = runs
+          .thenApplyAsync(result -> this.extract(result),
+              scheduler.getExecutor());
+
+      return extraction::join;
+    }
+
+    return () -> this.extract(runs.join());
+  }
+
+  /**
+   * Wait for the extraction of a corner. The last run is marked as corrupted
+   * when the extraction reported corrupted performances.
+   * 
+   * @param extraction extraction of the corner
+   * @return array of performances, indexed by the performance schema
+   */
+  private double[] collect(final Supplier<PerformanceVector> extraction) {
+
+    final PerformanceVector performanceValues = extraction.get();
+
+    if (performanceValues.isCorrupted()) {
+      this.corrupted = true;
+    }
+
+    return performanceValues.getValues();
+  }
+
+  /**
+   * Mark the last run as corrupted because of a failed simulation or
+   * extraction
+   * 
+   * @param corner name of the corner that failed
+   * @param e      exception
+   */
+  private void reportFailure(final String corner, final RuntimeException e) {
+
+    this.corrupted = true;
+
+    final Throwable cause = (e instanceof CompletionException)
+        && (e.getCause() != null) ? e.getCause() : e;
+
+    this.cornerStatus.merge(corner,
+        new CornerStatus(corner, 0, 0, true,
+            Collections.<String>emptySet(),
+            Collections.singletonList(cause.toString())),
+        CornerStatus::merge);
+
+    if (this.verbose) {
+      if ((e instanceof CompletionException) && (e.getCause() != null)) {
+        e.getCause().printStackTrace();
+      } else {
+        e.printStackTrace();
+      }
+    }
+  }
+
+  /**
+   * Mark the last run as corrupted when a corner failed after all retries
+   */
+  private void identifyFailedCorners() {
+    for (final CornerStatus status : this.cornerStatus.values()) {
+      if (status.isFailed()) {
+        this.corrupted = true;
+      }
+    }
+  }
+
+  /**
+   * Stop all sessions when the restart period is exceeded
+   * 
+   * @param runs number of runs that were performed
+   */
+  private void countRuns(final int runs) {
+
+    this.numOfRuns += runs;
+
+    if (this.numOfRuns >= this.restartPeriod) {
+
+      this.numOfRuns = 0;
+
+      for (SimulatorSession session : this.sessions.values()) {
+        this.stopSession(session);
+      }
+    }
+  }
+
+  /**
+   * Trigger a circuit simulation
+   * 
+   * @param blacklistAnalyses set of analyses to be ignored
+   * @param corners           set of corners to be simulated
+   * 
+   * @return <code>this</code>
+   */
+  public synchronized AnalogCircuitEnvironment simulate(
+      final Set<String> blacklistAnalyses, final Set<String> corners) {
+    this.simulate(this.parameterVector.clone(), blacklistAnalyses, corners,
+        this.getScheduler());
+    return this;
+  }
+
+  /**
+   * Simulate a parameter vector. The results are stored in the environment.
+   * 
+   * @param vector            parameter values in the parameter order, the
+   *                          array must not be modified afterwards
+   * @param blacklistAnalyses set of analyses to be ignored
+   * @param corners           set of corners to be simulated
+   * @param scheduler         scheduler that executes the simulation
+   */
+  private synchronized void simulate(final double[] vector,
+      final Set<String> blacklistAnalyses, Set<String> corners,
+      final SimulationScheduler scheduler) {
+
+    if ((corners == null) || corners.isEmpty()) {
+      corners = new HashSet<>();
+      corners.add(this.nomCorner);
+    }
+
+    // the fields describe the last simulation, also when it is answered by
+    // the cache
+    this.corrupted = false;
+    this.cornerStatus.clear();
+    this.phaseTimes.clear();
+    this.licenseWaitTimes.clear();
+
+    SimulationCache.Key key = null;
+
+    if (this.cache != null) {
+
+      key = SimulationCache.key(vector, blacklistAnalyses, corners);
+
+      final Map<String, double[]> cached = this.cache.get(key);
+
+      if (cached != null) {
+        this.performanceValues = cached;
+        return;
+      }
+    }
+
+    final Map<String, double[]> performanceValues = new HashMap<>();
+
+    // corners that are available in the persistent store are not simulated
+    final Set<String> pending = this.loadFromStore(vector, corners,
+        blacklistAnalyses, performanceValues);
+
+    if (!pending.isEmpty()) {
+
+      this.allocateSessions(pending);
+
+      final LicenseBudget licenseBudget = this.getLicenseBudget();
+      // sorted by corner, such that the results are merged deterministically
+      final Map<String, Supplier<PerformanceVector>> extractions = new TreeMap<>();
+
+      for (final String corner : pending) {
+
+        if (this.sessions.containsKey(corner)) {
+          extractions.put(corner,
+              this.extraction(scheduler.submit(
+                  () -> this.simulateCorner(corner, vector, blacklistAnalyses,
+                      licenseBudget, scheduler)),
+                  scheduler));
+        }
+      }
+
+      for (final Entry<String, Supplier<PerformanceVector>> entry : extractions
+          .entrySet()) {
+        try {
+          performanceValues.put(entry.getKey(),
+              this.collect(entry.getValue()));
+        } catch (final RuntimeException e) {
+          this.reportFailure(entry.getKey(), e);
+        }
+      }
+
+      this.identifyFailedCorners();
+
+      if (!this.corrupted) {
+        this.saveToStore(vector, pending, blacklistAnalyses,
+            performanceValues);
+      }
+
+      this.countRuns(1);
+    }
+
+    this.performanceValues = performanceValues;
+
+    if ((key != null) && !this.corrupted) {
+      this.cache.put(key, performanceValues);
+    }
+  }
+
+  /**
+   * Simulate multiple sizings of the circuit. The sizings are streamed
+   * through the sessions of the corners, i.e., each session simulates the
+   * sizings back-to-back without waiting for the other corners, while the
+   * performances of finished simulations are extracted in the background
+   * (unless the parallel extraction is disabled). The parameters of the
+   * environment are not changed.
+   * 
+   * @param sizings           list of sizings. Each sizing is a map where the
+   *                          key corresponds to the name of a parameter and
+   *                          the value to the value of the parameter.
+   *                          Parameters that are not part of a sizing keep
+   *                          their current value.
+   * @param blacklistAnalyses set of analyses to be ignored
+   * @param corners           set of corners to be simulated
+   * @return list of performances in the order of the sizings. Each element
+   *         is a map of maps, the key of the outer map corresponds to the
+   *         name of the corner and the key of the inner map to the name of
+   *         the performance.
+   */
+  public final synchronized List<Map<String, Map<String, Double>>> simulateBatch(
+      final List<Map<String, Double>> sizings,
+      final Set<String> blacklistAnalyses, Set<String> corners) {
+
+    if ((corners == null) || corners.isEmpty()) {
+      corners = new HashSet<>();
+      corners.add(this.nomCorner);
+    }
+
+    this.corrupted = false;
+    this.cornerStatus.clear();
+    this.phaseTimes.clear();
+
+    final List<double[]> points = new ArrayList<>();
+
+    double[] point;
+    Integer position;
+
+    for (final Map<String, Double> sizing : sizings) {
+
+      point = this.parameterVector.clone();
+
+      for (final Entry<String, Double> entry : sizing.entrySet()) {
+
+        position = this.parameterIndex.get(entry.getKey());
+
+        if (position != null) {
+          point[position] = this.parameterArray[position]
+              .getValidValue(entry.getValue());
+        } else {
+          System.err.println("\"" + entry.getKey() + "\" is not a parameter");
+        }
+      }
+
+      points.add(point);
+    }
+
+    this.allocateSessions(corners);
+
+    this.licenseWaitTimes.clear();
+
+    final SimulationScheduler scheduler = this.getScheduler();
+    final LicenseBudget licenseBudget = this.getLicenseBudget();
+
+    // sorted by corner, such that the results are merged deterministically
+    final List<Map<String, Supplier<PerformanceVector>>> extractions = new ArrayList<>();
+
+    for (int i = 0; i < points.size(); i++) {
+      extractions.add(new TreeMap<>());
+    }
+
+    final List<CompletableFuture<Void>> streams = new ArrayList<>();
+
+    for (final String corner : corners) {
+
+      if (this.sessions.containsKey(corner)) {
+
+        final List<CompletableFuture<List<CornerRun>>> cornerRuns = new ArrayList<>();
+
+        for (int i = 0; i < points.size(); i++) {
+          cornerRuns.add(new CompletableFuture<>());
+          extractions.get(i).put(corner,
+              this.extraction(cornerRuns.get(i), scheduler));
+        }
+
+        // one task per corner simulates all points in sequence, the
+        // extraction of a point is decoupled from the session
+        streams.add(scheduler.submit(() -> {
+
+          for (int i = 0; i < points.size(); i++) {
+            try {
+              cornerRuns.get(i)
+                  .complete(this.simulateCorner(corner, points.get(i),
+                      blacklistAnalyses, licenseBudget, scheduler));
+            } catch (final Exception e) {
+              cornerRuns.get(i).completeExceptionally(e);
+            }
+          }
+
+          return null;
+        }));
+      }
+    }
+
+    final List<Map<String, Map<String, Double>>> retval = new ArrayList<>();
+
+    Map<String, Map<String, Double>> result;
+
+    for (final Map<String, Supplier<PerformanceVector>> pointExtractions : extractions) {
+
+      result = new HashMap<>();
+
+      for (final Entry<String, Supplier<PerformanceVector>> entry : pointExtractions
+          .entrySet()) {
+        try {
+          result.put(entry.getKey(), new PerformanceMap(
+              this.performanceSchema, this.collect(entry.getValue())));
+        } catch (final RuntimeException e) {
+          this.reportFailure(entry.getKey(), e);
+        }
+      }
+
+      retval.add(result);
+    }
+
+    for (final CompletableFuture<Void> stream : streams) {
+      try {
+        stream.join();
+      } catch (final CompletionException e) {
+        this.corrupted = true;
+      }
+    }
+
+    this.identifyFailedCorners();
+
+    this.countRuns(points.size());
+
+    return retval;
   }
 
   /**
-   * Set the name of the environment
+   * Trigger a circuit simulation
    * 
-   * @param name Name
-   * @return this
+   * @param blacklistAnalyses set of analyses to be ignored
+   * 
+   * @return <code>this</code>
    */
-  public final AnalogCircuitEnvironment setName(final String name) {
-    this.name = name;
-    return this;
+  public AnalogCircuitEnvironment simulate(
+      final Set<String> blacklistAnalyses) {
+
+    final HashSet<String> corners = new HashSet<>();
+    corners.add(this.nomCorner);
+
+    return this.simulate(blacklistAnalyses, corners);
   }
 
   /**
-   * Disable verbose mode. When simulation throws errors, they will not
-   * displayed in the console
+   * Trigger a circuit simulation
    * 
-   * @return this
+   * @return <code>this</code>
    */
-  public final AnalogCircuitEnvironment disableVerbose() {
-    this.verbose = false;
-    return this;
+  public AnalogCircuitEnvironment simulate() {
+    final HashSet<String> corners = new HashSet<>();
+    corners.add(this.nomCorner);
+
+    return this.simulate(new HashSet<String>(), corners);
   }
 
   /**
-   * Identify whether the run from last simulation is corrupted. Please enable
-   * verbose mode to identify the reason.
-   * 
-   * @return <code>true</code> when the result is corrupted, <code>false</code>
-   *         otherwise
+   * Trigger a circuit simulation that is executed by a scheduler. The
+   * scheduler of the environment is not changed.
    * 
-   * @see AnalogCircuitEnvironment#enableVerbose()
+   * @param scheduler scheduler, <code>null</code> to use the scheduler of the
+   *                  environment
+   * @return <code>this</code>
    */
-  public final boolean isCorrupted() {
-    return this.corrupted;
+  final synchronized AnalogCircuitEnvironment simulateOn(
+      final SimulationScheduler scheduler) {
+
+    final HashSet<String> corners = new HashSet<>();
+    corners.add(this.nomCorner);
+
+    this.simulate(this.parameterVector.clone(), new HashSet<String>(),
+        corners, scheduler == null ? this.getScheduler() : scheduler);
+
+    return this;
   }
 
   /**
-   * Get the technology scaling
+   * Simulate a parameter vector in the nominal corner without blocking the
+   * caller
    * 
-   * @return scale
+   * @param vector parameter values in the order of
+   *               {@link #getParameterOrder()}
+   * @return future of the result, <code>null</code> when the length of the
+   *         vector does not match the number of parameters
+   * @see #simulateAsync(double[], Set, Set)
    */
-  public final double getScale() {
-    return this.scale.doubleValue();
+  public final CompletableFuture<SimulationResult> simulateAsync(
+      final double[] vector) {
+    return this.simulateAsync(vector, new HashSet<String>(), null);
   }
 
   /**
-   * Allocate simulation sessions
+   * Simulate a parameter vector without blocking the caller. The values are
+   * pushed on the grid of the parameters. Asynchronous simulations of an
+   * environment are executed one after another in the order of their
+   * submission, such that the next parameter vector can be submitted while
+   * the previous one is simulated. The parameters of the environment are not
+   * changed, the results of the environment (e.g.
+   * {@link #getPerformanceValues()}) are the results of the last simulation,
+   * regardless of whether it was asynchronous.
    * 
-   * @param corners set of corners to be simulated
+   * @param vector            parameter values in the order of
+   *                          {@link #getParameterOrder()}
+   * @param blacklistAnalyses set of analyses to be ignored
+   * @param corners           set of corners to be simulated,
+   *                          <code>null</code> or empty for the nominal
+   *                          corner
+   * @return future of the result, <code>null</code> when the length of the
+   *         vector does not match the number of parameters
    */
-  private final void allocateSessions(final Set<String> corners) {
+  public final CompletableFuture<SimulationResult> simulateAsync(
+      final double[] vector, final Set<String> blacklistAnalyses,
+      final Set<String> corners) {
 
-    SpectreInteractiveSession session;
+    if (vector.length != this.parameterVector.length) {
 
-    for (final String corner : corners) {
+      System.err.println("Vector has " + vector.length + " values, but "
+          + this.parameterVector.length + " are expected");
 
-      if (!this.sessions.containsKey(corner)) {
+      return null;
+    }
 
-        session = this.factory
-            .createInteractiveSession(this.name + "." + corner);
+    final double[] point = this.snap(vector, new double[vector.length]);
+    final Set<String> blacklist = new HashSet<>(blacklistAnalyses);
+    final Set<String> cornerSet = corners == null ? null
+        : new HashSet<>(corners);
 
-        for (final File file : this.includeDirs) {
-          try {
-            session.addIncludeDirectory(file);
-          } catch (final FileNotFoundException e) {
-            e.printStackTrace();
-          }
-        }
+    final SimulationScheduler scheduler = this.getScheduler();
+    final CompletableFuture<SimulationResult> future = new CompletableFuture<>();
 
-        if (this.jsonObject.has(CORNERS_ID)) {
-          try {
-            session.addIncludeDirectory(this.dir);
-          } catch (final FileNotFoundException e) {
-            e.printStackTrace();
-          }
-        }
+    CompletableFuture<SimulationResult> previous;
 
-        try {
-          session.setNetlist(new File(this.dir, this.corners.get(corner)));
-        } catch (final IOException e) {
-          e.printStackTrace();
-        }
+    synchronized (this.asyncLock) {
+      previous = this.lastAsync;
+      this.lastAsync = future;
+    }
 
-        session.setParentThread(this.parentThread);
-       
-        for (Entry<String, Double> entry : this.parameterValues.entrySet()) {
-  
+    // the simulation is orchestrated by a dispatcher of the scheduler
+    previous.whenComplete((result, e) -> {
+      try {
+        scheduler.dispatch(() -> {
           try {
-            session.setValueAttribute(entry.getKey(), entry.getValue());
-          } catch (Exception e) {
+            future.complete(
+                this.simulateSnapshot(point, blacklist, cornerSet, scheduler));
+          } catch (final Throwable t) {
+            future.completeExceptionally(t);
           }
-        }
-
-        this.sessions.put(corner,
-            new SpectreInteractiveParallelHandle(session));
+        });
+      } catch (final RejectedExecutionException t) {
+        future.completeExceptionally(t);
       }
-    }
+    });
+
+    return future;
   }
 
   /**
-   * Trigger a circuit simulation
+   * Simulate a parameter vector and take a snapshot of the results
    * 
+   * @param vector            parameter values on the grid
    * @param blacklistAnalyses set of analyses to be ignored
-   * 
-   * @return <code>this</code>
+   * @param corners           set of corners to be simulated
+   * @param scheduler         scheduler that executes the simulation
+   * @return result
    */
-  public  AnalogCircuitEnvironment simulate(final Set<String> blacklistAnalyses,
-      Set<String> corners) {
-
-    if ((corners == null) || corners.isEmpty()) {
-      corners = new HashSet<>();
-      corners.add(this.nomCorner);
-    }
-
-    this.allocateSessions(corners);
-
-    final SpectreParallelPool pool = new SpectreParallelPool(
-        this.corners.size());
+  private synchronized SimulationResult simulateSnapshot(final double[] vector,
+      final Set<String> blacklistAnalyses, final Set<String> corners,
+      final SimulationScheduler scheduler) {
 
-    pool.setParentThread(this.parentThread);
+    final long start = System.nanoTime();
 
-    SpectreInteractiveParallelHandle session;
+    this.simulate(vector, blacklistAnalyses, corners, scheduler);
 
-    Map<String, Object> values;
-
-    for (final String corner : corners) {
-
-      if (this.sessions.containsKey(corner)) {
+    final long duration = System.nanoTime() - start;
 
-        session = this.sessions.get(corner);
+    final Map<String, Map<SimulationPhase, Long>> times = new HashMap<>();
 
-        pool.registerSession(session);
-        session.setBlackListAnalyses(blacklistAnalyses);
+    Map<SimulationPhase, Long> cornerTimes;
 
-        values = new HashMap<>();
+    for (final Entry<String, AtomicLongArray> entry : this.phaseTimes
+        .entrySet()) {
 
-        for (final Entry<String, Double> entry : this.parameterValues
-            .entrySet()) {
-          values.put(entry.getKey(), entry.getValue());
-        }
+      cornerTimes = new EnumMap<>(SimulationPhase.class);
 
-        session.setValueAttributes(values);
+      for (final SimulationPhase phase : SimulationPhase.values()) {
+        cornerTimes.put(phase, entry.getValue().get(phase.ordinal()));
       }
+
+      times.put(entry.getKey(), cornerTimes);
     }
 
-    pool.run();
+    return new SimulationResult(this.getParameterOrder(), vector,
+        this.performanceSchema, this.performanceValues, this.cornerStatus,
+        times, this.licenseWaitTimes, this.corrupted, duration);
+  }
 
-    this.numOfRuns++;
+  /**
+   * Trigger a circuit simulation of the analyses that are needed for a set of
+   * performances. All other analyses are ignored. The analysis of a
+   * performance is taken from the table of performances in the properties of
+   * the environment.
+   * 
+   * @param requestedPerformances set of performances to be extracted
+   * @param corners               set of corners to be simulated
+   * @return <code>this</code>
+   * @see #getBlacklistAnalyses(Set)
+   */
+  public AnalogCircuitEnvironment simulatePerformances(
+      final Set<String> requestedPerformances, final Set<String> corners) {
+    return this.simulate(this.getBlacklistAnalyses(requestedPerformances),
+        corners);
+  }
 
-    if (this.numOfRuns >= this.restartPeriod) {
+  /**
+   * Get the analyses that are needed to extract a set of performances
+   * 
+   * @param performances set of performance identifiers
+   * @return set of analyses
+   */
+  public final Set<String> getAnalyses(final Set<String> performances) {
 
-      this.numOfRuns = 0;
+    final Map<String, String> analyses = this.extractionPlan
+        .getAnalyses(performances);
 
-      for (SpectreInteractiveParallelHandle handle : this.sessions.values()) {
-        handle.getSession().stop();
+    for (final String performance : performances) {
+      if (!analyses.containsKey(performance)) {
+        System.err.println("\"" + performance + "\" is not a performance");
       }
     }
 
-    return this;
+    return new HashSet<>(analyses.values());
   }
 
   /**
-   * Trigger a circuit simulation
-   * 
-   * @param blacklistAnalyses set of analyses to be ignored
+   * Get the analyses that are not needed to extract a set of performances,
+   * i.e., the analyses that can be ignored during simulation
    * 
-   * @return <code>this</code>
+   * @param performances set of performance identifiers
+   * @return set of analyses
+   * @see #getAnalyses(Set)
    */
-  public AnalogCircuitEnvironment simulate(
-      final Set<String> blacklistAnalyses) {
+  public final Set<String> getBlacklistAnalyses(
+      final Set<String> performances) {
 
-    final HashSet<String> corners = new HashSet<>();
-    corners.add(this.nomCorner);
+    final Set<String> retval = this.getAnalyses();
+    retval.removeAll(this.getAnalyses(performances));
 
-    return this.simulate(blacklistAnalyses, corners);
+    return retval;
   }
 
   /**
-   * Trigger a circuit simulation
+   * Get the status of all corners of the last simulation, including the
+   * number of retries and the causes of failures
    * 
-   * @return <code>this</code>
+   * @return map where the key corresponds to the name of the corner and the
+   *         value to the status of the corner
    */
-  public AnalogCircuitEnvironment simulate() {
-    final HashSet<String> corners = new HashSet<>();
-    corners.add(this.nomCorner);
+  public final Map<String, CornerStatus> getCornerStatus() {
+    return Collections.unmodifiableMap(new TreeMap<>(this.cornerStatus));
+  }
 
-    return this.simulate(new HashSet<String>(), corners);
+  /**
+   * Get the status of a corner of the last simulation
+   * 
+   * @param corner name of the corner
+   * @return status, <code>null</code> when the corner was not simulated
+   */
+  public final CornerStatus getCornerStatus(final String corner) {
+    return this.cornerStatus.get(corner);
+  }
+
+  /**
+   * Get the maximal number of retries of a failed corner
+   * 
+   * @return number of retries
+   * @see #setMaxRetries(int)
+   */
+  public final int getMaxRetries() {
+    return this.maxRetries;
+  }
+
+  /**
+   * Specify the maximal number of retries of a failed corner. When the
+   * simulator of a corner crashes or exceeds a timeout, the session of the
+   * corner is restarted and only the analyses that did not return results
+   * are simulated again. The default is a single retry.
+   * 
+   * @param maxRetries number of retries, <code>0</code> disables retries
+   * @return <code>this</code> when the number is valid, <code>null</code>
+   *         otherwise
+   */
+  public final AnalogCircuitEnvironment setMaxRetries(final int maxRetries) {
+    if (maxRetries >= 0) {
+      this.maxRetries = maxRetries;
+      return this;
+    } else {
+      return null;
+    }
   }
 
   /**
@@ -375,12 +2382,20 @@ public abstract class AnalogCircuitEnvironment {
   /**
    * Stop the environment. When the method is not called, the environment is
    * stopped automatically when a timeout 15min with no action is exceeded.
+   * An enabled result store is closed and opened again by the next
+   * simulation.
    */
   public final void stop() {
-    for (final SpectreInteractiveParallelHandle session : this.sessions
+
+    this.awaitWarmUp();
+    this.discardStandbys();
+
+    for (final SimulatorSession session : this.sessions
         .values()) {
-      session.getSession().stop();
+      this.stopSession(session);
     }
+
+    this.closeResultStore();
   }
 
   /**
@@ -391,19 +2406,23 @@ public abstract class AnalogCircuitEnvironment {
    */
   public final AnalogCircuitEnvironment clear() {
 
-    for (final SpectreInteractiveParallelHandle session : this.sessions
+    this.awaitWarmUp();
+    this.discardStandbys();
+
+    for (final SimulatorSession session : this.sessions
         .values()) {
 
-      session.getSession().stop();
+      this.stopSession(session);
 
       try {
         FileUtils
-            .deleteDirectory(new File(session.getSession().getWorkingDir()));
+            .deleteDirectory(new File(session.getWorkingDir()));
       } catch (IOException e) {
       }
     }
 
-    this.sessions = new HashMap<>();
+    this.sessions = new ConcurrentHashMap<>();
+    this.warmUps.clear();
 
     return this;
   }
@@ -472,7 +2491,7 @@ public abstract class AnalogCircuitEnvironment {
    * @return map of performances
    */
   public final Map<String, Double> getPerformanceValues() {
-    return this.performanceValues.get(this.nomCorner);
+    return this.getPerformanceValues(this.nomCorner);
   }
 
   /**
@@ -483,18 +2502,174 @@ public abstract class AnalogCircuitEnvironment {
    * @return map of performances
    */
   public final Map<String, Double> getPerformanceValues(final String corner) {
-    return this.performanceValues.get(corner);
+
+    final double[] values = this.performanceValues.get(corner);
+
+    if (values == null) {
+      return null;
+    }
+
+    return new PerformanceMap(this.performanceSchema, values);
   }
 
   /**
    * Get the performance values for all corners. The method returns a map of
    * maps. The key of the outer map corresponds to the name of the corner, the
-   * key of the inner name
+   * key of the inner name. The inner maps are copies, use
+   * {@link #getPerformanceArray(String)} to access the performances without
+   * copying.
    * 
    * @return map of maps of performances
    */
   public final Map<String, HashMap<String, Double>> getAllPerformanceValues() {
-    return this.performanceValues;
+
+    final Map<String, HashMap<String, Double>> retval = new HashMap<>();
+
+    for (final Entry<String, double[]> entry : this.performanceValues
+        .entrySet()) {
+      retval.put(entry.getKey(), new HashMap<>(
+          new PerformanceMap(this.performanceSchema, entry.getValue())));
+    }
+
+    return retval;
+  }
+
+  /**
+   * Get the schema of the performances. The schema maps each performance
+   * identifier to the index of the performance in the arrays returned by
+   * {@link #getPerformanceArray(String)}.
+   * 
+   * @return schema
+   */
+  public final PerformanceSchema getPerformanceSchema() {
+    return this.performanceSchema;
+  }
+
+  /**
+   * Get the performance values from the last simulation as an array for a
+   * corner. The array is indexed by the performance schema, missing
+   * performances are <code>Double.NaN</code>.
+   * 
+   * @param corner name of corner
+   * @return array of performances, <code>null</code> when the corner was not
+   *         simulated
+   * @see #getPerformanceSchema()
+   */
+  public final double[] getPerformanceArray(final String corner) {
+
+    final double[] values = this.performanceValues.get(corner);
+
+    if (values == null) {
+      return null;
+    }
+
+    return values.clone();
+  }
+
+  /**
+   * Copy the performance values from the last simulation of a corner to an
+   * array. This method does not allocate any memory.
+   * 
+   * @param corner      name of corner
+   * @param destination array with (at least) the size of the performance
+   *                    schema
+   * @return <code>true</code> when the performances were copied,
+   *         <code>false</code> when the corner was not simulated
+   * @see #getPerformanceSchema()
+   */
+  public final boolean getPerformanceArray(final String corner,
+      final double[] destination) {
+
+    final double[] values = this.performanceValues.get(corner);
+
+    if (values == null) {
+      return false;
+    }
+
+    System.arraycopy(values, 0, destination, 0, values.length);
+
+    return true;
+  }
+
+  /**
+   * Get the order of the parameters that is used by
+   * {@link #setVector(double[])} and {@link #getVector()}. The parameters are
+   * sorted lexicographically by their name, i.e., the order is identical for
+   * all environments of the same circuit.
+   * 
+   * @return list of parameter names
+   */
+  public final List<String> getParameterOrder() {
+    return Collections.unmodifiableList(Arrays.asList(this.parameterOrder));
+  }
+
+  /**
+   * Set all parameters in the circuit from a vector. The values are pushed on
+   * the grid of the parameters.
+   * 
+   * @param vector parameter values in the order of
+   *               {@link #getParameterOrder()}
+   * @return <code>true</code> when all parameters are set correctly,
+   *         <code>false</code> when the length of the vector does not match
+   *         the number of parameters
+   */
+  public final boolean setVector(final double[] vector) {
+
+    if (vector.length != this.parameterVector.length) {
+
+      System.err.println("Vector has " + vector.length + " values, but "
+          + this.parameterVector.length + " are expected");
+
+      return false;
+    }
+
+    this.snap(vector, this.parameterVector);
+
+    return true;
+  }
+
+  /**
+   * Get the parameter values that are currently set in the circuit as a
+   * vector
+   * 
+   * @return parameter values in the order of {@link #getParameterOrder()}
+   */
+  public final double[] getVector() {
+    return this.parameterVector.clone();
+  }
+
+  /**
+   * Copy the parameter values that are currently set in the circuit to an
+   * array. This method does not allocate any memory.
+   * 
+   * @param destination array with (at least) the number of parameters
+   * @return <code>destination</code>
+   * @see #getParameterOrder()
+   */
+  public final double[] getVector(final double[] destination) {
+    System.arraycopy(this.parameterVector, 0, destination, 0,
+        this.parameterVector.length);
+    return destination;
+  }
+
+  /**
+   * Push a vector of parameter values on the grid and in the range of the
+   * parameters. Only sizing parameters are changed. The parameters of the
+   * environment are not changed and no memory is allocated.
+   * 
+   * @param in  parameter values in the order of {@link #getParameterOrder()}
+   * @param out array where the valid values are stored, can be identical to
+   *            <code>in</code>
+   * @return <code>out</code>
+   * @see Parameter#getValidValue(double)
+   */
+  public final double[] snap(final double[] in, final double[] out) {
+
+    for (int i = 0; i < this.parameterArray.length; i++) {
+      out[i] = this.parameterArray[i].getValidValue(in[i]);
+    }
+
+    return out;
   }
 
   /**
@@ -504,13 +2679,14 @@ public abstract class AnalogCircuitEnvironment {
    * @param value New value of the parameter
    * @return true
    */
-  public final boolean set(final String name, double value) {
+  public final boolean set(final String name, final double value) {
 
-    if (this.parameters.containsKey(name)) {
+    final Integer position = this.parameterIndex.get(name);
 
-      value = this.parameters.get(name).getValidValue(value);
+    if (position != null) {
 
-      this.parameterValues.put(name, value);
+      this.parameterVector[position] = this.parameterArray[position]
+          .getValidValue(value);
 
       return true;
 
@@ -534,9 +2710,9 @@ public abstract class AnalogCircuitEnvironment {
 
     boolean retval = true;
 
-    for (final String name : values.keySet()) {
+    for (final Entry<String, Double> entry : values.entrySet()) {
 
-      if (!this.set(name, values.get(name))) {
+      if (!this.set(entry.getKey(), entry.getValue())) {
         retval = false;
       }
     }
@@ -565,6 +2741,20 @@ public abstract class AnalogCircuitEnvironment {
     return retval;
   }
 
+  /**
+   * Create a sampler for space-filling designs of the sizing parameters.
+   * Parameters that are not sizing parameters keep their current value in
+   * all points of a design.
+   * 
+   * @param seed Seed, the same seed results in the same designs
+   * @return sampler
+   * @see ParameterSampler#split()
+   */
+  public final ParameterSampler getSampler(final long seed) {
+    return new ParameterSampler(this.parameterArray, this.parameterVector,
+        new SplittableRandom(seed));
+  }
+
   /**
    * Get a map of the initial sizing parameters in the design. The key of the
    * map corresponds to the name of the parameter and a random value.
@@ -593,16 +2783,7 @@ public abstract class AnalogCircuitEnvironment {
    * @return set of analyses
    */
   public final Set<String> getAnalyses() {
-    final Set<String> retval = new HashSet<>();
-
-    final Iterator<String> analysesIterator = this.jsonObject
-        .getJSONObject(PERFORMANCES_ID).keys();
-
-    while (analysesIterator.hasNext()) {
-      retval.add(analysesIterator.next());
-    }
-
-    return retval;
+    return new HashSet<>(this.extractionPlan.getAnalyses());
   }
 
   /**
@@ -729,31 +2910,17 @@ public abstract class AnalogCircuitEnvironment {
    */
   public final Set<String> getPerformanceIdentifiers(
       final Set<String> blacklistAnalyses) {
+    return this.extractionPlan.getPerformanceIdentifiers(blacklistAnalyses);
+  }
 
-    final Set<String> retval = new HashSet<>();
-
-    final Iterator<String> analysesIterator = this.jsonObject
-        .getJSONObject(PERFORMANCES_ID).keys();
-
-    Iterator<String> performanceIterator;
-
-    String analysis;
-
-    while (analysesIterator.hasNext()) {
-
-      analysis = analysesIterator.next();
-
-      if (!blacklistAnalyses.contains(analysis)) {
-
-        performanceIterator = this.jsonObject.getJSONObject(PERFORMANCES_ID)
-            .getJSONObject(analysis).keys();
-
-        while (performanceIterator.hasNext()) {
-          retval.add(performanceIterator.next());
-        }
-      }
-    }
-    return retval;
+  /**
+   * Get the plan for the extraction of performances that was compiled from
+   * the properties of the environment
+   * 
+   * @return plan
+   */
+  public final ExtractionPlan getExtractionPlan() {
+    return this.extractionPlan;
   }
 
   @Override
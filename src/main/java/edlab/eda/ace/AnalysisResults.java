@@ -0,0 +1,105 @@
+package edlab.eda.ace;
+
+import java.util.Map;
+
+import edlab.eda.ardb.ComplexResultsDatabase;
+import edlab.eda.ardb.RealResultsDatabase;
+import edlab.eda.reader.nutmeg.NutmegComplexPlot;
+import edlab.eda.reader.nutmeg.NutmegPlot;
+import edlab.eda.reader.nutmeg.NutmegRealPlot;
+
+/**
+ * Results of a single analysis of a corner. The result databases are built
+ * on first access and shared by all extractors of the analysis.
+ */
+public final class AnalysisResults {
+
+  private final String analysis;
+  private final NutmegPlot plot;
+  private final Map<String, Double> values;
+
+  private RealResultsDatabase realResults = null;
+  private ComplexResultsDatabase complexResults = null;
+
+  /**
+   * Create new results
+   * 
+   * @param analysis name of the analysis
+   * @param plot     plot of the analysis
+   * @param values   values of the parameters and netlist attributes
+   */
+  AnalysisResults(final String analysis, final NutmegPlot plot,
+      final Map<String, Double> values) {
+    this.analysis = analysis;
+    this.plot = plot;
+    this.values = values;
+  }
+
+  /**
+   * Get the name of the analysis
+   * 
+   * @return name of analysis
+   */
+  public String getAnalysis() {
+    return this.analysis;
+  }
+
+  /**
+   * Get the plot of the analysis
+   * 
+   * @return plot
+   */
+  public NutmegPlot getPlot() {
+    return this.plot;
+  }
+
+  /**
+   * Get the values of the parameters and netlist attributes
+   * 
+   * @return map of values
+   */
+  public Map<String, Double> getValues() {
+    return this.values;
+  }
+
+  /**
+   * Identify whether the analysis returned complex results
+   * 
+   * @return <code>true</code> when the results are complex,
+   *         <code>false</code> otherwise
+   */
+  public boolean isComplex() {
+    return this.plot instanceof NutmegComplexPlot;
+  }
+
+  /**
+   * Get the database of an analysis with real results
+   * 
+   * @return database, <code>null</code> when the results are complex
+   */
+  public RealResultsDatabase getRealResults() {
+
+    if ((this.realResults == null) && (this.plot instanceof NutmegRealPlot)) {
+      this.realResults = RealResultsDatabase
+          .buildResultDatabase((NutmegRealPlot) this.plot);
+    }
+
+    return this.realResults;
+  }
+
+  /**
+   * Get the database of an analysis with complex results
+   * 
+   * @return database, <code>null</code> when the results are real
+   */
+  public ComplexResultsDatabase getComplexResults() {
+
+    if ((this.complexResults == null)
+        && (this.plot instanceof NutmegComplexPlot)) {
+      this.complexResults = ComplexResultsDatabase
+          .buildResultDatabase((NutmegComplexPlot) this.plot);
+    }
+
+    return this.complexResults;
+  }
+}
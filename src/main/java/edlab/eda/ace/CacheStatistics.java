@@ -0,0 +1,89 @@
+package edlab.eda.ace;
+
+/**
+ * Immutable snapshot of the statistics of a {@link SimulationCache}
+ */
+public final class CacheStatistics {
+
+  private final int capacity;
+  private final int size;
+  private final long hits;
+  private final long misses;
+  private final long evictions;
+
+  CacheStatistics(final int capacity, final int size, final long hits,
+      final long misses, final long evictions) {
+    this.capacity = capacity;
+    this.size = size;
+    this.hits = hits;
+    this.misses = misses;
+    this.evictions = evictions;
+  }
+
+  /**
+   * Get the maximal number of results in the cache
+   * 
+   * @return capacity
+   */
+  public int getCapacity() {
+    return this.capacity;
+  }
+
+  /**
+   * Get the number of results in the cache
+   * 
+   * @return size
+   */
+  public int getSize() {
+    return this.size;
+  }
+
+  /**
+   * Get the number of simulations that were answered by the cache
+   * 
+   * @return number of hits
+   */
+  public long getHits() {
+    return this.hits;
+  }
+
+  /**
+   * Get the number of simulations that were not answered by the cache
+   * 
+   * @return number of misses
+   */
+  public long getMisses() {
+    return this.misses;
+  }
+
+  /**
+   * Get the number of results that were removed from the cache to make room
+   * for new results
+   * 
+   * @return number of evictions
+   */
+  public long getEvictions() {
+    return this.evictions;
+  }
+
+  /**
+   * Get the ratio of hits and lookups
+   * 
+   * @return hit rate in the range <code>[0,1]</code>
+   */
+  public double getHitRate() {
+
+    if ((this.hits + this.misses) == 0) {
+      return 0.0;
+    }
+
+    return (double) this.hits / (this.hits + this.misses);
+  }
+
+  @Override
+  public String toString() {
+    return "size=" + this.size + "/" + this.capacity + ", hits=" + this.hits
+        + ", misses=" + this.misses + ", evictions=" + this.evictions
+        + ", hitRate=" + String.format("%.3f", this.getHitRate());
+  }
+}
@@ -0,0 +1,123 @@
+package edlab.eda.ace;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import edlab.eda.reader.nutmeg.NutmegPlot;
+
+/**
+ * Raw results of a simulation of a single corner, i.e., the plots that were
+ * returned by the simulator and the values of the parameters and netlist
+ * attributes that were present during the simulation. When the analyses of
+ * the corner were extracted incrementally, the run additionally holds the
+ * pending extractions and the vector they write to. Analyses that did not
+ * return results (e.g., because the simulator crashed) are ignored during
+ * the extraction.
+ */
+final class CornerRun {
+
+  private final String corner;
+  private final List<NutmegPlot> plots;
+  private final Map<String, Double> values;
+  private final Set<String> blacklistAnalyses;
+  private final Set<String> missingAnalyses;
+  private final PerformanceVector performanceValues;
+  private final List<CompletableFuture<Void>> extractions;
+
+  CornerRun(final String corner, final List<NutmegPlot> plots,
+      final Map<String, Double> values, final Set<String> blacklistAnalyses,
+      final Set<String> missingAnalyses) {
+    this(corner, plots, values, blacklistAnalyses, missingAnalyses, null,
+        Collections.<CompletableFuture<Void>>emptyList());
+  }
+
+  CornerRun(final String corner, final List<NutmegPlot> plots,
+      final Map<String, Double> values, final Set<String> blacklistAnalyses,
+      final Set<String> missingAnalyses,
+      final PerformanceVector performanceValues,
+      final List<CompletableFuture<Void>> extractions) {
+    this.corner = corner;
+    this.plots = plots;
+    this.values = values;
+    this.blacklistAnalyses = new HashSet<>(blacklistAnalyses);
+    this.blacklistAnalyses.addAll(missingAnalyses);
+    this.missingAnalyses = missingAnalyses;
+    this.performanceValues = performanceValues;
+    this.extractions = extractions;
+  }
+
+  /**
+   * Get the name of the simulated corner
+   * 
+   * @return name of corner
+   */
+  String getCorner() {
+    return this.corner;
+  }
+
+  /**
+   * Get the plots that were returned by the simulator
+   * 
+   * @return list of plots
+   */
+  List<NutmegPlot> getPlots() {
+    return this.plots;
+  }
+
+  /**
+   * Get the values of the parameters and netlist attributes
+   * 
+   * @return map of values
+   */
+  Map<String, Double> getValues() {
+    return this.values;
+  }
+
+  /**
+   * Get the analyses that are ignored during the extraction, i.e., the
+   * analyses that were not simulated and the analyses that did not return
+   * results
+   * 
+   * @return set of analyses
+   */
+  Set<String> getBlacklistAnalyses() {
+    return this.blacklistAnalyses;
+  }
+
+  /**
+   * Get the analyses that were simulated but did not return results
+   * 
+   * @return set of analyses, empty when the simulation was successful
+   */
+  Set<String> getMissingAnalyses() {
+    return this.missingAnalyses;
+  }
+
+  /**
+   * Identify whether the analyses of the corner were extracted incrementally
+   * 
+   * @return <code>true</code> when the extraction was started during the
+   *         simulation, <code>false</code> otherwise
+   */
+  boolean isExtractedIncrementally() {
+    return this.performanceValues != null;
+  }
+
+  /**
+   * Wait for the incremental extractions of the corner
+   * 
+   * @return vector of extracted performances
+   */
+  PerformanceVector awaitExtractions() {
+
+    for (final CompletableFuture<Void> extraction : this.extractions) {
+      extraction.join();
+    }
+
+    return this.performanceValues;
+  }
+}
@@ -0,0 +1,117 @@
+package edlab.eda.ace;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Immutable status of a corner after a simulation, i.e., the number of
+ * simulations that were needed, the analyses that failed and the causes of
+ * all failures
+ */
+public final class CornerStatus {
+
+  private final String corner;
+  private final int attempts;
+  private final int retries;
+  private final boolean failed;
+  private final Set<String> failedAnalyses;
+  private final List<String> causes;
+
+  CornerStatus(final String corner, final int attempts, final int retries,
+      final boolean failed, final Set<String> failedAnalyses,
+      final List<String> causes) {
+    this.corner = corner;
+    this.attempts = attempts;
+    this.retries = retries;
+    this.failed = failed;
+    this.failedAnalyses = Collections
+        .unmodifiableSet(new TreeSet<>(failedAnalyses));
+    this.causes = Collections.unmodifiableList(new ArrayList<>(causes));
+  }
+
+  /**
+   * Combine the status of two simulations of the same corner
+   * 
+   * @param a status
+   * @param b status
+   * @return combined status
+   */
+  static CornerStatus merge(final CornerStatus a, final CornerStatus b) {
+
+    final Set<String> failedAnalyses = new TreeSet<>(a.failedAnalyses);
+    failedAnalyses.addAll(b.failedAnalyses);
+
+    final List<String> causes = new ArrayList<>(a.causes);
+    causes.addAll(b.causes);
+
+    return new CornerStatus(a.corner, a.attempts + b.attempts,
+        a.retries + b.retries, a.failed || b.failed, failedAnalyses, causes);
+  }
+
+  /**
+   * Get the name of the corner
+   * 
+   * @return name of corner
+   */
+  public String getCorner() {
+    return this.corner;
+  }
+
+  /**
+   * Get the number of simulations of the corner, including retries
+   * 
+   * @return number of simulations
+   */
+  public int getAttempts() {
+    return this.attempts;
+  }
+
+  /**
+   * Get the number of simulations that were repeated after a failure
+   * 
+   * @return number of retries
+   */
+  public int getRetries() {
+    return this.retries;
+  }
+
+  /**
+   * Identify whether the corner failed, i.e., the results of the corner are
+   * not complete after all retries
+   * 
+   * @return <code>true</code> when the corner failed, <code>false</code>
+   *         otherwise
+   */
+  public boolean isFailed() {
+    return this.failed;
+  }
+
+  /**
+   * Get the analyses that did not return results after all retries
+   * 
+   * @return set of analyses
+   */
+  public Set<String> getFailedAnalyses() {
+    return this.failedAnalyses;
+  }
+
+  /**
+   * Get the causes of all failures in the order of their occurrence, including
+   * failures that were resolved by a retry
+   * 
+   * @return list of causes
+   */
+  public List<String> getCauses() {
+    return this.causes;
+  }
+
+  @Override
+  public String toString() {
+    return this.corner + (this.failed ? " failed" : " succeeded") + " after "
+        + this.attempts + " attempt(s)" + (this.causes.isEmpty() ? ""
+            : ", causes: " + String.join("; ", this.causes));
+  }
+}
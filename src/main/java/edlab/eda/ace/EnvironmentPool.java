@@ -1,11 +1,17 @@
 package edlab.eda.ace;
 
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Queue;
 import java.util.Set;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
 
 /**
  * Pool for parallel simulation
@@ -13,9 +19,26 @@ import java.util.concurrent.Executors;
 public final class EnvironmentPool {
 
   private final Map<AnalogCircuitEnvironment, EnvironmentThread> sessions;
+  private final SimulationScheduler scheduler;
 
+  /**
+   * Create a new pool that uses the shared default scheduler
+   * 
+   * @see SimulationScheduler#getDefault()
+   */
   public EnvironmentPool() {
+    this(null);
+  }
+
+  /**
+   * Create a new pool
+   * 
+   * @param scheduler Scheduler that executes the simulations, provide
+   *                  <code>null</code> to use the shared default scheduler
+   */
+  public EnvironmentPool(final SimulationScheduler scheduler) {
     this.sessions = new HashMap<>();
+    this.scheduler = scheduler;
   }
 
   /**
@@ -37,7 +60,7 @@ public final class EnvironmentPool {
   public boolean add(final AnalogCircuitEnvironment env) {
 
     if (env instanceof AnalogCircuitEnvironment) {
-      this.sessions.put(env, new EnvironmentThread(env));
+      this.sessions.put(env, new EnvironmentThread(env, this.scheduler));
       return true;
     } else {
       return false;
@@ -54,51 +77,147 @@ public final class EnvironmentPool {
   }
 
   /**
-   * Run simulation in all environments in the pool in parallel
+   * Run simulation in all environments in the pool in parallel. The calling
+   * thread is blocked until all simulations terminated.
    * 
    * @param size maximal number of parallel simulations
-   * @return <code>true</code> when successful, <code>false</code> otherwise
+   * @return <code>true</code> when all simulations terminated successfully,
+   *         <code>false</code> when a simulation failed or is corrupted
    */
   public boolean execute(final int size) {
-    final ExecutorService executor = Executors.newFixedThreadPool(size);
 
-    for (final Entry<AnalogCircuitEnvironment, EnvironmentThread> entry : this.sessions
-        .entrySet()) {
-      executor.execute(entry.getValue());
+    boolean retval = true;
+
+    for (final CompletableFuture<AnalogCircuitEnvironment> future : this
+        .submit(size).values()) {
+
+      try {
+        future.join();
+      } catch (final Exception e) {
+        retval = false;
+      }
     }
 
-    int i = 0;
+    return retval;
+  }
 
-    while (i < this.sessions.size()) {
+  /**
+   * Start the simulation in all environments in the pool in parallel. The
+   * method does not block.
+   * 
+   * @return map of futures, the key of the map is the environment and the
+   *         value the corresponding future
+   * @see #submit(int)
+   */
+  public Map<AnalogCircuitEnvironment, CompletableFuture<AnalogCircuitEnvironment>> submit() {
+    return this.submit(this.sessions.size());
+  }
 
-      i = 0;
+  /**
+   * Start the simulation in all environments in the pool in parallel. The
+   * method does not block. Each environment is associated with a future that
+   * is completed as soon as the simulation of the environment terminated.
+   * When the simulation threw an exception, the future is completed
+   * exceptionally with this exception. When the simulation is corrupted, i.e.,
+   * a corner failed, the future is completed exceptionally with a
+   * {@link SimulationFailedException} that provides the status of all
+   * corners.
+   * 
+   * @param size maximal number of parallel simulations
+   * @return map of futures, the key of the map is the environment and the
+   *         value the corresponding future
+   * @see #inCompletionOrder(Collection)
+   */
+  public Map<AnalogCircuitEnvironment, CompletableFuture<AnalogCircuitEnvironment>> submit(
+      final int size) {
 
-      try {
-        Thread.sleep(0, 1);
-      } catch (final InterruptedException e) {
-      }
+    final Map<AnalogCircuitEnvironment, CompletableFuture<AnalogCircuitEnvironment>> retval = new LinkedHashMap<>();
+
+    if (this.sessions.isEmpty()) {
+      return retval;
+    }
 
-      for (final EnvironmentThread thread : this.sessions.values()) {
-        if (thread.isTerminated()) {
-          i++;
+    final SimulationScheduler scheduler = this.scheduler == null
+        ? SimulationScheduler.getDefault()
+        : this.scheduler;
+
+    final Queue<EnvironmentThread> queue = new ConcurrentLinkedQueue<>();
+
+    EnvironmentThread thread;
+
+    for (final AnalogCircuitEnvironment env : this.sessions.keySet()) {
+
+      // corners of the environments are simulated by the same scheduler, the
+      // schedulers of the environments are not changed
+      thread = new EnvironmentThread(env, this.scheduler);
+      this.sessions.put(env, thread);
+
+      retval.put(env, thread.getFuture());
+      queue.add(thread);
+    }
+
+    // each dispatcher processes environments until the queue is drained,
+    // hence at most "size" environments are simulated at the same time
+    final int dispatchers = Math.max(1, Math.min(size, queue.size()));
+
+    for (int i = 0; i < dispatchers; i++) {
+      scheduler.dispatch(() -> {
+
+        EnvironmentThread next;
+
+        while ((next = queue.poll()) != null) {
+          next.run();
         }
-      }
+      });
     }
 
-    executor.shutdown();
+    return retval;
+  }
 
-    try {
-      Thread.sleep(1);
-    } catch (final InterruptedException e) {
+  /**
+   * Consume futures in the order of their completion. The returned iterator
+   * blocks in {@link Iterator#next()} until the next future is completed.
+   * 
+   * @param futures futures to be consumed
+   * @return iterable that provides the futures in the order of completion
+   */
+  public static Iterable<CompletableFuture<AnalogCircuitEnvironment>> inCompletionOrder(
+      final Collection<CompletableFuture<AnalogCircuitEnvironment>> futures) {
+
+    final BlockingQueue<CompletableFuture<AnalogCircuitEnvironment>> queue = new LinkedBlockingQueue<>();
+
+    for (final CompletableFuture<AnalogCircuitEnvironment> future : futures) {
+      future.whenComplete((result, error) -> queue.add(future));
     }
 
-    while (!executor.isTerminated()) {
-      try {
-        Thread.sleep(1);
-      } catch (final InterruptedException e) {
+    final int size = futures.size();
+
+    return () -> new Iterator<CompletableFuture<AnalogCircuitEnvironment>>() {
+
+      private int consumed = 0;
+
+      @Override
+      public boolean hasNext() {
+        return this.consumed < size;
       }
-    }
 
-    return true;
+      @Override
+      public CompletableFuture<AnalogCircuitEnvironment> next() {
+
+        if (!this.hasNext()) {
+          throw new NoSuchElementException();
+        }
+
+        try {
+          final CompletableFuture<AnalogCircuitEnvironment> future = queue
+              .take();
+          this.consumed++;
+          return future;
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new NoSuchElementException("Interrupted while waiting");
+        }
+      }
+    };
   }
-}
\ No newline at end of file
+}
@@ -1,26 +1,70 @@
 package edlab.eda.ace;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Thread for running an {@link AnalogCircuitEnvironment}
  */
 class EnvironmentThread implements Runnable {
 
   private final AnalogCircuitEnvironment env;
-  private boolean terminated = false;
+  private final SimulationScheduler scheduler;
+  private final CompletableFuture<AnalogCircuitEnvironment> future;
 
   /**
    * Creating a new thread
    * 
-   * @param env Environment
+   * @param env       Environment
+   * @param scheduler Scheduler that executes the corners of the environment,
+   *                  <code>null</code> to use the scheduler of the environment
    */
-  EnvironmentThread(final AnalogCircuitEnvironment env) {
+  EnvironmentThread(final AnalogCircuitEnvironment env,
+      final SimulationScheduler scheduler) {
     this.env = env;
+    this.scheduler = scheduler;
+    this.future = new CompletableFuture<>();
   }
 
   @Override
   public void run() {
-    this.env.simulate();
-    this.terminated = true;
+
+    if (this.future.isDone()) {
+      return;
+    }
+
+    try {
+      this.env.simulateOn(this.scheduler);
+
+      // failed corners are reported by the status, not by an exception
+      if (this.env.isCorrupted()) {
+        this.future.completeExceptionally(
+            new SimulationFailedException(this.env.getCornerStatus()));
+      } else {
+        this.future.complete(this.env);
+      }
+    } catch (final Throwable e) {
+      this.future.completeExceptionally(e);
+    }
+  }
+
+  /**
+   * Get the environment that is simulated by this thread
+   * 
+   * @return environment
+   */
+  AnalogCircuitEnvironment getEnvironment() {
+    return this.env;
+  }
+
+  /**
+   * Get the future that is completed when the simulation terminated. When the
+   * simulation threw an exception or is corrupted, the future is completed
+   * exceptionally.
+   * 
+   * @return future
+   */
+  CompletableFuture<AnalogCircuitEnvironment> getFuture() {
+    return this.future;
   }
 
   /**
@@ -30,6 +74,6 @@ class EnvironmentThread implements Runnable {
    *         otherwise
    */
   boolean isTerminated() {
-    return this.terminated;
+    return this.future.isDone();
   }
-}
\ No newline at end of file
+}
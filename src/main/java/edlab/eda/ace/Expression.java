@@ -0,0 +1,716 @@
+package edlab.eda.ace;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import edlab.eda.ardb.ComplexWaveform;
+import edlab.eda.ardb.RealValue;
+import edlab.eda.ardb.RealWaveform;
+
+/**
+ * Measurement expression of a performance. An expression is compiled once
+ * from its textual representation into a tree of evaluators which is reused
+ * for all extractions.
+ * 
+ * <p>
+ * The syntax supports the arithmetic operators <code>+ - * / ^</code>,
+ * numbers, references to parameters and netlist attributes by name and the
+ * following functions:
+ * 
+ * <ul>
+ * <li><code>wave("name")</code>, <code>cwave("name")</code> and
+ * <code>value("name")</code> access a real waveform, a complex waveform or a
+ * value in the results of the analysis</li>
+ * <li><code>abs(x)</code>, <code>db20(x)</code> and <code>phase(x)</code>
+ * (in degrees)</li>
+ * <li><code>clip(w, from, to)</code>, <code>cross(w, level, edge)</code> and
+ * <code>at(w, x)</code></li>
+ * <li><code>xmin(w)</code>, <code>xmax(w)</code>, <code>ymin(w)</code>,
+ * <code>ymax(w)</code>, <code>min(w)</code> and <code>max(w)</code></li>
+ * <li><code>min(a, b)</code>, <code>max(a, b)</code>, <code>sqrt(a)</code>
+ * and <code>log10(a)</code></li>
+ * </ul>
+ * 
+ * Example: <code>ymax(clip(wave("OUT"), 0, 1e-6)) - vs</code>
+ */
+public final class Expression implements Extractor {
+
+  /**
+   * Scalar result of an evaluator
+   */
+  private interface Scalar {
+    double evaluate(final AnalysisResults results);
+  }
+
+  /**
+   * Scalar result that is represented as {@link RealValue} by the results
+   * database
+   */
+  private interface Value extends Scalar {
+
+    RealValue value(final AnalysisResults results);
+
+    @Override
+    default double evaluate(final AnalysisResults results) {
+      return this.value(results).getValue();
+    }
+  }
+
+  /**
+   * Real waveform result of an evaluator
+   */
+  private interface Wave {
+    RealWaveform evaluate(final AnalysisResults results);
+  }
+
+  /**
+   * Complex waveform result of an evaluator
+   */
+  private interface Complex {
+    ComplexWaveform evaluate(final AnalysisResults results);
+  }
+
+  /**
+   * Scalar that does not depend on the results, used for folding of
+   * constants during compilation
+   */
+  private static final class Constant implements Scalar {
+
+    private final double value;
+
+    private Constant(final double value) {
+      this.value = value;
+    }
+
+    @Override
+    public double evaluate(final AnalysisResults results) {
+      return this.value;
+    }
+  }
+
+  private final String text;
+  private final Scalar root;
+
+  private Expression(final String text, final Scalar root) {
+    this.text = text;
+    this.root = root;
+  }
+
+  /**
+   * Compile an expression
+   * 
+   * @param text textual representation of the expression
+   * @return compiled expression
+   * @throws IllegalArgumentException when the expression is not valid
+   */
+  public static Expression compile(final String text) {
+
+    final Parser parser = new Parser(text);
+
+    final Object node = parser.parseExpression();
+
+    parser.skipWhitespace();
+
+    if (parser.position < text.length()) {
+      throw parser.error(
+          "Unexpected \"" + text.charAt(parser.position) + "\"");
+    }
+
+    return new Expression(text, scalar(node, "expression"));
+  }
+
+  /**
+   * Evaluate the expression. Missing waveforms or values in the results and
+   * errors during the evaluation result in {@link Double#NaN}.
+   */
+  @Override
+  public double extract(final AnalysisResults results) {
+    try {
+      return this.root.evaluate(results);
+    } catch (final RuntimeException e) {
+      return Double.NaN;
+    }
+  }
+
+  /**
+   * Identify whether the expression is constant, i.e., it does not depend on
+   * the results or the values of parameters
+   * 
+   * @return <code>true</code> when the expression is constant,
+   *         <code>false</code> otherwise
+   */
+  public boolean isConstant() {
+    return this.root instanceof Constant;
+  }
+
+  @Override
+  public String toString() {
+    return this.text;
+  }
+
+  private static Scalar scalar(final Object node, final String context) {
+
+    if (node instanceof Scalar) {
+      return (Scalar) node;
+    }
+
+    throw new IllegalArgumentException(
+        "Expected a scalar as " + context + ", got " + describe(node));
+  }
+
+  private static Wave wave(final Object node, final String context) {
+
+    if (node instanceof Wave) {
+      return (Wave) node;
+    }
+
+    throw new IllegalArgumentException(
+        "Expected a waveform as " + context + ", got " + describe(node));
+  }
+
+  private static String describe(final Object node) {
+
+    if (node instanceof Scalar) {
+      return "a scalar";
+    } else if (node instanceof Wave) {
+      return "a waveform";
+    } else if (node instanceof Complex) {
+      return "a complex waveform";
+    } else {
+      return "the string \"" + node + "\"";
+    }
+  }
+
+  /**
+   * Recursive-descent parser that creates the evaluators while parsing
+   */
+  private static final class Parser {
+
+    private final String text;
+    private int position = 0;
+
+    private Parser(final String text) {
+      this.text = text;
+    }
+
+    private IllegalArgumentException error(final String message) {
+      return new IllegalArgumentException(
+          message + " at position " + this.position + " of \"" + this.text
+              + "\"");
+    }
+
+    private void skipWhitespace() {
+      while ((this.position < this.text.length())
+          && Character.isWhitespace(this.text.charAt(this.position))) {
+        this.position++;
+      }
+    }
+
+    private boolean accept(final char c) {
+
+      this.skipWhitespace();
+
+      if ((this.position < this.text.length())
+          && (this.text.charAt(this.position) == c)) {
+        this.position++;
+        return true;
+      }
+
+      return false;
+    }
+
+    private void expect(final char c) {
+      if (!this.accept(c)) {
+        throw this.error("Expected \"" + c + "\"");
+      }
+    }
+
+    // expression := term (("+" | "-") term)*
+    private Object parseExpression() {
+
+      Object node = this.parseTerm();
+
+      while (true) {
+        if (this.accept('+')) {
+          node = add(node, this.parseTerm());
+        } else if (this.accept('-')) {
+          node = subtract(node, this.parseTerm());
+        } else {
+          return node;
+        }
+      }
+    }
+
+    // term := unary (("*" | "/") unary)*
+    private Object parseTerm() {
+
+      Object node = this.parseUnary();
+
+      while (true) {
+        if (this.accept('*')) {
+          node = multiply(node, this.parseUnary());
+        } else if (this.accept('/')) {
+          node = divide(node, this.parseUnary());
+        } else {
+          return node;
+        }
+      }
+    }
+
+    // unary := "-" unary | power
+    private Object parseUnary() {
+
+      if (this.accept('-')) {
+
+        final Scalar a = scalar(this.parseUnary(), "operand of \"-\"");
+
+        if (a instanceof Constant) {
+          return new Constant(-((Constant) a).value);
+        }
+
+        return (Scalar) (results) -> -a.evaluate(results);
+      }
+
+      return this.parsePower();
+    }
+
+    // power := primary ("^" unary)?
+    private Object parsePower() {
+
+      final Object node = this.parsePrimary();
+
+      if (this.accept('^')) {
+
+        final Scalar a = scalar(node, "base of \"^\"");
+        final Scalar b = scalar(this.parseUnary(), "exponent of \"^\"");
+
+        return fold(a, b, (results) -> Math.pow(a.evaluate(results),
+            b.evaluate(results)));
+      }
+
+      return node;
+    }
+
+    // primary := number | string | name | name "(" arguments ")"
+    // | "(" expression ")"
+    private Object parsePrimary() {
+
+      this.skipWhitespace();
+
+      if (this.position >= this.text.length()) {
+        throw this.error("Unexpected end");
+      }
+
+      final char c = this.text.charAt(this.position);
+
+      if (c == '(') {
+
+        this.position++;
+
+        final Object node = this.parseExpression();
+        this.expect(')');
+
+        return node;
+
+      } else if (c == '"') {
+
+        final int end = this.text.indexOf('"', this.position + 1);
+
+        if (end < 0) {
+          throw this.error("Unterminated string");
+        }
+
+        final String string = this.text.substring(this.position + 1, end);
+        this.position = end + 1;
+
+        return string;
+
+      } else if (Character.isDigit(c) || (c == '.')) {
+
+        return this.parseNumber();
+
+      } else if (Character.isLetter(c) || (c == '_')) {
+
+        final String name = this.parseName();
+
+        if (this.accept('(')) {
+
+          final List<Object> arguments = new ArrayList<>();
+
+          if (!this.accept(')')) {
+
+            do {
+              arguments.add(this.parseExpression());
+            } while (this.accept(','));
+
+            this.expect(')');
+          }
+
+          return this.function(name, arguments);
+        }
+
+        return (Scalar) (results) -> {
+
+          final Double value = results.getValues().get(name);
+
+          if (value == null) {
+            return Double.NaN;
+          }
+
+          return value;
+        };
+      }
+
+      throw this.error("Unexpected \"" + c + "\"");
+    }
+
+    private Constant parseNumber() {
+
+      final int start = this.position;
+
+      while ((this.position < this.text.length())
+          && (Character.isDigit(this.text.charAt(this.position))
+              || (this.text.charAt(this.position) == '.'))) {
+        this.position++;
+      }
+
+      if ((this.position < this.text.length())
+          && ((this.text.charAt(this.position) == 'e')
+              || (this.text.charAt(this.position) == 'E'))) {
+
+        this.position++;
+
+        if ((this.position < this.text.length())
+            && ((this.text.charAt(this.position) == '+')
+                || (this.text.charAt(this.position) == '-'))) {
+          this.position++;
+        }
+
+        while ((this.position < this.text.length())
+            && Character.isDigit(this.text.charAt(this.position))) {
+          this.position++;
+        }
+      }
+
+      try {
+        return new Constant(
+            Double.parseDouble(this.text.substring(start, this.position)));
+      } catch (final NumberFormatException e) {
+        this.position = start;
+        throw this.error("Invalid number");
+      }
+    }
+
+    private String parseName() {
+
+      final int start = this.position;
+
+      while ((this.position < this.text.length())
+          && (Character.isLetterOrDigit(this.text.charAt(this.position))
+              || (this.text.charAt(this.position) == '_'))) {
+        this.position++;
+      }
+
+      return this.text.substring(start, this.position);
+    }
+
+    private Object function(final String name, final List<Object> arguments) {
+
+      switch (name) {
+
+      case "wave":
+        return this.waveAccess(this.string(name, arguments));
+
+      case "cwave":
+        return this.complexAccess(this.string(name, arguments));
+
+      case "value":
+        return this.valueAccess(this.string(name, arguments));
+
+      case "abs":
+        return this.abs(this.argument(name, arguments, 1, 1)[0]);
+
+      case "db20":
+        return this.db20(this.argument(name, arguments, 1, 1)[0]);
+
+      case "phase": {
+
+        final Object node = this.argument(name, arguments, 1, 1)[0];
+
+        if (!(node instanceof Complex)) {
+          throw this.error("Expected a complex waveform as argument of \""
+              + name + "\", got " + describe(node));
+        }
+
+        final Complex a = (Complex) node;
+
+        return (Wave) (results) -> a.evaluate(results).phaseDeg();
+      }
+
+      case "clip": {
+
+        final Object[] args = this.argument(name, arguments, 3, 3);
+
+        final Wave a = wave(args[0], "argument of \"clip\"");
+        final Scalar from = scalar(args[1], "argument of \"clip\"");
+        final Scalar to = scalar(args[2], "argument of \"clip\"");
+
+        return (Wave) (results) -> a.evaluate(results)
+            .clip(from.evaluate(results), to.evaluate(results));
+      }
+
+      case "cross": {
+
+        final Object[] args = this.argument(name, arguments, 2, 3);
+
+        final Wave a = wave(args[0], "argument of \"cross\"");
+        final Scalar level = scalar(args[1], "argument of \"cross\"");
+        final Scalar edge = args.length > 2
+            ? scalar(args[2], "argument of \"cross\"")
+            : new Constant(1);
+
+        return (Value) (results) -> a.evaluate(results)
+            .cross(level.evaluate(results), (int) edge.evaluate(results));
+      }
+
+      case "at": {
+
+        final Object[] args = this.argument(name, arguments, 2, 2);
+
+        final Wave a = wave(args[0], "argument of \"at\"");
+
+        if (args[1] instanceof Value) {
+
+          final Value x = (Value) args[1];
+
+          return (Value) (results) -> a.evaluate(results)
+              .getValue(x.value(results));
+        }
+
+        final Scalar x = scalar(args[1], "argument of \"at\"");
+
+        return (Value) (results) -> a.evaluate(results)
+            .getValue(x.evaluate(results));
+      }
+
+      case "xmin": {
+        final Wave a = wave(this.argument(name, arguments, 1, 1)[0],
+            "argument of \"xmin\"");
+        return (Value) (results) -> a.evaluate(results).xmin();
+      }
+
+      case "xmax": {
+        final Wave a = wave(this.argument(name, arguments, 1, 1)[0],
+            "argument of \"xmax\"");
+        return (Value) (results) -> a.evaluate(results).xmax();
+      }
+
+      case "ymin": {
+        final Wave a = wave(this.argument(name, arguments, 1, 1)[0],
+            "argument of \"ymin\"");
+        return (Value) (results) -> a.evaluate(results).ymin();
+      }
+
+      case "ymax": {
+        final Wave a = wave(this.argument(name, arguments, 1, 1)[0],
+            "argument of \"ymax\"");
+        return (Value) (results) -> a.evaluate(results).ymax();
+      }
+
+      case "min":
+      case "max": {
+
+        final boolean min = name.equals("min");
+        final Object[] args = this.argument(name, arguments, 1, 2);
+
+        if (args.length == 1) {
+
+          final Wave a = wave(args[0], "argument of \"" + name + "\"");
+
+          if (min) {
+            return (Value) (results) -> a.evaluate(results).ymin();
+          }
+
+          return (Value) (results) -> a.evaluate(results).ymax();
+        }
+
+        final Scalar a = scalar(args[0], "argument of \"" + name + "\"");
+        final Scalar b = scalar(args[1], "argument of \"" + name + "\"");
+
+        if (min) {
+          return fold(a, b, (results) -> Math.min(a.evaluate(results),
+              b.evaluate(results)));
+        }
+
+        return fold(a, b, (results) -> Math.max(a.evaluate(results),
+            b.evaluate(results)));
+      }
+
+      case "sqrt": {
+        final Scalar a = scalar(this.argument(name, arguments, 1, 1)[0],
+            "argument of \"sqrt\"");
+        return fold(a, a, (results) -> Math.sqrt(a.evaluate(results)));
+      }
+
+      case "log10": {
+        final Scalar a = scalar(this.argument(name, arguments, 1, 1)[0],
+            "argument of \"log10\"");
+        return fold(a, a, (results) -> Math.log10(a.evaluate(results)));
+      }
+
+      default:
+        throw this.error("Unknown function \"" + name + "\"");
+      }
+    }
+
+    private Object[] argument(final String name, final List<Object> arguments,
+        final int min, final int max) {
+
+      if ((arguments.size() < min) || (arguments.size() > max)) {
+        throw this.error("Function \"" + name + "\" expects "
+            + (min == max ? min : min + " to " + max) + " arguments");
+      }
+
+      return arguments.toArray();
+    }
+
+    private String string(final String name, final List<Object> arguments) {
+
+      final Object node = this.argument(name, arguments, 1, 1)[0];
+
+      if (!(node instanceof String)) {
+        throw this.error("Expected a string as argument of \"" + name
+            + "\", got " + describe(node));
+      }
+
+      return (String) node;
+    }
+
+    private Wave waveAccess(final String name) {
+      return (results) -> results.getRealResults().getRealWaveform(name);
+    }
+
+    private Complex complexAccess(final String name) {
+      return (results) -> results.getComplexResults()
+          .getComplexWaveform(name);
+    }
+
+    private Value valueAccess(final String name) {
+      return (results) -> results.getRealResults().getRealValue(name);
+    }
+
+    private Object abs(final Object node) {
+
+      if (node instanceof Complex) {
+        final Complex a = (Complex) node;
+        return (Wave) (results) -> a.evaluate(results).abs();
+      } else if (node instanceof Wave) {
+        final Wave a = (Wave) node;
+        return (Wave) (results) -> a.evaluate(results).abs();
+      }
+
+      final Scalar a = scalar(node, "argument of \"abs\"");
+
+      return fold(a, a, (results) -> Math.abs(a.evaluate(results)));
+    }
+
+    private Object db20(final Object node) {
+
+      if (node instanceof Complex) {
+        final Complex a = (Complex) node;
+        return (Wave) (results) -> a.evaluate(results).abs().db20();
+      } else if (node instanceof Wave) {
+        final Wave a = (Wave) node;
+        return (Wave) (results) -> a.evaluate(results).db20();
+      }
+
+      final Scalar a = scalar(node, "argument of \"db20\"");
+
+      return fold(a, a,
+          (results) -> 20 * Math.log10(Math.abs(a.evaluate(results))));
+    }
+  }
+
+  /**
+   * Fold an operation to a constant when all operands are constant
+   */
+  private static Scalar fold(final Scalar a, final Scalar b,
+      final Scalar operation) {
+
+    if ((a instanceof Constant) && (b instanceof Constant)) {
+      return new Constant(operation.evaluate(null));
+    }
+
+    return operation;
+  }
+
+  private static Object add(final Object left, final Object right) {
+
+    final Scalar a = scalar(left, "operand of \"+\"");
+    final Scalar b = scalar(right, "operand of \"+\"");
+
+    return fold(a, b, (results) -> a.evaluate(results) + b.evaluate(results));
+  }
+
+  private static Object subtract(final Object left, final Object right) {
+
+    if (left instanceof Wave) {
+
+      final Wave a = (Wave) left;
+
+      if (right instanceof Wave) {
+        final Wave b = (Wave) right;
+        return (Wave) (results) -> a.evaluate(results)
+            .subtract(b.evaluate(results));
+      } else if (right instanceof Value) {
+        final Value b = (Value) right;
+        return (Wave) (results) -> a.evaluate(results)
+            .subtract(b.value(results));
+      }
+
+      throw new IllegalArgumentException("A waveform can only be reduced "
+          + "by a waveform or a value of the results, got "
+          + describe(right));
+    }
+
+    final Scalar a = scalar(left, "operand of \"-\"");
+    final Scalar b = scalar(right, "operand of \"-\"");
+
+    return fold(a, b, (results) -> a.evaluate(results) - b.evaluate(results));
+  }
+
+  private static Object multiply(final Object left, final Object right) {
+
+    if (left instanceof Wave) {
+      return divide(left, reciprocal(scalar(right, "factor of a waveform")));
+    } else if (right instanceof Wave) {
+      return divide(right, reciprocal(scalar(left, "factor of a waveform")));
+    }
+
+    final Scalar a = scalar(left, "operand of \"*\"");
+    final Scalar b = scalar(right, "operand of \"*\"");
+
+    return fold(a, b, (results) -> a.evaluate(results) * b.evaluate(results));
+  }
+
+  private static Object divide(final Object left, final Object right) {
+
+    if (left instanceof Wave) {
+
+      final Wave a = (Wave) left;
+      final Scalar b = scalar(right, "divisor of a waveform");
+
+      return (Wave) (results) -> a.evaluate(results)
+          .divide(b.evaluate(results));
+    }
+
+    final Scalar a = scalar(left, "operand of \"/\"");
+    final Scalar b = scalar(right, "operand of \"/\"");
+
+    return fold(a, b, (results) -> a.evaluate(results) / b.evaluate(results));
+  }
+
+  private static Scalar reciprocal(final Scalar a) {
+    return fold(a, a, (results) -> 1 / a.evaluate(results));
+  }
+}
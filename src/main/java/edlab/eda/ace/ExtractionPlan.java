@@ -0,0 +1,254 @@
+package edlab.eda.ace;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.json.JSONObject;
+
+import edlab.eda.ardb.RealResultsDatabase;
+
+/**
+ * Immutable plan for the extraction of performances. The plan is compiled
+ * once from the table of performances in the properties of an environment
+ * and maps each analysis to the performances that are extracted from it.
+ */
+public final class ExtractionPlan {
+
+  private final Map<String, List<PerformanceDefinition>> analyses;
+  private final Map<String, PerformanceDefinition> performances;
+  private final Map<String, List<PerformanceDefinition>> expressions;
+
+  private ExtractionPlan(
+      final Map<String, List<PerformanceDefinition>> analyses,
+      final Map<String, PerformanceDefinition> performances,
+      final Map<String, List<PerformanceDefinition>> expressions) {
+    this.analyses = analyses;
+    this.performances = performances;
+    this.expressions = expressions;
+  }
+
+  /**
+   * Compile a plan from the table of performances. Measurement expressions
+   * of performances are compiled once, invalid expressions are reported and
+   * ignored.
+   * 
+   * @param jsonObj JSON object where the key corresponds to the name of the
+   *                analysis and the value to a JSON object of performances
+   * @return plan
+   */
+  static ExtractionPlan compile(final JSONObject jsonObj) {
+
+    final Map<String, List<PerformanceDefinition>> analyses = new LinkedHashMap<>();
+    final Map<String, PerformanceDefinition> performances = new HashMap<>();
+    final Map<String, List<PerformanceDefinition>> expressions = new LinkedHashMap<>();
+
+    JSONObject analysisJsonObject;
+    JSONObject performanceJsonObject;
+    List<PerformanceDefinition> definitions;
+    List<PerformanceDefinition> expressionDefinitions;
+    PerformanceDefinition definition;
+    String reference;
+    Expression expression;
+
+    for (final String analysis : new TreeSet<>(jsonObj.keySet())) {
+
+      analysisJsonObject = jsonObj.getJSONObject(analysis);
+      definitions = new ArrayList<>();
+      expressionDefinitions = new ArrayList<>();
+
+      for (final String identifier : new TreeSet<>(
+          analysisJsonObject.keySet())) {
+
+        performanceJsonObject = analysisJsonObject.optJSONObject(identifier);
+
+        reference = null;
+        expression = null;
+
+        if (performanceJsonObject != null) {
+
+          reference = performanceJsonObject
+              .optString(AnalogCircuitEnvironment.REFERENCE_ID, null);
+
+          expression = compileExpression(identifier, performanceJsonObject
+              .optString(AnalogCircuitEnvironment.EXPRESSION_ID, null));
+        }
+
+        if (expression != null) {
+          definition = new PerformanceDefinition(identifier, analysis,
+              reference, expression, expression);
+          expressionDefinitions.add(definition);
+        } else if (reference != null) {
+          definition = new PerformanceDefinition(identifier, analysis,
+              reference, null, referenceExtractor(reference));
+        } else {
+          definition = new PerformanceDefinition(identifier, analysis, null,
+              null, null);
+        }
+
+        definitions.add(definition);
+        performances.put(identifier, definition);
+      }
+
+      analyses.put(analysis, Collections.unmodifiableList(definitions));
+
+      if (!expressionDefinitions.isEmpty()) {
+        expressions.put(analysis,
+            Collections.unmodifiableList(expressionDefinitions));
+      }
+    }
+
+    return new ExtractionPlan(Collections.unmodifiableMap(analyses),
+        Collections.unmodifiableMap(performances),
+        Collections.unmodifiableMap(expressions));
+  }
+
+  /**
+   * Compile the measurement expression of a performance
+   * 
+   * @param identifier identifier of the performance
+   * @param text       textual representation of the expression
+   * @return expression, <code>null</code> when no expression is given or the
+   *         expression is not valid
+   */
+  private static Expression compileExpression(final String identifier,
+      final String text) {
+
+    if (text == null) {
+      return null;
+    }
+
+    try {
+      return Expression.compile(text);
+    } catch (final IllegalArgumentException e) {
+      System.err.println("Invalid expression of performance \"" + identifier
+          + "\": " + e.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * Create an extractor that reads a value from the results of an analysis
+   * 
+   * @param reference name of the value
+   * @return extractor
+   */
+  private static Extractor referenceExtractor(final String reference) {
+
+    return (results) -> {
+
+      final RealResultsDatabase database = results.getRealResults();
+
+      if ((database == null) || !database.isMember(reference)) {
+        return Double.NaN;
+      }
+
+      return database.getRealValue(reference).getValue();
+    };
+  }
+
+  /**
+   * Get all analyses in the plan
+   * 
+   * @return set of analyses
+   */
+  public Set<String> getAnalyses() {
+    return this.analyses.keySet();
+  }
+
+  /**
+   * Get the performances of an analysis
+   * 
+   * @param analysis name of analysis
+   * @return list of performances, the list is empty when the analysis is not
+   *         part of the plan
+   */
+  public List<PerformanceDefinition> getPerformances(final String analysis) {
+
+    final List<PerformanceDefinition> retval = this.analyses.get(analysis);
+
+    if (retval == null) {
+      return Collections.emptyList();
+    }
+
+    return retval;
+  }
+
+  /**
+   * Get the performances that are extracted with a measurement expression
+   * 
+   * @return map where the key corresponds to the name of the analysis and the
+   *         value to the list of performances with an expression
+   */
+  Map<String, List<PerformanceDefinition>> getExpressions() {
+    return this.expressions;
+  }
+
+  /**
+   * Get the definition of a performance
+   * 
+   * @param identifier identifier of the performance
+   * @return definition, <code>null</code> when the performance is not part of
+   *         the plan
+   */
+  public PerformanceDefinition getPerformance(final String identifier) {
+    return this.performances.get(identifier);
+  }
+
+  /**
+   * Get the identifiers of all performances that are not extracted from a
+   * set of ignored analyses
+   * 
+   * @param blacklistAnalyses analyses to be ignored
+   * @return set of performance identifiers
+   */
+  public Set<String> getPerformanceIdentifiers(
+      final Set<String> blacklistAnalyses) {
+
+    final Set<String> retval = new TreeSet<>();
+
+    for (final Map.Entry<String, List<PerformanceDefinition>> entry : this.analyses
+        .entrySet()) {
+
+      if (!blacklistAnalyses.contains(entry.getKey())) {
+        for (final PerformanceDefinition definition : entry.getValue()) {
+          retval.add(definition.getIdentifier());
+        }
+      }
+    }
+
+    return retval;
+  }
+
+  /**
+   * Get the analyses that are needed to extract a set of performances
+   * 
+   * @param identifiers set of performance identifiers
+   * @return map where the key corresponds to the identifier of the
+   *         performance and the value to the name of the analysis. Unknown
+   *         performances are not part of the map.
+   */
+  Map<String, String> getAnalyses(final Set<String> identifiers) {
+
+    final Map<String, String> retval = new TreeMap<>();
+
+    PerformanceDefinition definition;
+
+    for (final String identifier : identifiers) {
+
+      definition = this.performances.get(identifier);
+
+      if (definition != null) {
+        retval.put(identifier, definition.getAnalysis());
+      }
+    }
+
+    return retval;
+  }
+}
@@ -0,0 +1,17 @@
+package edlab.eda.ace;
+
+/**
+ * Extractor of a single performance from the results of an analysis
+ */
+@FunctionalInterface
+public interface Extractor {
+
+  /**
+   * Extract the performance
+   * 
+   * @param results results of the analysis
+   * @return value of the performance, <code>Double.NaN</code> when the
+   *         performance cannot be extracted
+   */
+  double extract(final AnalysisResults results);
+}
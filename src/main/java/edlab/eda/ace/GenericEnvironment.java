@@ -0,0 +1,172 @@
+package edlab.eda.ace;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONObject;
+
+import edlab.eda.cadence.rc.spectre.SpectreFactory;
+import edlab.eda.reader.nutmeg.NutmegPlot;
+
+/**
+ * Environment for characterization of an arbitrary circuit. All performances
+ * are described in the properties of the circuit, either by a reference to a
+ * value in the results of an analysis or by a measurement expression (see
+ * {@link Expression}).
+ */
+public final class GenericEnvironment extends AnalogCircuitEnvironment {
+
+  private GenericEnvironment(final SimulatorBackend backend,
+      final JSONObject jsonObject, final File dir, final File[] includeDirs) {
+    super(backend, jsonObject, dir, includeDirs);
+  }
+
+  /**
+   * Get a new environment for an arbitrary circuit
+   * 
+   * @param simDir      Directory where simulation results are stored
+   * @param circuitDir  Directory that contains all information of the circuit.
+   *                    The directory contains the files "input.scs" and
+   *                    "properties.json".
+   * @param includeDirs Array of include directories for simulation. These
+   *                    include directories typically reference the model files
+   *                    from the PDK.
+   * 
+   * @return object of {@link GenericEnvironment} when all parameters are valid,
+   *         <code>null</code> otherwise
+   */
+  public static GenericEnvironment get(final String simDir,
+      final String circuitDir, final String[] includeDirs) {
+
+    final File simDirFile = new File(simDir);
+
+    if (!(simDirFile.exists() && simDirFile.isDirectory()
+        && simDirFile.canRead() && simDirFile.canWrite())) {
+
+      System.err
+          .println("Cannot write simulation results to \"" + simDir + "\"");
+      return null;
+    }
+
+    final SpectreFactory factory = SpectreFactory.getSpectreFactory(simDirFile);
+
+    if (factory == null) {
+      System.err.println("Unable to access simulator spectre");
+      return null;
+    }
+
+    factory.setWatchogTimeout(10, TimeUnit.SECONDS);
+
+    return get(new SpectreBackend(factory), circuitDir, includeDirs);
+  }
+
+  /**
+   * Get a new environment for an arbitrary circuit that simulates with the
+   * given backend
+   * 
+   * @param backend     Simulator backend
+   * @param circuitDir  Directory that contains all information of the circuit.
+   *                    The directory contains the files "input.scs" and
+   *                    "properties.json".
+   * @param includeDirs Array of include directories for simulation. These
+   *                    include directories typically reference the model files
+   *                    from the PDK.
+   * 
+   * @return object of {@link GenericEnvironment} when all parameters are valid,
+   *         <code>null</code> otherwise
+   */
+  public static GenericEnvironment get(final SimulatorBackend backend,
+      final String circuitDir, final String[] includeDirs) {
+
+    final File circuitDirFile = new File(circuitDir);
+
+    if (!(circuitDirFile.exists() && circuitDirFile.isDirectory()
+        && circuitDirFile.canWrite())) {
+      System.err.println("\"" + circuitDirFile + "\" is not a directory");
+      return null;
+    }
+
+    final File jsonFile = new File(circuitDirFile,
+        AnalogCircuitEnvironment.JSON_FILE_NAME);
+
+    if (!(jsonFile.exists() && jsonFile.canRead())) {
+
+      System.err.println("Cannot read file \"" + jsonFile.toString() + "\"");
+
+      return null;
+    }
+
+    JSONObject jsonObj;
+
+    try {
+
+      jsonObj = new JSONObject(
+          new String(Files.readAllBytes(jsonFile.toPath())));
+    } catch (final Exception e) {
+
+      System.err.println("Cannot read JSON \"" + jsonFile.toString() + "\"\n"
+          + e.getMessage());
+      return null;
+    }
+
+    final File[] includeDirFiles = new File[includeDirs.length];
+    File includeDir;
+
+    for (int i = 0; i < includeDirFiles.length; i++) {
+
+      includeDir = new File(includeDirs[i]);
+
+      if (!(includeDir.exists() && includeDir.isDirectory())) {
+
+        System.err.println("\"" + includeDirs[i] + "\" is not a directory");
+
+        return null;
+      }
+
+      includeDirFiles[i] = includeDir;
+    }
+
+    final GenericEnvironment env = new GenericEnvironment(backend, jsonObj,
+        circuitDirFile, includeDirFiles);
+
+    env.setName(circuitDirFile.getName());
+
+    return env;
+  }
+
+  @Override
+  protected void extract(final String corner, final List<NutmegPlot> plots,
+      final Map<String, Double> values, final Set<String> blacklistAnalyses,
+      final PerformanceVector performanceValues) {
+
+    final Map<String, NutmegPlot> plotsMap = NutmegPlot.getPlotMap(plots);
+
+    NutmegPlot plot;
+    AnalysisResults results;
+
+    for (final String analysis : this.extractionPlan.getAnalyses()) {
+
+      plot = plotsMap.get(analysis);
+
+      if (blacklistAnalyses.contains(analysis) || (plot == null)) {
+        continue;
+      }
+
+      results = new AnalysisResults(analysis, plot, values);
+
+      // expressions are evaluated by the base class
+      for (final PerformanceDefinition definition : this.extractionPlan
+          .getPerformances(analysis)) {
+        if ((definition.getExpression() == null)
+            && (definition.getExtractor() != null)) {
+          performanceValues.put(definition.getIdentifier(),
+              definition.getExtractor().extract(results));
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,392 @@
+package edlab.eda.ace;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Global budget of simulator licenses. Each started simulator holds one token
+ * of the budget, from its start until it is stopped, because the simulator
+ * checks out a license for its whole lifetime. When all tokens are in use,
+ * further simulations wait in a fair (first-in-first-out) queue. Idle
+ * simulators keep their token until it is needed by another simulation, then
+ * the idle simulator that was used least recently is stopped and its token is
+ * handed over. The size of the budget can be changed at runtime.
+ */
+public final class LicenseBudget {
+
+  /**
+   * Name of the system property that defines the number of tokens of the
+   * default budget
+   */
+  public static final String TOKENS_PROPERTY = "ace.licenses";
+
+  /**
+   * Number of tokens of a budget without limitation
+   */
+  public static final int UNLIMITED = Integer.MAX_VALUE;
+
+  private static LicenseBudget defaultBudget = null;
+
+  private final TokenSemaphore semaphore;
+  private int tokens;
+
+  // threads that acquire a token, including threads that are about to wait
+  private final AtomicInteger acquiring = new AtomicInteger();
+
+  private final LongAdder acquisitions = new LongAdder();
+  private final LongAdder waitTime = new LongAdder();
+  private final LongAccumulator maxWaitTime = new LongAccumulator(Math::max,
+      0);
+
+  // leases that hold a token while their simulator is idle, least recently
+  // used first; all leases of the budget are guarded by this queue
+  private final Deque<Lease> idleLeases = new ArrayDeque<>();
+
+  /**
+   * Create a new budget
+   * 
+   * @param tokens number of tokens, i.e., the maximal number of simulations
+   *               that run at the same time
+   */
+  public LicenseBudget(final int tokens) {
+
+    if (tokens < 1) {
+      throw new IllegalArgumentException(
+          "Number of tokens must be positive, but is " + tokens);
+    }
+
+    this.tokens = tokens;
+    this.semaphore = new TokenSemaphore(tokens);
+  }
+
+  /**
+   * Get the default budget that is shared by all environments. The number of
+   * tokens is defined by the system property {@value #TOKENS_PROPERTY}. When
+   * the property is not set, the number of tokens is not limited.
+   * 
+   * @return default budget
+   */
+  public static synchronized LicenseBudget getDefault() {
+
+    if (defaultBudget == null) {
+
+      int tokens = UNLIMITED;
+
+      try {
+        tokens = Integer.parseInt(
+            System.getProperty(TOKENS_PROPERTY, Integer.toString(UNLIMITED)));
+      } catch (final NumberFormatException e) {
+        System.err.println("Invalid value of property \"" + TOKENS_PROPERTY
+            + "\", the number of licenses is not limited");
+      }
+
+      defaultBudget = new LicenseBudget(Math.max(1, tokens));
+    }
+
+    return defaultBudget;
+  }
+
+  /**
+   * Get the number of tokens of the budget
+   * 
+   * @return number of tokens
+   */
+  public synchronized int getTokens() {
+    return this.tokens;
+  }
+
+  /**
+   * Change the number of tokens of the budget at runtime. When the budget is
+   * reduced, running simulations are not interrupted, but no new simulation
+   * is started until the number of running simulations is below the new
+   * budget.
+   * 
+   * @param tokens new number of tokens
+   * @return <code>this</code> when the budget was changed successfully,
+   *         <code>null</code> otherwise
+   */
+  public synchronized LicenseBudget setTokens(final int tokens) {
+
+    if (tokens < 1) {
+      return null;
+    }
+
+    if (tokens > this.tokens) {
+      this.semaphore.release(tokens - this.tokens);
+    } else if (tokens < this.tokens) {
+      this.semaphore.reducePermits(this.tokens - tokens);
+    }
+
+    this.tokens = tokens;
+
+    return this;
+  }
+
+  /**
+   * Get the number of tokens that are currently not in use
+   * 
+   * @return number of available tokens
+   */
+  public int getAvailableTokens() {
+    return Math.max(0, this.semaphore.availablePermits());
+  }
+
+  /**
+   * Get the number of simulations that are currently waiting for a token
+   * 
+   * @return number of waiting simulations
+   */
+  public int getQueueLength() {
+    return this.semaphore.getQueueLength();
+  }
+
+  /**
+   * Acquire a token. The calling thread is blocked in the fair queue until a
+   * token is available. A token of an idle lease is revoked when no token is
+   * available, leases that become idle later are revoked by
+   * {@link Lease#deactivate()}.
+   * 
+   * @return time in nanoseconds the calling thread waited for the token
+   * @throws InterruptedException when interrupted while waiting
+   */
+  long acquire() throws InterruptedException {
+
+    final long start = System.nanoTime();
+
+    // the thread is counted before the idle leases are checked, such that a
+    // lease that becomes idle concurrently is revoked by its deactivation
+    this.acquiring.incrementAndGet();
+
+    try {
+
+      if (!this.semaphore.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+        this.revokeForWaiters();
+        this.semaphore.acquire();
+      }
+
+    } finally {
+      this.acquiring.decrementAndGet();
+    }
+
+    final long wait = System.nanoTime() - start;
+
+    this.acquisitions.increment();
+    this.waitTime.add(wait);
+    this.maxWaitTime.accumulate(wait);
+
+    return wait;
+  }
+
+  /**
+   * Release a token that was acquired before
+   */
+  void release() {
+    this.semaphore.release();
+  }
+
+  /**
+   * Create a lease of a token for the lifetime of a simulator
+   * 
+   * @param revocation action that stops the simulator when the token of the
+   *                   idle simulator is revoked
+   * @return lease that does not hold a token
+   */
+  Lease lease(final Runnable revocation) {
+    return new Lease(revocation);
+  }
+
+  /**
+   * Get the number of tokens that are held by idle simulators
+   * 
+   * @return number of idle tokens
+   */
+  public int getIdleTokens() {
+    synchronized (this.idleLeases) {
+      return this.idleLeases.size();
+    }
+  }
+
+  /**
+   * Revoke the token of an idle lease when more threads acquire a token than
+   * tokens are available
+   */
+  private void revokeForWaiters() {
+    if (this.acquiring.get() > this.semaphore.availablePermits()) {
+      this.revokeIdleLease();
+    }
+  }
+
+  /**
+   * Revoke the token of the idle lease that was used least recently
+   * 
+   * @return <code>true</code> when a token was revoked, <code>false</code>
+   *         when no lease is idle
+   */
+  private boolean revokeIdleLease() {
+
+    final Lease lease;
+
+    synchronized (this.idleLeases) {
+
+      lease = this.idleLeases.pollFirst();
+
+      if (lease == null) {
+        return false;
+      }
+
+      lease.held = false;
+      lease.revoking = true;
+    }
+
+    try {
+      lease.revocation.run();
+    } finally {
+
+      synchronized (this.idleLeases) {
+        lease.revoking = false;
+        this.idleLeases.notifyAll();
+      }
+
+      this.semaphore.release();
+    }
+
+    return true;
+  }
+
+  /**
+   * Lease of a token for the lifetime of a simulator. The token is acquired
+   * when the simulator is used for the first time and kept while the
+   * simulator is idle, until the lease is released or revoked.
+   */
+  final class Lease {
+
+    private final Runnable revocation;
+
+    // guarded by the idle leases of the budget
+    private boolean held = false;
+    private boolean revoking = false;
+
+    private Lease(final Runnable revocation) {
+      this.revocation = revocation;
+    }
+
+    /**
+     * Get the budget of the lease
+     * 
+     * @return budget
+     */
+    LicenseBudget getBudget() {
+      return LicenseBudget.this;
+    }
+
+    /**
+     * Use the simulator of the lease. A token is acquired when the lease does
+     * not hold a token.
+     * 
+     * @return time in nanoseconds the calling thread waited for the token
+     * @throws InterruptedException when interrupted while waiting
+     */
+    long activate() throws InterruptedException {
+
+      final Deque<Lease> idleLeases = LicenseBudget.this.idleLeases;
+
+      synchronized (idleLeases) {
+
+        while (this.revoking) {
+          idleLeases.wait();
+        }
+
+        if (this.held) {
+          idleLeases.remove(this);
+          return 0;
+        }
+      }
+
+      final long wait = LicenseBudget.this.acquire();
+
+      synchronized (idleLeases) {
+        this.held = true;
+      }
+
+      return wait;
+    }
+
+    /**
+     * Mark the simulator of the lease as idle. The token is revoked
+     * immediately when other simulations are waiting for a token.
+     */
+    void deactivate() {
+
+      synchronized (LicenseBudget.this.idleLeases) {
+        if (this.held) {
+          LicenseBudget.this.idleLeases.addLast(this);
+        }
+      }
+
+      LicenseBudget.this.revokeForWaiters();
+    }
+
+    /**
+     * Release the token of the lease after the simulator was stopped
+     */
+    void release() {
+
+      final Deque<Lease> idleLeases = LicenseBudget.this.idleLeases;
+      final boolean held;
+
+      synchronized (idleLeases) {
+
+        while (this.revoking) {
+          try {
+            idleLeases.wait();
+          } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+          }
+        }
+
+        idleLeases.remove(this);
+
+        held = this.held;
+        this.held = false;
+      }
+
+      if (held) {
+        LicenseBudget.this.release();
+      }
+    }
+  }
+
+  /**
+   * Get a snapshot of the waiting statistics of the budget
+   * 
+   * @return statistics
+   */
+  public LicenseStatistics getStatistics() {
+    return new LicenseStatistics(this.getTokens(), this.getAvailableTokens(),
+        this.getQueueLength(), this.acquisitions.sum(), this.waitTime.sum(),
+        this.maxWaitTime.get());
+  }
+
+  /**
+   * Fair semaphore that exposes the reduction of permits
+   */
+  private static final class TokenSemaphore extends Semaphore {
+
+    private static final long serialVersionUID = 1L;
+
+    private TokenSemaphore(final int permits) {
+      super(permits, true);
+    }
+
+    @Override
+    protected void reducePermits(final int reduction) {
+      super.reducePermits(reduction);
+    }
+  }
+}
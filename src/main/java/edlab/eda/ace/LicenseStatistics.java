@@ -0,0 +1,102 @@
+package edlab.eda.ace;
+
+/**
+ * Immutable snapshot of the waiting statistics of a {@link LicenseBudget}
+ */
+public final class LicenseStatistics {
+
+  private final int tokens;
+  private final int availableTokens;
+  private final int queueLength;
+  private final long acquisitions;
+  private final long waitTime;
+  private final long maxWaitTime;
+
+  LicenseStatistics(final int tokens, final int availableTokens,
+      final int queueLength, final long acquisitions, final long waitTime,
+      final long maxWaitTime) {
+    this.tokens = tokens;
+    this.availableTokens = availableTokens;
+    this.queueLength = queueLength;
+    this.acquisitions = acquisitions;
+    this.waitTime = waitTime;
+    this.maxWaitTime = maxWaitTime;
+  }
+
+  /**
+   * Get the number of tokens of the budget
+   * 
+   * @return number of tokens
+   */
+  public int getTokens() {
+    return this.tokens;
+  }
+
+  /**
+   * Get the number of tokens that were not in use
+   * 
+   * @return number of available tokens
+   */
+  public int getAvailableTokens() {
+    return this.availableTokens;
+  }
+
+  /**
+   * Get the number of simulations that were waiting for a token
+   * 
+   * @return number of waiting simulations
+   */
+  public int getQueueLength() {
+    return this.queueLength;
+  }
+
+  /**
+   * Get the number of tokens that were handed out
+   * 
+   * @return number of acquisitions
+   */
+  public long getAcquisitions() {
+    return this.acquisitions;
+  }
+
+  /**
+   * Get the accumulated time all simulations waited for a token
+   * 
+   * @return wait time in nanoseconds
+   */
+  public long getWaitTime() {
+    return this.waitTime;
+  }
+
+  /**
+   * Get the longest time a simulation waited for a token
+   * 
+   * @return wait time in nanoseconds
+   */
+  public long getMaxWaitTime() {
+    return this.maxWaitTime;
+  }
+
+  /**
+   * Get the average time a simulation waited for a token
+   * 
+   * @return wait time in nanoseconds
+   */
+  public double getMeanWaitTime() {
+
+    if (this.acquisitions == 0) {
+      return 0.0;
+    }
+
+    return (double) this.waitTime / this.acquisitions;
+  }
+
+  @Override
+  public String toString() {
+    return "tokens=" + this.tokens + ", available=" + this.availableTokens
+        + ", waiting=" + this.queueLength + ", acquisitions="
+        + this.acquisitions + ", meanWait="
+        + String.format("%.3fms", this.getMeanWaitTime() / 1e6)
+        + ", maxWait=" + String.format("%.3fms", this.maxWaitTime / 1e6);
+  }
+}
@@ -0,0 +1,221 @@
+package edlab.eda.ace;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Registry of the latencies of the phases of simulations. Latencies are
+ * recorded per environment, corner, analysis and {@link SimulationPhase} in
+ * lock-free histograms. All environments record to the default registry
+ * unless another registry is provided explicitly. The default registry is
+ * exported via JMX as <code>edlab.eda.ace:type=Metrics,name=default</code>.
+ */
+public final class MetricsRegistry implements MetricsRegistryMXBean {
+
+  /**
+   * Domain of the JMX object names of registries
+   */
+  public static final String JMX_DOMAIN = "edlab.eda.ace";
+
+  private static MetricsRegistry defaultRegistry = null;
+
+  private final Map<Key, Histogram> histograms = new ConcurrentHashMap<>();
+  private final LongAdder recordings = new LongAdder();
+
+  /**
+   * Get the default registry that is shared by all environments
+   * 
+   * @return default registry
+   */
+  public static synchronized MetricsRegistry getDefault() {
+
+    if (defaultRegistry == null) {
+      defaultRegistry = new MetricsRegistry();
+      defaultRegistry.register("default");
+    }
+
+    return defaultRegistry;
+  }
+
+  /**
+   * Export the registry via JMX
+   * 
+   * @param name name of the registry in the JMX object name
+   * @return <code>true</code> when the registry was exported,
+   *         <code>false</code> otherwise
+   */
+  public boolean register(final String name) {
+
+    final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+    try {
+      server.registerMBean(this, new ObjectName(
+          JMX_DOMAIN + ":type=Metrics,name=" + ObjectName.quote(name)));
+      return true;
+    } catch (final JMException e) {
+      System.err.println("Unable to export metrics \"" + name
+          + "\" via JMX\n" + e.getMessage());
+      return false;
+    }
+  }
+
+  /**
+   * Record the duration of a phase
+   * 
+   * @param environment name of the environment
+   * @param corner      name of the corner, <code>null</code> when the phase
+   *                    is not specific to a corner
+   * @param analysis    name of the analysis, <code>null</code> when the phase
+   *                    covers all analyses of a corner
+   * @param phase       phase
+   * @param nanos       duration in nanoseconds
+   */
+  public void record(final String environment, final String corner,
+      final String analysis, final SimulationPhase phase, final long nanos) {
+
+    this.histograms
+        .computeIfAbsent(new Key(environment, corner, analysis, phase),
+            (key) -> new Histogram())
+        .record(nanos);
+
+    this.recordings.increment();
+  }
+
+  @Override
+  public List<PhaseStatistics> getStatistics() {
+
+    final List<PhaseStatistics> retval = new ArrayList<>();
+
+    for (final Map.Entry<Key, Histogram> entry : this.histograms.entrySet()) {
+      retval.add(entry.getValue().snapshot(entry.getKey()));
+    }
+
+    Collections.sort(retval,
+        Comparator.comparing(PhaseStatistics::getEnvironment)
+            .thenComparing(PhaseStatistics::getCorner,
+                Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(PhaseStatistics::getAnalysis,
+                Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(PhaseStatistics::getPhase));
+
+    return retval;
+  }
+
+  /**
+   * Get a snapshot of the statistics of the recorded phases of an environment
+   * 
+   * @param environment name of the environment
+   * @return list of statistics
+   */
+  public List<PhaseStatistics> getStatistics(final String environment) {
+
+    final List<PhaseStatistics> retval = new ArrayList<>();
+
+    for (final PhaseStatistics statistics : this.getStatistics()) {
+      if (statistics.getEnvironment().equals(environment)) {
+        retval.add(statistics);
+      }
+    }
+
+    return retval;
+  }
+
+  @Override
+  public long getRecordings() {
+    return this.recordings.sum();
+  }
+
+  @Override
+  public void reset() {
+    this.histograms.clear();
+    this.recordings.reset();
+  }
+
+  /**
+   * Identifier of a histogram
+   */
+  private static final class Key {
+
+    private final String environment;
+    private final String corner;
+    private final String analysis;
+    private final SimulationPhase phase;
+
+    private Key(final String environment, final String corner,
+        final String analysis, final SimulationPhase phase) {
+      this.environment = environment;
+      this.corner = corner;
+      this.analysis = analysis;
+      this.phase = phase;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+
+      final Key other = (Key) obj;
+
+      return this.environment.equals(other.environment)
+          && Objects.equals(this.corner, other.corner)
+          && Objects.equals(this.analysis, other.analysis)
+          && (this.phase == other.phase);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(this.environment, this.corner, this.analysis,
+          this.phase);
+    }
+  }
+
+  /**
+   * Histogram of latencies with power-of-two buckets
+   */
+  private static final class Histogram {
+
+    private final AtomicLongArray buckets = new AtomicLongArray(64);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalTime = new LongAdder();
+    private final LongAccumulator maxTime = new LongAccumulator(Math::max, 0);
+
+    private void record(final long nanos) {
+
+      final long value = Math.max(0, nanos);
+
+      this.buckets.incrementAndGet(
+          value == 0 ? 0 : 63 - Long.numberOfLeadingZeros(value));
+      this.count.increment();
+      this.totalTime.add(value);
+      this.maxTime.accumulate(value);
+    }
+
+    private PhaseStatistics snapshot(final Key key) {
+
+      final long[] buckets = new long[this.buckets.length()];
+
+      for (int i = 0; i < buckets.length; i++) {
+        buckets[i] = this.buckets.get(i);
+      }
+
+      return new PhaseStatistics(key.environment, key.corner, key.analysis,
+          key.phase, this.count.sum(), this.totalTime.sum(),
+          this.maxTime.get(), buckets);
+    }
+  }
+}
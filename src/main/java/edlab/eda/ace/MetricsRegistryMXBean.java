@@ -0,0 +1,28 @@
+package edlab.eda.ace;
+
+import java.util.List;
+
+/**
+ * Management interface of a {@link MetricsRegistry} that is exported via JMX
+ */
+public interface MetricsRegistryMXBean {
+
+  /**
+   * Get a snapshot of the statistics of all recorded phases
+   * 
+   * @return list of statistics
+   */
+  List<PhaseStatistics> getStatistics();
+
+  /**
+   * Get the number of recorded phases
+   * 
+   * @return number of recorded phases
+   */
+  long getRecordings();
+
+  /**
+   * Discard all recorded phases
+   */
+  void reset();
+}
@@ -2,9 +2,8 @@ package edlab.eda.ace;
 
 import java.io.File;
 import java.nio.file.Files;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
@@ -28,9 +27,9 @@ public final class Nand4Environment extends AnalogCircuitEnvironment {
 
   public static final String DC3 = "dc3";
 
-  protected Nand4Environment(final SpectreFactory factory,
+  protected Nand4Environment(final SimulatorBackend backend,
       final JSONObject jsonObject, final File dir, final File[] includeDirs) {
-    super(factory, jsonObject, dir, includeDirs);
+    super(backend, jsonObject, dir, includeDirs);
   }
 
   /**
@@ -69,6 +68,27 @@ public final class Nand4Environment extends AnalogCircuitEnvironment {
 
     factory.setWatchogTimeout(10, TimeUnit.SECONDS);
 
+    return get(new SpectreBackend(factory), circuitDir, includeDirs);
+  }
+
+  /**
+   * Get a new environment for a NAND-gate with 4 inputs that simulates with
+   * the given backend
+   * 
+   * @param backend     Simulator backend
+   * @param circuitDir  Directory that contains all information of the circuit.
+   *                    The directory contains the files "input.scs" and
+   *                    "properties.json".
+   * @param includeDirs Array of include directories for simulation. These
+   *                    include directories typically reference the model files
+   *                    from the PDK.
+   * 
+   * @return object of {@link Nand4Environment} when all parameters are valid,
+   *         <code>null</code> otherwise
+   */
+  public static Nand4Environment get(final SimulatorBackend backend,
+      final String circuitDir, final String[] includeDirs) {
+
     final File circuitDirFile = new File(circuitDir);
 
     if (!(circuitDirFile.exists() && circuitDirFile.isDirectory()
@@ -117,86 +137,55 @@ public final class Nand4Environment extends AnalogCircuitEnvironment {
       includeDirFiles[i] = includeDir;
     }
 
-    return new Nand4Environment(factory, jsonObj, circuitDirFile,
+    return new Nand4Environment(backend, jsonObj, circuitDirFile,
         includeDirFiles);
   }
 
   @Override
-  public AnalogCircuitEnvironment simulate(final Set<String> blacklistAnalyses,
-      final Set<String> corners) {
-
-    super.simulate(blacklistAnalyses, corners);
-
-    this.performanceValues = new HashMap<>();
+  protected void extract(final String corner, final List<NutmegPlot> plots,
+      final Map<String, Double> values, final Set<String> blacklistAnalyses,
+      final PerformanceVector performanceValues) {
 
-    List<NutmegPlot> plots;
-    int resultIdentifier;
-    HashMap<String, Double> performanceValues;
+    final double vdd = values.get("vdd");
 
-    double vdd = this.parameterValues.get("vdd");
+    int resultIdentifier = 0;
 
-    for (final String corner : corners) {
+    RealResultsDatabase rdb;
 
-      resultIdentifier = 0;
-      plots = this.sessions.get(corner).getPlots();
-      performanceValues = new HashMap<>();
+    if (!blacklistAnalyses.contains(DC0)) {
 
-      RealResultsDatabase rdb;
+      rdb = RealResultsDatabase.buildResultDatabase(
+          (NutmegRealPlot) plots.get(resultIdentifier++));
 
-      if (!blacklistAnalyses.contains(DC0)) {
-
-        rdb = RealResultsDatabase.buildResultDatabase(
-            (NutmegRealPlot) plots.get(resultIdentifier++));
-
-        performanceValues.put("vs0",
-            rdb.getRealWaveform("O").cross(vdd / 2, 1).getValue());
-      }
-
-      if (!blacklistAnalyses.contains(DC1)) {
-
-        rdb = RealResultsDatabase.buildResultDatabase(
-            (NutmegRealPlot) plots.get(resultIdentifier++));
-
-        performanceValues.put("vs1",
-            rdb.getRealWaveform("O").cross(vdd / 2, 1).getValue());
-      }
+      performanceValues.put("vs0",
+          rdb.getRealWaveform("O").cross(vdd / 2, 1).getValue());
+    }
 
-      if (!blacklistAnalyses.contains(DC2)) {
+    if (!blacklistAnalyses.contains(DC1)) {
 
-        rdb = RealResultsDatabase.buildResultDatabase(
-            (NutmegRealPlot) plots.get(resultIdentifier++));
+      rdb = RealResultsDatabase.buildResultDatabase(
+          (NutmegRealPlot) plots.get(resultIdentifier++));
 
-        performanceValues.put("vs2",
-            rdb.getRealWaveform("O").cross(vdd / 2, 1).getValue());
-      }
-
-      if (!blacklistAnalyses.contains(DC3)) {
+      performanceValues.put("vs1",
+          rdb.getRealWaveform("O").cross(vdd / 2, 1).getValue());
+    }
 
-        rdb = RealResultsDatabase.buildResultDatabase(
-            (NutmegRealPlot) plots.get(resultIdentifier++));
+    if (!blacklistAnalyses.contains(DC2)) {
 
-        performanceValues.put("vs3",
-            rdb.getRealWaveform("O").cross(vdd / 2, 1).getValue());
-      }
+      rdb = RealResultsDatabase.buildResultDatabase(
+          (NutmegRealPlot) plots.get(resultIdentifier++));
 
-      this.performanceValues.put(corner, performanceValues);
+      performanceValues.put("vs2",
+          rdb.getRealWaveform("O").cross(vdd / 2, 1).getValue());
     }
 
-    return this;
-  }
+    if (!blacklistAnalyses.contains(DC3)) {
 
-  @Override
-  public AnalogCircuitEnvironment simulate(
-      final Set<String> blacklistAnalyses) {
-    final HashSet<String> corners = new HashSet<>();
-    corners.add(this.nomCorner);
-    return this.simulate(blacklistAnalyses, corners);
-  }
+      rdb = RealResultsDatabase.buildResultDatabase(
+          (NutmegRealPlot) plots.get(resultIdentifier++));
 
-  @Override
-  public AnalogCircuitEnvironment simulate() {
-    final HashSet<String> corners = new HashSet<>();
-    corners.add(this.nomCorner);
-    return this.simulate(new HashSet<String>(), corners);
+      performanceValues.put("vs3",
+          rdb.getRealWaveform("O").cross(vdd / 2, 1).getValue());
+    }
   }
-}
\ No newline at end of file
+}
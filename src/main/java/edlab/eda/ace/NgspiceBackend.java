@@ -0,0 +1,491 @@
+package edlab.eda.ace;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import edlab.eda.reader.nutmeg.NutReader;
+import edlab.eda.reader.nutmeg.NutmegPlot;
+
+/**
+ * Backend that simulates with ngspice in batch mode. Since ngspice cannot
+ * read Spectre netlists, each corner netlist (e.g. "input.scs") needs an
+ * ngspice counterpart with the extension {@value #NETLIST_EXTENSION} (e.g.
+ * "input.spice") in the same directory. The netlist contains the circuit
+ * and the parameters as <code>.param</code> statements, but no analyses.
+ * The analyses are declared in comment lines of the form
+ * 
+ * <pre>
+ * *ace dc1 dc vid -0.9 0.9 0.01
+ * *ace dc1 let OUT = v(out)
+ * </pre>
+ * 
+ * where the first token is the name of the analysis in the properties of
+ * the environment and the remainder is a command of an ngspice control
+ * section. The first line of an analysis starts the simulation, further lines
+ * compute the signals that are read by the extraction. The analyses are
+ * simulated in the order of their declaration. Analyses that are not
+ * available in ngspice (e.g. <code>stb</code> or <code>dcmatch</code>) are
+ * not declared and are ignored by the environment.
+ * <p>
+ * Each run starts a new ngspice process, hence the number of concurrent
+ * simulations is only bounded by the license budget of the environment.
+ */
+public final class NgspiceBackend implements SimulatorBackend {
+
+  /**
+   * Extension of ngspice netlists
+   */
+  public static final String NETLIST_EXTENSION = ".spice";
+
+  /**
+   * Prefix of comment lines that declare analyses
+   */
+  public static final String ANALYSIS_PREFIX = "*ace";
+
+  /**
+   * Name of the logfile in the working directory of a session
+   */
+  public static final String LOG_FILENAME = "ngspice.out";
+
+  private static final String DECK_FILENAME = "deck.cir";
+  private static final String INIT_FILENAME = ".spiceinit";
+  private static final String RAW_EXTENSION = ".raw";
+
+  private final File simDir;
+  private final String executable;
+  private final AtomicLong sessionCounter = new AtomicLong();
+
+  private volatile long timeout = TimeUnit.MINUTES.toNanos(1);
+
+  private NgspiceBackend(final File simDir, final String executable) {
+    this.simDir = simDir;
+    this.executable = executable;
+  }
+
+  /**
+   * Get a backend that uses the executable "ngspice" from the path
+   * 
+   * @param simDir Directory where simulation results are stored
+   * @return backend when ngspice is accessible, <code>null</code> otherwise
+   */
+  public static NgspiceBackend get(final String simDir) {
+    return get(simDir, "ngspice");
+  }
+
+  /**
+   * Get a backend
+   * 
+   * @param simDir     Directory where simulation results are stored
+   * @param executable path to the executable of ngspice
+   * @return backend when ngspice is accessible, <code>null</code> otherwise
+   */
+  public static NgspiceBackend get(final String simDir,
+      final String executable) {
+
+    final File simDirFile = new File(simDir);
+
+    if (!(simDirFile.exists() && simDirFile.isDirectory()
+        && simDirFile.canRead() && simDirFile.canWrite())) {
+
+      System.err
+          .println("Cannot write simulation results to \"" + simDir + "\"");
+      return null;
+    }
+
+    try {
+
+      final Process process = new ProcessBuilder(executable, "--version")
+          .redirectErrorStream(true).start();
+
+      if (!process.waitFor(10, TimeUnit.SECONDS)) {
+        process.destroyForcibly();
+        System.err.println("Unable to access simulator ngspice");
+        return null;
+      }
+
+    } catch (final IOException e) {
+      System.err.println("Unable to access simulator ngspice");
+      return null;
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return null;
+    }
+
+    return new NgspiceBackend(simDirFile, executable);
+  }
+
+  /**
+   * Set the timeout of a single run. A run that exceeds the timeout is
+   * stopped and does not return results.
+   * 
+   * @param duration timeout
+   * @param unit     unit of the timeout
+   * @return this when the timeout is valid, <code>null</code> otherwise
+   */
+  public NgspiceBackend setTimeout(final long duration, final TimeUnit unit) {
+
+    if (duration <= 0) {
+      System.err.println("Timeout must be positive");
+      return null;
+    }
+
+    this.timeout = unit.toNanos(duration);
+    return this;
+  }
+
+  @Override
+  public String getIdentifier() {
+    return NgspiceBackend.class.getName() + ":" + this.executable;
+  }
+
+  @Override
+  public SimulatorSession createSession(final String name, final File netlist,
+      final File[] includeDirs) {
+
+    final File workingDir = new File(this.simDir,
+        name + "_" + this.sessionCounter.incrementAndGet());
+
+    workingDir.mkdirs();
+
+    return new NgspiceSession(this, workingDir, getSpiceNetlist(netlist),
+        includeDirs);
+  }
+
+  @Override
+  public Set<String> getSupportedAnalyses(final File netlist) {
+
+    try {
+      return readAnalyses(getSpiceNetlist(netlist)).keySet();
+    } catch (final IOException e) {
+      // the failure is reported by the first run
+      return null;
+    }
+  }
+
+  /**
+   * Get the ngspice counterpart of a netlist
+   * 
+   * @param netlist Spectre netlist
+   * @return ngspice netlist
+   */
+  private static File getSpiceNetlist(final File netlist) {
+
+    final String fileName = netlist.getName();
+    final int extension = fileName.lastIndexOf('.');
+
+    return new File(netlist.getParentFile(),
+        (extension < 0 ? fileName : fileName.substring(0, extension))
+            + NETLIST_EXTENSION);
+  }
+
+  /**
+   * Read the analyses that are declared in a netlist
+   * 
+   * @param netlist netlist
+   * @return map where the key corresponds to the name of the analysis and the
+   *         value to the commands of the analysis
+   * @throws IOException when the netlist cannot be read
+   */
+  static Map<String, List<String>> readAnalyses(final File netlist)
+      throws IOException {
+
+    final Map<String, List<String>> retval = new LinkedHashMap<>();
+
+    String[] tokens;
+
+    for (final String line : Files.readAllLines(netlist.toPath(),
+        StandardCharsets.UTF_8)) {
+
+      if (!line.startsWith(ANALYSIS_PREFIX + " ")) {
+        continue;
+      }
+
+      tokens = line.substring(ANALYSIS_PREFIX.length()).trim().split("\\s+",
+          2);
+
+      if (tokens.length == 2) {
+        retval.computeIfAbsent(tokens[0], (key) -> new ArrayList<>())
+            .add(tokens[1]);
+      }
+    }
+
+    return retval;
+  }
+
+  /**
+   * Session of a {@link NgspiceBackend}
+   */
+  private static final class NgspiceSession implements SimulatorSession {
+
+    private final NgspiceBackend backend;
+    private final File workingDir;
+    private final File netlist;
+    private final File[] includeDirs;
+
+    private final Map<String, Object> values = new HashMap<>();
+    private Set<String> blacklistAnalyses = new HashSet<>();
+    private List<NutmegPlot> plots = Collections.emptyList();
+
+    private Map<String, List<String>> analyses = null;
+    private volatile Process process = null;
+
+    private NgspiceSession(final NgspiceBackend backend, final File workingDir,
+        final File netlist, final File[] includeDirs) {
+      this.backend = backend;
+      this.workingDir = workingDir;
+      this.netlist = netlist;
+      this.includeDirs = includeDirs;
+    }
+
+    @Override
+    public String getWorkingDir() {
+      return this.workingDir.toString();
+    }
+
+    @Override
+    public File getLogFile() {
+      return new File(this.workingDir, LOG_FILENAME);
+    }
+
+    @Override
+    public void setParentThread(final Thread parentThread) {
+    }
+
+    @Override
+    public boolean start() {
+
+      if (this.analyses != null) {
+        return true;
+      }
+
+      try {
+
+        this.analyses = readAnalyses(this.netlist);
+        this.writeInit();
+
+        return true;
+
+      } catch (final IOException e) {
+        System.err.println("Cannot read netlist \"" + this.netlist + "\"");
+        return false;
+      }
+    }
+
+    @Override
+    public void stop() {
+
+      final Process process = this.process;
+
+      if (process != null) {
+        process.destroyForcibly();
+      }
+    }
+
+    @Override
+    public long getGeneration() {
+      // the values are written to the input of each run
+      return 0;
+    }
+
+    @Override
+    public boolean setValueAttribute(final String name, final Object value) {
+      this.values.put(name, value);
+      return true;
+    }
+
+    @Override
+    public void setValueAttributes(final Map<String, Object> values) {
+      this.values.putAll(values);
+    }
+
+    @Override
+    public void setBlacklistAnalyses(final Set<String> blacklistAnalyses) {
+      this.blacklistAnalyses = new HashSet<>(blacklistAnalyses);
+    }
+
+    @Override
+    public void run() {
+
+      this.plots = new ArrayList<>();
+
+      if (!this.start()) {
+        return;
+      }
+
+      final List<String> analyses = new ArrayList<>();
+
+      for (final String analysis : this.analyses.keySet()) {
+        if (!this.blacklistAnalyses.contains(analysis)) {
+          analyses.add(analysis);
+          new File(this.workingDir, analysis + RAW_EXTENSION).delete();
+        }
+      }
+
+      Process process = null;
+
+      try {
+
+        this.writeDeck(analyses);
+
+        process = new ProcessBuilder(this.backend.executable, "-b",
+            DECK_FILENAME).directory(this.workingDir)
+                .redirectErrorStream(true).redirectOutput(this.getLogFile())
+                .start();
+
+        this.process = process;
+
+        if (!process.waitFor(this.backend.timeout, TimeUnit.NANOSECONDS)) {
+          process.destroyForcibly();
+        }
+
+      } catch (final IOException e) {
+        return;
+      } catch (final InterruptedException e) {
+        process.destroyForcibly();
+        Thread.currentThread().interrupt();
+        return;
+      } finally {
+        this.process = null;
+      }
+
+      // analyses without results are reported as missing by the environment
+      for (final String analysis : analyses) {
+        this.plots.addAll(this.readPlots(analysis));
+      }
+    }
+
+    /**
+     * Write the search path of include files
+     * 
+     * @throws IOException when the file cannot be written
+     */
+    private void writeInit() throws IOException {
+
+      try (PrintWriter writer = new PrintWriter(
+          new File(this.workingDir, INIT_FILENAME), "UTF-8")) {
+
+        writer.print("set sourcepath = ( \"" + this.netlist.getParent() + "\"");
+
+        for (final File includeDir : this.includeDirs) {
+          writer.print(" \"" + includeDir.getAbsolutePath() + "\"");
+        }
+
+        writer.println(" )");
+      }
+    }
+
+    /**
+     * Write the deck of a run, i.e., the netlist, the parameter values and
+     * the analyses
+     * 
+     * @param analyses analyses to be simulated
+     * @throws IOException when the deck cannot be written
+     */
+    private void writeDeck(final List<String> analyses) throws IOException {
+
+      try (PrintWriter writer = new PrintWriter(
+          new File(this.workingDir, DECK_FILENAME), "UTF-8")) {
+
+        writer.println("* " + this.workingDir.getName());
+        writer.println(".include \"" + this.netlist.getAbsolutePath() + "\"");
+        writer.println(".control");
+        writer.println("set filetype=ascii");
+
+        for (final Entry<String, Object> entry : this.values.entrySet()) {
+          writer.println("alterparam " + entry.getKey() + " = "
+              + entry.getValue());
+        }
+
+        writer.println("reset");
+
+        for (final String analysis : analyses) {
+
+          for (final String command : this.analyses.get(analysis)) {
+            writer.println(command);
+          }
+
+          writer.println("write " + analysis + RAW_EXTENSION + " all");
+          writer.println("destroy all");
+        }
+
+        writer.println("quit");
+        writer.println(".endc");
+        writer.println(".end");
+      }
+    }
+
+    /**
+     * Read the plots of an analysis. The name of the analysis is appended to
+     * the plotnames in the same way as in the results of Spectre, such that
+     * the plots can be assigned to the analysis.
+     * 
+     * @param analysis name of the analysis
+     * @return list of plots, empty when the analysis did not return results
+     */
+    private List<NutmegPlot> readPlots(final String analysis) {
+
+      final File raw = new File(this.workingDir, analysis + RAW_EXTENSION);
+
+      if (!raw.isFile()) {
+        return Collections.emptyList();
+      }
+
+      try {
+
+        final List<String> lines = Files.readAllLines(raw.toPath(),
+            StandardCharsets.US_ASCII);
+
+        for (int i = 0; i < lines.size(); i++) {
+          if (lines.get(i).startsWith("Plotname:")) {
+            lines.set(i, lines.get(i) + " `" + analysis + "'");
+          }
+        }
+
+        Files.write(raw.toPath(), lines, StandardCharsets.US_ASCII);
+
+        final List<NutmegPlot> plots = NutReader
+            .getNutasciiReader(raw.toString()).read().parse().getPlots();
+
+        if (plots == null) {
+          return Collections.emptyList();
+        }
+
+        return plots;
+
+      } catch (final IOException | RuntimeException e) {
+        return Collections.emptyList();
+      }
+    }
+
+    @Override
+    public List<NutmegPlot> getPlots() {
+      return this.plots;
+    }
+
+    @Override
+    public double getNumericValueAttribute(final String name) {
+
+      final Object value = this.values.get(name);
+
+      if (value instanceof Number) {
+        return ((Number) value).doubleValue();
+      }
+
+      return Double.NaN;
+    }
+  }
+}
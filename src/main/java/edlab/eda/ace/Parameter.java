@@ -3,7 +3,7 @@ package edlab.eda.ace;
 import java.math.BigDecimal;
 import java.math.MathContext;
 import java.math.RoundingMode;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 import org.json.JSONObject;
 
@@ -13,6 +13,23 @@ import org.json.JSONObject;
  */
 public final class Parameter {
 
+  private static final double SPLITTER = 134217729.0; // 2^27 + 1
+  private static final double LOG10_2 = 0.30102999566398120;
+  private static final double TIE_TOLERANCE = 1e-6;
+  private static final double STEPS_ERROR = 8.0;
+  private static final double MAX_STEPS = 1e12;
+  private static final double MIN_NORMAL_RESULT = 1e-290;
+  private static final long MAX_EXACT_LONG = 1L << 53;
+  private static final int MAX_EXACT_POW10 = 22;
+  private static final double[] POW10 = new double[MAX_EXACT_POW10 + 1];
+
+  static {
+    POW10[0] = 1.0;
+    for (int i = 1; i < POW10.length; i++) {
+      POW10[i] = POW10[i - 1] * 10.0;
+    }
+  }
+
   private final String name;
   private double min = Double.MIN_VALUE;
   private double max = Double.MAX_VALUE;
@@ -162,66 +179,258 @@ public final class Parameter {
 
     if (this.isSizingParameter()) {
 
-      if (value < this.min) {
-        value = this.min;
-      }
+      value = this.clip(value);
 
-      if (value > this.max) {
-        value = this.max;
+      if (!Double.isNaN(this.grid)) {
+        value = this.clip(this.snap(value));
       }
+    }
 
-      if (this.grid != Double.NaN) {
+    return value;
+  }
 
-        value = new BigDecimal(value)
-            .subtract(new BigDecimal(this.min))
-            .divide(new BigDecimal(this.grid),
-                RoundingMode.HALF_DOWN)
-            .setScale(0, RoundingMode.HALF_DOWN)
-            .multiply(new BigDecimal(this.grid))
-            .add(new BigDecimal(this.min))
-            .round(MathContext.DECIMAL64).doubleValue();
-      }
+  /**
+   * Reference implementation of {@link #getValidValue(double)} that pushes
+   * the value on the grid with arbitrary-precision arithmetic
+   * 
+   * @param value Value to be used
+   * @return value that is valid
+   */
+  double getValidValueExact(double value) {
 
-      if (value > this.max) {
-        value = this.max;
-      }
+    if (this.isSizingParameter()) {
+
+      value = this.clip(value);
 
-      if (value < this.min) {
-        value = this.min;
+      if (!Double.isNaN(this.grid)) {
+        value = this.clip(this.snapExact(value));
       }
     }
 
     return value;
   }
 
+  private double clip(double value) {
+
+    if (value < this.min) {
+      value = this.min;
+    }
+
+    if (value > this.max) {
+      value = this.max;
+    }
+
+    return value;
+  }
+
   /**
-   * Get a random value of the parameter
+   * Push a value on the grid. The number of grid steps is rounded half down
+   * and the resulting value is rounded to 16 significant decimal digits, i.e.,
+   * the result is identical to {@link #snapExact(double)}. The computation is
+   * carried out in double-double arithmetic. When the result is too close to
+   * a rounding boundary to be decided reliably, the computation falls back to
+   * {@link #snapExact(double)}.
    * 
-   * @return random value
+   * @param value value in the range of the parameter
+   * @return value on the grid
    */
-  public double getRandom() {
+  private double snap(final double value) {
 
-    if (this.sizing) {
+    final double steps = (value - this.min) / this.grid;
+
+    if (!(Math.abs(steps) < MAX_STEPS)) {
+      return this.snapExact(value);
+    }
+
+    final double floor = Math.floor(steps);
+    final double fraction = steps - floor;
+
+    // the subtraction and the division are rounded, i.e., the error of the
+    // number of steps grows with its magnitude
+    if (Math.abs(fraction - 0.5) < Math.max(TIE_TOLERANCE,
+        STEPS_ERROR * Math.ulp(steps))) {
+      return this.snapExact(value);
+    }
+
+    final double n = fraction < 0.5 ? floor : floor + 1.0;
+
+    // x = n * grid + min as unevaluated sum hi + lo
+    final double product = n * this.grid;
+    double hi = product + this.min;
+    double lo = productError(n, this.grid, product)
+        + sumError(product, this.min, hi);
+
+    final double x = hi + lo;
+
+    if (x == 0.0) {
+      return 0.0;
+    }
+
+    if (!(Math.abs(x) > MIN_NORMAL_RESULT) || Double.isInfinite(x)) {
+      return this.snapExact(value);
+    }
+
+    final long sign = x < 0.0 ? -1 : 1;
+
+    if (sign < 0) {
+      hi = -hi;
+      lo = -lo;
+    }
 
-      final Random r = new Random();
+    // scale x by 10^k such that 10^15 <= |x| * 10^k < 10^16, the estimate of
+    // the decimal exponent is corrected below
+    int k = 15 - (int) Math.floor(Math.getExponent(x) * LOG10_2);
 
-      if (this.grid == Double.NaN) {
+    double scaledHi = 0;
+    double scaledLo = 0;
+    boolean scaled = false;
 
-        return this.min + ((this.max - this.min) * r.nextDouble());
+    for (int attempt = 0; (attempt < 3) && !scaled; attempt++) {
 
-      } else if (this.max > this.min) {
+      if ((k < 0) || (k > (2 * MAX_EXACT_POW10))) {
+        return this.snapExact(value);
+      }
+
+      scaledHi = hi;
+      scaledLo = lo;
+
+      for (int remaining = k; remaining > 0; remaining -= MAX_EXACT_POW10) {
 
-        final int i = r
-            .nextInt((int) Math.round((this.max - this.min) / this.grid));
+        final double pow = POW10[Math.min(remaining, MAX_EXACT_POW10)];
+        final double p = scaledHi * pow;
+        final double e = productError(scaledHi, pow, p) + (scaledLo * pow);
 
-        return this.min + (this.grid * i);
+        scaledHi = p + e;
+        scaledLo = e - (scaledHi - p);
+      }
 
+      // the low part decides when the high part is rounded onto a bound
+      if (((scaledHi - 1e15) + scaledLo) < 0.0) {
+        k++;
+      } else if (((scaledHi - 1e16) + scaledLo) >= 0.0) {
+        k--;
       } else {
-        return this.min;
+        scaled = true;
       }
+    }
 
+    if (!scaled) {
+      return this.snapExact(value);
+    }
+
+    // round to an integer, the digits are only exact in a long
+    final double floorHi = Math.floor(scaledHi);
+    double remainder = (scaledHi - floorHi) + scaledLo;
+    final double carry = Math.floor(remainder);
+    remainder -= carry;
+
+    if (Math.abs(remainder - 0.5) < TIE_TOLERANCE) {
+      return this.snapExact(value);
+    }
+
+    long mantissa = (long) floorHi + (long) carry + (remainder > 0.5 ? 1 : 0);
+
+    while ((k >= 8) && ((mantissa % 100000000L) == 0)) {
+      mantissa /= 100000000L;
+      k -= 8;
+    }
+
+    while ((k > 0) && ((mantissa % 10) == 0)) {
+      mantissa /= 10;
+      k--;
+    }
+
+    // the division is rounded correctly only when both operands are exact
+    if ((k > MAX_EXACT_POW10) || (mantissa > MAX_EXACT_LONG)) {
+      return this.snapExact(value);
+    }
+
+    return (sign * mantissa) / POW10[k];
+  }
+
+  /**
+   * Push a value on the grid with arbitrary-precision arithmetic
+   * 
+   * @param value value in the range of the parameter
+   * @return value on the grid
+   */
+  private double snapExact(final double value) {
+    return new BigDecimal(value).subtract(new BigDecimal(this.min))
+        .divide(new BigDecimal(this.grid), RoundingMode.HALF_DOWN)
+        .setScale(0, RoundingMode.HALF_DOWN)
+        .multiply(new BigDecimal(this.grid)).add(new BigDecimal(this.min))
+        .round(MathContext.DECIMAL64).doubleValue();
+  }
+
+  /**
+   * Rounding error of a product of two doubles (Dekker)
+   * 
+   * @param a       first factor
+   * @param b       second factor
+   * @param product rounded product of <code>a</code> and <code>b</code>
+   * @return error, i.e., <code>a*b-product</code>
+   */
+  private static double productError(final double a, final double b,
+      final double product) {
+
+    double c = SPLITTER * a;
+    final double aHi = c - (c - a);
+    final double aLo = a - aHi;
+
+    c = SPLITTER * b;
+    final double bHi = c - (c - b);
+    final double bLo = b - bHi;
+
+    return (((aHi * bHi) - product) + (aHi * bLo) + (aLo * bHi))
+        + (aLo * bLo);
+  }
+
+  /**
+   * Rounding error of a sum of two doubles (Knuth)
+   * 
+   * @param a   first summand
+   * @param b   second summand
+   * @param sum rounded sum of <code>a</code> and <code>b</code>
+   * @return error, i.e., <code>a+b-sum</code>
+   */
+  private static double sumError(final double a, final double b,
+      final double sum) {
+    final double bVirtual = sum - a;
+    return (a - (sum - bVirtual)) + (b - bVirtual);
+  }
+
+  /**
+   * Get a random value of the parameter
+   * 
+   * @return random value
+   */
+  public double getRandom() {
+
+    if (this.sizing) {
+      return this.fromUnit(ThreadLocalRandom.current().nextDouble());
     } else {
       return Double.NaN;
     }
   }
-}
\ No newline at end of file
+
+  /**
+   * Map a value from the unit interval to a valid value of the parameter.
+   * When the parameter has a grid, all points of the grid in the range of the
+   * parameter are mapped to sub-intervals of equal size.
+   * 
+   * @param unit value in the range <code>[0,1)</code>
+   * @return valid value
+   */
+  double fromUnit(final double unit) {
+
+    if (Double.isNaN(this.grid) || !(this.max > this.min)) {
+      return this.getValidValue(this.min + ((this.max - this.min) * unit));
+    }
+
+    final double levels = Math
+        .floor(((this.max - this.min) / this.grid) + TIE_TOLERANCE) + 1.0;
+
+    return this.getValidValue(this.min
+        + (this.grid * Math.min(Math.floor(unit * levels), levels - 1.0)));
+  }
+}
@@ -0,0 +1,134 @@
+package edlab.eda.ace;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Map view on parameter values that are stored in an array. The order of the
+ * values is defined by the parameter order of the environment. Optionally,
+ * additional values (e.g. netlist attributes) are appended to the view.
+ */
+final class ParameterMap extends AbstractMap<String, Double> {
+
+  private final String[] names;
+  private final Map<String, Integer> index;
+  private final double[] values;
+  private final Map<String, Double> attributes;
+
+  /**
+   * Create a new view
+   * 
+   * @param names      names of the parameters in the parameter order
+   * @param index      map from the name of a parameter to its position
+   * @param values     array of parameter values
+   * @param attributes additional values, <code>null</code> when there are no
+   *                   additional values
+   */
+  ParameterMap(final String[] names, final Map<String, Integer> index,
+      final double[] values, final Map<String, Double> attributes) {
+    this.names = names;
+    this.index = index;
+    this.values = values;
+
+    if (attributes == null) {
+      this.attributes = Collections.emptyMap();
+    } else {
+      this.attributes = attributes;
+    }
+  }
+
+  @Override
+  public Double get(final Object key) {
+
+    final Integer position = this.index.get(key);
+
+    if (position == null) {
+      return this.attributes.get(key);
+    }
+
+    return this.values[position];
+  }
+
+  @Override
+  public boolean containsKey(final Object key) {
+    return this.index.containsKey(key) || this.attributes.containsKey(key);
+  }
+
+  /**
+   * Overwrite the value of a parameter. The value is not pushed on the grid
+   * of the parameter.
+   */
+  @Override
+  public Double put(final String key, final Double value) {
+
+    final Integer position = this.index.get(key);
+
+    if (position == null) {
+      throw new UnsupportedOperationException(
+          "\"" + key + "\" is not a parameter");
+    }
+
+    final double retval = this.values[position];
+    this.values[position] = value;
+
+    return retval;
+  }
+
+  @Override
+  public int size() {
+    return this.names.length + this.attributes.size();
+  }
+
+  @Override
+  public Set<Entry<String, Double>> entrySet() {
+
+    return new AbstractSet<Entry<String, Double>>() {
+
+      @Override
+      public Iterator<Entry<String, Double>> iterator() {
+
+        return new Iterator<Entry<String, Double>>() {
+
+          private int next = 0;
+          private final Iterator<Entry<String, Double>> attributes = ParameterMap.this.attributes
+              .entrySet().iterator();
+
+          @Override
+          public boolean hasNext() {
+            return (this.next < ParameterMap.this.names.length)
+                || this.attributes.hasNext();
+          }
+
+          @Override
+          public Entry<String, Double> next() {
+
+            if (this.next < ParameterMap.this.names.length) {
+
+              final int position = this.next++;
+
+              return new SimpleImmutableEntry<>(
+                  ParameterMap.this.names[position],
+                  ParameterMap.this.values[position]);
+            }
+
+            if (!this.attributes.hasNext()) {
+              throw new NoSuchElementException();
+            }
+
+            return this.attributes.next();
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return ParameterMap.this.size();
+      }
+    };
+  }
+}
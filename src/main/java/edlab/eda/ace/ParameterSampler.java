@@ -0,0 +1,359 @@
+package edlab.eda.ace;
+
+import java.util.SplittableRandom;
+
+/**
+ * Seedable generator of space-filling designs for the sizing parameters of an
+ * {@link AnalogCircuitEnvironment}. Each point of a design is a vector of
+ * parameter values in the order of
+ * {@link AnalogCircuitEnvironment#getParameterOrder()}. Sizing parameters are
+ * sampled in their range and pushed on their grid, all other parameters keep
+ * the value they had when the sampler was created.
+ * <p>
+ * A sampler is not thread-safe. Parallel workers obtain their own sampler
+ * with {@link #split()}, which yields reproducible and statistically
+ * independent designs for a fixed seed.
+ */
+public final class ParameterSampler {
+
+  private static final int BITS = 32;
+  private static final double UNIT = 1.0 / (1L << BITS);
+
+  private final Parameter[] parameters;
+  private final double[] defaults;
+  private final int[] dimensions;
+  private final SplittableRandom random;
+
+  private final int[][] directions;
+  private final int[] shift;
+  private final int[] sobol;
+  private long sobolIndex = 0;
+
+  /**
+   * Create a new sampler
+   * 
+   * @param parameters parameters in the parameter order
+   * @param defaults   values of the parameters that are not sampled
+   * @param random     source of randomness
+   */
+  ParameterSampler(final Parameter[] parameters, final double[] defaults,
+      final SplittableRandom random) {
+
+    this.parameters = parameters;
+    this.defaults = defaults.clone();
+    this.random = random;
+
+    int count = 0;
+
+    for (final Parameter parameter : parameters) {
+      if (parameter.isSizingParameter()) {
+        count++;
+      }
+    }
+
+    this.dimensions = new int[count];
+
+    count = 0;
+
+    for (int i = 0; i < parameters.length; i++) {
+      if (parameters[i].isSizingParameter()) {
+        this.dimensions[count++] = i;
+      }
+    }
+
+    this.directions = new int[count][];
+    this.shift = new int[count];
+    this.sobol = new int[count];
+
+    this.initSobol();
+  }
+
+  /**
+   * Create a new sampler that is independent of this sampler. The new sampler
+   * is derived deterministically from the state of this sampler.
+   * 
+   * @return sampler
+   */
+  public ParameterSampler split() {
+    return new ParameterSampler(this.parameters, this.defaults,
+        this.random.split());
+  }
+
+  /**
+   * Get the number of sampled (sizing) parameters
+   * 
+   * @return number of dimensions
+   */
+  public int getDimensions() {
+    return this.dimensions.length;
+  }
+
+  /**
+   * Create a design of uniformly distributed random points
+   * 
+   * @param n number of points
+   * @return array of <code>n</code> parameter vectors
+   */
+  public double[][] random(final int n) {
+
+    final double[][] retval = this.allocate(n);
+
+    for (int i = 0; i < n; i++) {
+      for (int d = 0; d < this.dimensions.length; d++) {
+        this.set(retval[i], d, this.random.nextDouble());
+      }
+    }
+
+    return retval;
+  }
+
+  /**
+   * Create a Latin-hypercube design, i.e., the range of every sizing
+   * parameter is divided into <code>n</code> strata of equal size and every
+   * stratum contains exactly one point.
+   * 
+   * @param n number of points
+   * @return array of <code>n</code> parameter vectors
+   */
+  public double[][] latinHypercube(final int n) {
+
+    final double[][] retval = this.allocate(n);
+    final int[] permutation = new int[n];
+
+    int j;
+    int tmp;
+
+    for (int d = 0; d < this.dimensions.length; d++) {
+
+      for (int i = 0; i < n; i++) {
+        permutation[i] = i;
+      }
+
+      for (int i = n - 1; i > 0; i--) {
+        j = this.random.nextInt(i + 1);
+        tmp = permutation[i];
+        permutation[i] = permutation[j];
+        permutation[j] = tmp;
+      }
+
+      for (int i = 0; i < n; i++) {
+        this.set(retval[i], d,
+            (permutation[i] + this.random.nextDouble()) / n);
+      }
+    }
+
+    return retval;
+  }
+
+  /**
+   * Create a design from a randomized Sobol sequence. Subsequent calls
+   * continue the sequence, i.e., the union of all designs of a sampler is
+   * again a prefix of the sequence. The sequence is randomized with random
+   * direction numbers and a random digital shift, such that samplers with
+   * different seeds or from {@link #split()} generate different sequences.
+   * 
+   * @param n number of points
+   * @return array of <code>n</code> parameter vectors
+   */
+  public double[][] sobol(final int n) {
+
+    final double[][] retval = this.allocate(n);
+
+    int bit;
+
+    for (int i = 0; i < n; i++) {
+
+      // Gray code order, only one direction number changes per point
+      if (this.sobolIndex > 0) {
+
+        bit = Long.numberOfTrailingZeros(this.sobolIndex);
+
+        if (bit >= BITS) {
+          throw new IllegalStateException("Sobol sequence is exhausted");
+        }
+
+        for (int d = 0; d < this.dimensions.length; d++) {
+          this.sobol[d] ^= this.directions[d][bit];
+        }
+      }
+
+      this.sobolIndex++;
+
+      for (int d = 0; d < this.dimensions.length; d++) {
+        this.set(retval[i], d,
+            ((this.sobol[d] ^ this.shift[d]) & 0xFFFFFFFFL) * UNIT);
+      }
+    }
+
+    return retval;
+  }
+
+  private double[][] allocate(final int n) {
+
+    if (n < 0) {
+      throw new IllegalArgumentException(
+          "Number of points must not be negative, but is " + n);
+    }
+
+    final double[][] retval = new double[n][];
+
+    for (int i = 0; i < n; i++) {
+      retval[i] = this.defaults.clone();
+    }
+
+    return retval;
+  }
+
+  private void set(final double[] point, final int dimension,
+      final double unit) {
+
+    final int index = this.dimensions[dimension];
+
+    point[index] = this.parameters[index].fromUnit(unit);
+  }
+
+  /**
+   * Compute the direction numbers of the Sobol sequence. The first dimension
+   * is the van der Corput sequence, dimension <code>d&gt;0</code> uses the
+   * <code>d</code>-th primitive polynomial over GF(2) and random odd initial
+   * direction numbers.
+   */
+  private void initSobol() {
+
+    long polynomial = 1;
+
+    for (int d = 0; d < this.directions.length; d++) {
+
+      final int[] m = new int[BITS];
+
+      this.shift[d] = this.random.nextInt();
+
+      if (d == 0) {
+
+        for (int k = 0; k < BITS; k++) {
+          m[k] = 1;
+        }
+
+      } else {
+
+        do {
+          polynomial++;
+        } while (!isPrimitive(polynomial));
+
+        final int degree = 63 - Long.numberOfLeadingZeros(polynomial);
+
+        for (int k = 0; k < Math.min(degree, BITS); k++) {
+          // odd number below 2^(k+1)
+          m[k] = (this.random.nextInt(1 << k) << 1) | 1;
+        }
+
+        for (int k = degree; k < BITS; k++) {
+
+          m[k] = m[k - degree] ^ (m[k - degree] << degree);
+
+          for (int j = 1; j < degree; j++) {
+            if (((polynomial >>> (degree - j)) & 1) != 0) {
+              m[k] ^= m[k - j] << j;
+            }
+          }
+        }
+      }
+
+      this.directions[d] = new int[BITS];
+
+      for (int k = 0; k < BITS; k++) {
+        this.directions[d][k] = m[k] << (BITS - 1 - k);
+      }
+    }
+  }
+
+  /**
+   * Identify whether a polynomial over GF(2) is primitive. The coefficients
+   * are encoded in the bits of the argument.
+   * 
+   * @param polynomial polynomial
+   * @return <code>true</code> when the polynomial is primitive,
+   *         <code>false</code> otherwise
+   */
+  static boolean isPrimitive(final long polynomial) {
+
+    final int degree = 63 - Long.numberOfLeadingZeros(polynomial);
+
+    if ((degree < 1) || (degree > 31) || ((polynomial & 1) == 0)) {
+      return false;
+    }
+
+    // the polynomial is primitive when x has the order 2^degree-1
+    final long order = (1L << degree) - 1;
+
+    if (powMod(order, polynomial, degree) != 1) {
+      return false;
+    }
+
+    long rest = order;
+
+    for (long factor = 2; (factor * factor) <= rest; factor++) {
+
+      if ((rest % factor) == 0) {
+
+        if (powMod(order / factor, polynomial, degree) == 1) {
+          return false;
+        }
+
+        while ((rest % factor) == 0) {
+          rest /= factor;
+        }
+      }
+    }
+
+    return (rest == 1) || (powMod(order / rest, polynomial, degree) != 1);
+  }
+
+  /**
+   * Compute <code>x^exponent mod polynomial</code> over GF(2)
+   */
+  private static long powMod(long exponent, final long polynomial,
+      final int degree) {
+
+    long result = 1;
+    long base = 2;
+
+    if (degree == 1) {
+      base = polynomial ^ 2;
+    }
+
+    while (exponent > 0) {
+
+      if ((exponent & 1) != 0) {
+        result = mulMod(result, base, polynomial, degree);
+      }
+
+      base = mulMod(base, base, polynomial, degree);
+      exponent >>>= 1;
+    }
+
+    return result;
+  }
+
+  private static long mulMod(long a, long b, final long polynomial,
+      final int degree) {
+
+    long result = 0;
+
+    while (b != 0) {
+
+      if ((b & 1) != 0) {
+        result ^= a;
+      }
+
+      b >>>= 1;
+      a <<= 1;
+
+      if (((a >>> degree) & 1) != 0) {
+        a ^= polynomial;
+      }
+    }
+
+    return result;
+  }
+}
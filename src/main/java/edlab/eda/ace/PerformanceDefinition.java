@@ -0,0 +1,75 @@
+package edlab.eda.ace;
+
+/**
+ * Immutable definition of a performance in the properties of an environment
+ */
+public final class PerformanceDefinition {
+
+  private final String identifier;
+  private final String analysis;
+  private final String reference;
+  private final Expression expression;
+  private final Extractor extractor;
+
+  PerformanceDefinition(final String identifier, final String analysis,
+      final String reference, final Expression expression,
+      final Extractor extractor) {
+    this.identifier = identifier;
+    this.analysis = analysis;
+    this.reference = reference;
+    this.expression = expression;
+    this.extractor = extractor;
+  }
+
+  /**
+   * Get the identifier of the performance
+   * 
+   * @return identifier
+   */
+  public String getIdentifier() {
+    return this.identifier;
+  }
+
+  /**
+   * Get the analysis the performance is extracted from
+   * 
+   * @return name of analysis
+   */
+  public String getAnalysis() {
+    return this.analysis;
+  }
+
+  /**
+   * Get the reference of the performance, i.e., the name of the value in the
+   * results of the analysis
+   * 
+   * @return reference, <code>null</code> when no reference is defined
+   */
+  public String getReference() {
+    return this.reference;
+  }
+
+  /**
+   * Get the measurement expression of the performance
+   * 
+   * @return expression, <code>null</code> when no expression is defined
+   */
+  public Expression getExpression() {
+    return this.expression;
+  }
+
+  /**
+   * Get the extractor of the performance
+   * 
+   * @return extractor, <code>null</code> when the performance is extracted by
+   *         the environment itself
+   */
+  public Extractor getExtractor() {
+    return this.extractor;
+  }
+
+  @Override
+  public String toString() {
+    return this.analysis + "." + this.identifier;
+  }
+}
@@ -0,0 +1,103 @@
+package edlab.eda.ace;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Read-only map view on the performances of a corner that are stored in an
+ * array. The view contains all performances of the schema, missing
+ * performances are <code>Double.NaN</code>.
+ */
+final class PerformanceMap extends AbstractMap<String, Double> {
+
+  private final PerformanceSchema schema;
+  private final double[] values;
+
+  PerformanceMap(final PerformanceSchema schema, final double[] values) {
+    this.schema = schema;
+    this.values = values;
+  }
+
+  @Override
+  public Double get(final Object key) {
+
+    final int index = this.schema.indexOf(key);
+
+    if (index < 0) {
+      return null;
+    }
+
+    return this.values[index];
+  }
+
+  @Override
+  public boolean containsKey(final Object key) {
+    return this.schema.indexOf(key) >= 0;
+  }
+
+  @Override
+  public Set<Entry<String, Double>> entrySet() {
+
+    return new AbstractSet<Entry<String, Double>>() {
+
+      @Override
+      public Iterator<Entry<String, Double>> iterator() {
+
+        return new Iterator<Entry<String, Double>>() {
+
+          private int next = 0;
+
+          @Override
+          public boolean hasNext() {
+            return this.next < PerformanceMap.this.values.length;
+          }
+
+          @Override
+          public Entry<String, Double> next() {
+
+            if (!this.hasNext()) {
+              throw new NoSuchElementException();
+            }
+
+            final int index = this.next++;
+
+            return new SimpleImmutableEntry<>(
+                PerformanceMap.this.schema.getIdentifier(index),
+                PerformanceMap.this.values[index]);
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return PerformanceMap.this.values.length;
+      }
+    };
+  }
+
+  /**
+   * Create a map of views for the performances of multiple corners
+   * 
+   * @param schema       schema of the performances
+   * @param performances map of arrays, the key corresponds to the name of the
+   *                     corner
+   * @return map of views, the key corresponds to the name of the corner
+   */
+  static Map<String, Map<String, Double>> of(final PerformanceSchema schema,
+      final Map<String, double[]> performances) {
+
+    final Map<String, Map<String, Double>> retval = new HashMap<>();
+
+    for (final Entry<String, double[]> entry : performances.entrySet()) {
+      retval.put(entry.getKey(),
+          new PerformanceMap(schema, entry.getValue()));
+    }
+
+    return retval;
+  }
+}
@@ -0,0 +1,113 @@
+package edlab.eda.ace;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable mapping of performance identifiers to fixed indices. The schema
+ * is built once from the performances of an environment and allows storing
+ * the performances of a corner in a plain <code>double[]</code>, where
+ * missing performances are represented by <code>Double.NaN</code>.
+ */
+public final class PerformanceSchema {
+
+  private final String[] identifiers;
+  private final Map<String, Integer> indices;
+
+  // identifiers that were reported as unknown
+  private final Set<String> unknown = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Create a new schema
+   * 
+   * @param identifiers set of performance identifiers. The identifiers are
+   *                    indexed in lexicographic order.
+   */
+  PerformanceSchema(final Set<String> identifiers) {
+
+    this.identifiers = identifiers.toArray(new String[identifiers.size()]);
+    Arrays.sort(this.identifiers);
+
+    this.indices = new HashMap<>();
+
+    for (int i = 0; i < this.identifiers.length; i++) {
+      this.indices.put(this.identifiers[i], i);
+    }
+  }
+
+  /**
+   * Get the number of performances in the schema
+   * 
+   * @return number of performances
+   */
+  public int size() {
+    return this.identifiers.length;
+  }
+
+  /**
+   * Get the index of a performance
+   * 
+   * @param identifier identifier of the performance
+   * @return index of the performance, <code>-1</code> when the performance is
+   *         not part of the schema
+   */
+  public int indexOf(final Object identifier) {
+
+    final Integer index = this.indices.get(identifier);
+
+    if (index == null) {
+      return -1;
+    }
+
+    return index;
+  }
+
+  /**
+   * Get the identifier of a performance
+   * 
+   * @param index index of the performance
+   * @return identifier of the performance
+   */
+  public String getIdentifier(final int index) {
+    return this.identifiers[index];
+  }
+
+  /**
+   * Get all identifiers in the order of their indices
+   * 
+   * @return list of identifiers
+   */
+  public List<String> getIdentifiers() {
+    return Collections.unmodifiableList(Arrays.asList(this.identifiers));
+  }
+
+  /**
+   * Mark an identifier that is not part of the schema as reported
+   * 
+   * @param identifier identifier
+   * @return <code>true</code> when the identifier was not reported before,
+   *         <code>false</code> otherwise
+   */
+  boolean reportUnknown(final String identifier) {
+    return this.unknown.add(identifier);
+  }
+
+  /**
+   * Create an array for the performances of a corner, where all performances
+   * are missing
+   * 
+   * @return array of <code>Double.NaN</code>
+   */
+  double[] newArray() {
+
+    final double[] retval = new double[this.identifiers.length];
+    Arrays.fill(retval, Double.NaN);
+
+    return retval;
+  }
+}
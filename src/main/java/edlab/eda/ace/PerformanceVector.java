@@ -0,0 +1,114 @@
+package edlab.eda.ace;
+
+/**
+ * Performances of a single corner that are extracted from a simulation. The
+ * values are stored in an array that is indexed by a
+ * {@link PerformanceSchema}.
+ */
+public final class PerformanceVector {
+
+  private final PerformanceSchema schema;
+  private final double[] values;
+
+  // analyses of a corner may be extracted concurrently
+  private volatile boolean corrupted = false;
+
+  PerformanceVector(final PerformanceSchema schema) {
+    this.schema = schema;
+    this.values = schema.newArray();
+  }
+
+  /**
+   * Set the value of a performance. Performances that are not part of the
+   * schema (i.e., neither declared in the properties of the environment nor
+   * an additional performance of the environment) cannot be stored and are
+   * reported once.
+   * 
+   * @param identifier identifier of the performance
+   * @param value      value of the performance
+   * @return <code>true</code> when the value was stored, <code>false</code>
+   *         when the performance is not part of the schema
+   */
+  public boolean put(final String identifier, final double value) {
+
+    final int index = this.schema.indexOf(identifier);
+
+    if (index < 0) {
+
+      if (this.schema.reportUnknown(identifier)) {
+        System.err.println("Performance \"" + identifier
+            + "\" is not declared in the properties and is ignored");
+      }
+
+      return false;
+    }
+
+    this.values[index] = value;
+
+    return true;
+  }
+
+  /**
+   * Set the value of a performance
+   * 
+   * @param index index of the performance in the schema
+   * @param value value of the performance
+   */
+  public void put(final int index, final double value) {
+    this.values[index] = value;
+  }
+
+  /**
+   * Get the value of a performance
+   * 
+   * @param identifier identifier of the performance
+   * @return value, <code>Double.NaN</code> when the value is not available
+   */
+  public double get(final String identifier) {
+
+    final int index = this.schema.indexOf(identifier);
+
+    if (index < 0) {
+      return Double.NaN;
+    }
+
+    return this.values[index];
+  }
+
+  /**
+   * Mark the performances as corrupted, e.g., when the results of an analysis
+   * are not available. The simulation is reported as corrupted by the
+   * environment.
+   */
+  public void setCorrupted() {
+    this.corrupted = true;
+  }
+
+  /**
+   * Identify whether the performances are corrupted
+   * 
+   * @return <code>true</code> when the performances are corrupted,
+   *         <code>false</code> otherwise
+   */
+  public boolean isCorrupted() {
+    return this.corrupted;
+  }
+
+  /**
+   * Get the schema of the vector
+   * 
+   * @return schema
+   */
+  public PerformanceSchema getSchema() {
+    return this.schema;
+  }
+
+  /**
+   * Get the underlying array
+   * 
+   * @return array of performances
+   */
+  double[] getValues() {
+    return this.values;
+  }
+}
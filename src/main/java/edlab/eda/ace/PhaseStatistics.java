@@ -0,0 +1,160 @@
+package edlab.eda.ace;
+
+/**
+ * Immutable snapshot of the latencies of a {@link SimulationPhase} of an
+ * environment, corner and analysis. Latencies are recorded in a histogram
+ * with power-of-two buckets, percentiles are the upper bounds of the buckets.
+ */
+public final class PhaseStatistics {
+
+  private final String environment;
+  private final String corner;
+  private final String analysis;
+  private final SimulationPhase phase;
+  private final long count;
+  private final long totalTime;
+  private final long maxTime;
+  private final long[] buckets;
+
+  PhaseStatistics(final String environment, final String corner,
+      final String analysis, final SimulationPhase phase, final long count,
+      final long totalTime, final long maxTime, final long[] buckets) {
+    this.environment = environment;
+    this.corner = corner;
+    this.analysis = analysis;
+    this.phase = phase;
+    this.count = count;
+    this.totalTime = totalTime;
+    this.maxTime = maxTime;
+    this.buckets = buckets;
+  }
+
+  /**
+   * Get the name of the environment
+   * 
+   * @return name of environment
+   */
+  public String getEnvironment() {
+    return this.environment;
+  }
+
+  /**
+   * Get the name of the corner
+   * 
+   * @return name of corner, <code>null</code> when the phase is not specific
+   *         to a corner
+   */
+  public String getCorner() {
+    return this.corner;
+  }
+
+  /**
+   * Get the name of the analysis
+   * 
+   * @return name of analysis, <code>null</code> when the phase covers all
+   *         analyses of a corner
+   */
+  public String getAnalysis() {
+    return this.analysis;
+  }
+
+  /**
+   * Get the phase
+   * 
+   * @return phase
+   */
+  public SimulationPhase getPhase() {
+    return this.phase;
+  }
+
+  /**
+   * Get the number of recordings
+   * 
+   * @return number of recordings
+   */
+  public long getCount() {
+    return this.count;
+  }
+
+  /**
+   * Get the accumulated time of all recordings
+   * 
+   * @return time in nanoseconds
+   */
+  public long getTotalTime() {
+    return this.totalTime;
+  }
+
+  /**
+   * Get the mean time of a recording
+   * 
+   * @return time in nanoseconds, <code>0</code> when nothing was recorded
+   */
+  public long getMeanTime() {
+
+    if (this.count == 0) {
+      return 0;
+    }
+
+    return this.totalTime / this.count;
+  }
+
+  /**
+   * Get the maximal time of a recording
+   * 
+   * @return time in nanoseconds
+   */
+  public long getMaxTime() {
+    return this.maxTime;
+  }
+
+  /**
+   * Get the median time of a recording
+   * 
+   * @return time in nanoseconds
+   */
+  public long getMedianTime() {
+    return this.getPercentile(0.5);
+  }
+
+  /**
+   * Get the 99th percentile of the time of a recording
+   * 
+   * @return time in nanoseconds
+   */
+  public long getP99Time() {
+    return this.getPercentile(0.99);
+  }
+
+  /**
+   * Get a percentile of the time of a recording
+   * 
+   * @param quantile quantile between <code>0</code> and <code>1</code>
+   * @return time in nanoseconds, <code>0</code> when nothing was recorded
+   */
+  public long getPercentile(final double quantile) {
+
+    final long rank = (long) Math.ceil(quantile * this.count);
+
+    long cumulated = 0;
+
+    for (int i = 0; i < this.buckets.length; i++) {
+
+      cumulated += this.buckets[i];
+
+      if ((cumulated >= rank) && (cumulated > 0)) {
+        return Math.min(this.maxTime,
+            i < 62 ? (1L << (i + 1)) - 1 : Long.MAX_VALUE);
+      }
+    }
+
+    return 0;
+  }
+
+  @Override
+  public String toString() {
+    return this.environment + "/" + this.corner + "/" + this.analysis + "/"
+        + this.phase + ": count=" + this.count + ", mean="
+        + this.getMeanTime() + "ns, max=" + this.maxTime + "ns";
+  }
+}
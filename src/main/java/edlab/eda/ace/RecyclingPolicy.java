@@ -0,0 +1,86 @@
+package edlab.eda.ace;
+
+/**
+ * Policy for the recycling of simulation sessions. A session is replaced
+ * when the resident memory of the simulator exceeds a limit or when the
+ * latency of its simulations drifts above a multiple of the latency that
+ * was observed after the start of the session.
+ */
+public final class RecyclingPolicy {
+
+  /**
+   * Default number of runs that are used to determine the baseline latency
+   */
+  public static final int BASELINE_RUNS = 5;
+
+  private final long maxResidentBytes;
+  private final double maxLatencyDrift;
+  private final int baselineRuns;
+
+  /**
+   * Create a new policy
+   * 
+   * @param maxResidentBytes maximal resident memory of the simulator in
+   *                         bytes, a value of <code>0</code> disables the
+   *                         limit
+   * @param maxLatencyDrift  maximal ratio of the current and the baseline
+   *                         latency, a value of <code>0</code> disables the
+   *                         limit
+   */
+  public RecyclingPolicy(final long maxResidentBytes,
+      final double maxLatencyDrift) {
+    this(maxResidentBytes, maxLatencyDrift, BASELINE_RUNS);
+  }
+
+  /**
+   * Create a new policy
+   * 
+   * @param maxResidentBytes maximal resident memory of the simulator in
+   *                         bytes, a value of <code>0</code> disables the
+   *                         limit
+   * @param maxLatencyDrift  maximal ratio of the current and the baseline
+   *                         latency, a value of <code>0</code> disables the
+   *                         limit
+   * @param baselineRuns     number of runs after the start of a session that
+   *                         determine the baseline latency
+   */
+  public RecyclingPolicy(final long maxResidentBytes,
+      final double maxLatencyDrift, final int baselineRuns) {
+
+    if ((maxResidentBytes < 0) || !(maxLatencyDrift == 0
+        || maxLatencyDrift > 1) || (baselineRuns < 1)) {
+      throw new IllegalArgumentException("Invalid recycling policy");
+    }
+
+    this.maxResidentBytes = maxResidentBytes;
+    this.maxLatencyDrift = maxLatencyDrift;
+    this.baselineRuns = baselineRuns;
+  }
+
+  /**
+   * Get the maximal resident memory of the simulator
+   * 
+   * @return memory in bytes, <code>0</code> when the memory is not limited
+   */
+  public long getMaxResidentBytes() {
+    return this.maxResidentBytes;
+  }
+
+  /**
+   * Get the maximal ratio of the current and the baseline latency
+   * 
+   * @return ratio, <code>0</code> when the latency is not limited
+   */
+  public double getMaxLatencyDrift() {
+    return this.maxLatencyDrift;
+  }
+
+  /**
+   * Get the number of runs that determine the baseline latency
+   * 
+   * @return number of runs
+   */
+  public int getBaselineRuns() {
+    return this.baselineRuns;
+  }
+}
@@ -0,0 +1,834 @@
+package edlab.eda.ace;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool that evaluates parameter vectors on remote {@link SimulationWorker}s.
+ * Only the parameter vector is sent to a worker and only the performance
+ * arrays of the corners are returned.
+ * <p>
+ * Each worker receives at most as many evaluations of a circuit as it hosts
+ * environments of the circuit, plus a small number of prefetched evaluations
+ * that hide the latency of the network. When a worker becomes idle while
+ * evaluations are prefetched by another worker, the idle worker steals
+ * these evaluations. Evaluations of a worker that is lost are reassigned to
+ * the remaining workers.
+ */
+public final class RemoteEnvironmentPool {
+
+  private static final int CONNECT_TIMEOUT = 10000;
+
+  private final Object lock = new Object();
+  private final List<Worker> workers = new ArrayList<>();
+  private final Map<String, Circuit> circuits = new HashMap<>();
+  private final Deque<Job> queue = new ArrayDeque<>();
+  private final AtomicLong jobCounter = new AtomicLong();
+  private final ExecutorService readers = Executors.newCachedThreadPool(
+      new SimulationScheduler.NamedThreadFactory("ace-remote"));
+
+  private int prefetch = 1;
+  private int maxAttempts = 3;
+  private boolean closed = false;
+
+  /**
+   * Description of a circuit
+   */
+  private static final class Circuit {
+
+    private final List<String> parameterOrder;
+    private final PerformanceSchema schema;
+
+    private Circuit(final List<String> parameterOrder,
+        final List<String> identifiers) {
+      this.parameterOrder = Collections.unmodifiableList(parameterOrder);
+      this.schema = new PerformanceSchema(new HashSet<>(identifiers));
+    }
+  }
+
+  /**
+   * Evaluation of a parameter vector
+   */
+  private static final class Job {
+
+    private final long id;
+    private final String circuit;
+    private final double[] vector;
+    private final List<String> blacklistAnalyses;
+    private final List<String> corners;
+    private final CompletableFuture<Map<String, Map<String, Double>>> future = new CompletableFuture<>();
+
+    private int attempts = 0;
+    private boolean cancelling = false;
+
+    private Job(final long id, final String circuit, final double[] vector,
+        final Set<String> blacklistAnalyses, final Set<String> corners) {
+      this.id = id;
+      this.circuit = circuit;
+      this.vector = vector;
+      this.blacklistAnalyses = new ArrayList<>(blacklistAnalyses);
+      this.corners = corners == null ? new ArrayList<>()
+          : new ArrayList<>(corners);
+    }
+  }
+
+  /**
+   * Connection to a worker
+   */
+  private static final class Worker {
+
+    private final Socket socket;
+    private final DataInputStream in;
+    private final DataOutputStream out;
+    private final Map<String, Integer> slots;
+    private final Map<String, Integer> load = new HashMap<>();
+    private final Map<Long, Job> inFlight = new LinkedHashMap<>();
+
+    private Worker(final Socket socket, final DataInputStream in,
+        final DataOutputStream out, final Map<String, Integer> slots) {
+      this.socket = socket;
+      this.in = in;
+      this.out = out;
+      this.slots = slots;
+
+      for (final String circuit : slots.keySet()) {
+        this.load.put(circuit, 0);
+      }
+    }
+
+    private int getLoad(final String circuit) {
+      return this.load.get(circuit);
+    }
+
+    private void assign(final Job job) {
+      this.inFlight.put(job.id, job);
+      this.load.put(job.circuit, this.load.get(job.circuit) + 1);
+    }
+
+    private Job release(final long id) {
+
+      final Job job = this.inFlight.remove(id);
+
+      if (job != null) {
+        this.load.put(job.circuit, this.load.get(job.circuit) - 1);
+        job.cancelling = false;
+      }
+
+      return job;
+    }
+
+    private void evaluate(final Job job) {
+
+      try {
+        synchronized (this.out) {
+          this.out.writeByte(WorkerProtocol.EVALUATE);
+          this.out.writeLong(job.id);
+          this.out.writeUTF(job.circuit);
+          WorkerProtocol.writeArray(this.out, job.vector);
+          WorkerProtocol.writeStrings(this.out, job.blacklistAnalyses);
+          WorkerProtocol.writeStrings(this.out, job.corners);
+          this.out.flush();
+        }
+      } catch (final IOException e) {
+        // the reader of the worker reassigns the evaluations
+        this.close();
+      }
+    }
+
+    private void cancel(final Job job) {
+
+      try {
+        synchronized (this.out) {
+          this.out.writeByte(WorkerProtocol.CANCEL);
+          this.out.writeLong(job.id);
+          this.out.flush();
+        }
+      } catch (final IOException e) {
+        this.close();
+      }
+    }
+
+    private void close() {
+      try {
+        this.socket.close();
+      } catch (final IOException e) {
+      }
+    }
+  }
+
+  /**
+   * Set the number of evaluations that are sent to a worker in addition to
+   * the number of environments of the worker
+   * 
+   * @param prefetch number of prefetched evaluations per circuit
+   * @return this when the number is valid, <code>null</code> otherwise
+   */
+  public RemoteEnvironmentPool setPrefetch(final int prefetch) {
+
+    if (prefetch < 0) {
+      System.err.println("Prefetch must be non-negative");
+      return null;
+    }
+
+    synchronized (this.lock) {
+      this.prefetch = prefetch;
+    }
+
+    this.dispatch();
+
+    return this;
+  }
+
+  /**
+   * Set the maximal number of workers an evaluation is assigned to before it
+   * fails because all of these workers were lost
+   * 
+   * @param maxAttempts maximal number of attempts
+   * @return this when the number is valid, <code>null</code> otherwise
+   */
+  public RemoteEnvironmentPool setMaxAttempts(final int maxAttempts) {
+
+    if (maxAttempts < 1) {
+      System.err.println("Number of attempts must be positive");
+      return null;
+    }
+
+    synchronized (this.lock) {
+      this.maxAttempts = maxAttempts;
+    }
+
+    return this;
+  }
+
+  /**
+   * Connect to a worker
+   * 
+   * @param host host of the worker
+   * @param port port of the worker
+   * @return <code>true</code> when the connection was established,
+   *         <code>false</code> otherwise
+   */
+  public boolean connect(final String host, final int port) {
+
+    final Socket socket = new Socket();
+
+    final Map<String, Integer> slots = new HashMap<>();
+    final Map<String, Circuit> circuits = new HashMap<>();
+
+    DataInputStream in;
+    DataOutputStream out;
+
+    try {
+
+      socket.connect(new InetSocketAddress(host, port), CONNECT_TIMEOUT);
+      socket.setTcpNoDelay(true);
+      socket.setKeepAlive(true);
+
+      in = new DataInputStream(
+          new BufferedInputStream(socket.getInputStream()));
+      out = new DataOutputStream(
+          new BufferedOutputStream(socket.getOutputStream()));
+
+      out.writeInt(WorkerProtocol.MAGIC);
+      out.writeByte(WorkerProtocol.HELLO);
+      out.flush();
+
+      if ((in.readInt() != WorkerProtocol.MAGIC)
+          || (in.readByte() != WorkerProtocol.HELLO)) {
+        throw new IOException("Unknown protocol");
+      }
+
+      final int size = in.readInt();
+
+      String circuit;
+
+      for (int i = 0; i < size; i++) {
+
+        circuit = in.readUTF();
+        slots.put(circuit, in.readInt());
+        circuits.put(circuit, new Circuit(WorkerProtocol.readStrings(in),
+            WorkerProtocol.readStrings(in)));
+      }
+
+    } catch (final IOException e) {
+
+      System.err.println("Unable to connect to worker " + host + ":" + port);
+
+      try {
+        socket.close();
+      } catch (final IOException e1) {
+      }
+
+      return false;
+    }
+
+    final Worker worker = new Worker(socket, in, out, slots);
+
+    synchronized (this.lock) {
+
+      if (this.closed) {
+        System.err.println("Pool is closed");
+        worker.close();
+        return false;
+      }
+
+      Circuit known;
+
+      for (final Entry<String, Circuit> entry : circuits.entrySet()) {
+
+        known = this.circuits.get(entry.getKey());
+
+        if ((known != null) && !(known.parameterOrder
+            .equals(entry.getValue().parameterOrder)
+            && known.schema.getIdentifiers()
+                .equals(entry.getValue().schema.getIdentifiers()))) {
+
+          System.err.println("Circuit \"" + entry.getKey() + "\" of worker "
+              + host + ":" + port + " does not match the other workers");
+          worker.close();
+          return false;
+        }
+      }
+
+      for (final Entry<String, Circuit> entry : circuits.entrySet()) {
+        this.circuits.putIfAbsent(entry.getKey(), entry.getValue());
+      }
+
+      this.workers.add(worker);
+    }
+
+    this.readers.execute(() -> this.read(worker));
+    this.dispatch();
+
+    return true;
+  }
+
+  /**
+   * Get the number of connected workers
+   * 
+   * @return number of workers
+   */
+  public int getNumOfWorkers() {
+    synchronized (this.lock) {
+      return this.workers.size();
+    }
+  }
+
+  /**
+   * Get the circuits that are provided by the connected workers
+   * 
+   * @return set of circuit names
+   */
+  public Set<String> getCircuits() {
+
+    final Set<String> retval = new HashSet<>();
+
+    synchronized (this.lock) {
+      for (final Worker worker : this.workers) {
+        retval.addAll(worker.slots.keySet());
+      }
+    }
+
+    return retval;
+  }
+
+  /**
+   * Get the order of the parameters of a circuit, i.e., the order of the
+   * values in the vectors that are submitted
+   * 
+   * @param circuit name of the circuit
+   * @return list of parameter names, <code>null</code> when the circuit is
+   *         unknown
+   * @see AnalogCircuitEnvironment#getParameterOrder()
+   */
+  public List<String> getParameterOrder(final String circuit) {
+
+    synchronized (this.lock) {
+
+      final Circuit description = this.circuits.get(circuit);
+
+      if (description == null) {
+        return null;
+      }
+
+      return description.parameterOrder;
+    }
+  }
+
+  /**
+   * Submit the evaluation of a parameter vector in the nominal corner
+   * 
+   * @param circuit name of the circuit
+   * @param vector  parameter values in the order of
+   *                {@link #getParameterOrder(String)}
+   * @return future of the performances, see
+   *         {@link #submit(String, double[], Set, Set)}
+   */
+  public CompletableFuture<Map<String, Map<String, Double>>> submit(
+      final String circuit, final double[] vector) {
+    return this.submit(circuit, vector, new HashSet<String>(), null);
+  }
+
+  /**
+   * Submit the evaluation of a parameter vector
+   * 
+   * @param circuit           name of the circuit
+   * @param vector            parameter values in the order of
+   *                          {@link #getParameterOrder(String)}
+   * @param blacklistAnalyses set of analyses to be ignored
+   * @param corners           set of corners to be simulated,
+   *                          <code>null</code> or an empty set selects the
+   *                          nominal corner
+   * @return future of the performances, where the key of the outer map
+   *         corresponds to the name of the corner. The future fails when the
+   *         evaluation fails on the worker, when the simulation is
+   *         corrupted or when no worker is available. <code>null</code> is
+   *         returned when the circuit is not provided by any worker or when
+   *         the length of the vector is wrong.
+   */
+  public CompletableFuture<Map<String, Map<String, Double>>> submit(
+      final String circuit, final double[] vector,
+      final Set<String> blacklistAnalyses, final Set<String> corners) {
+
+    final Job job = new Job(this.jobCounter.incrementAndGet(), circuit,
+        vector.clone(), blacklistAnalyses, corners);
+
+    synchronized (this.lock) {
+
+      if (this.closed) {
+        System.err.println("Pool is closed");
+        return null;
+      }
+
+      if (!this.isProvided(circuit)) {
+        System.err.println("Circuit \"" + circuit
+            + "\" is not provided by any worker");
+        return null;
+      }
+
+      final int size = this.circuits.get(circuit).parameterOrder.size();
+
+      if (vector.length != size) {
+        System.err.println("Vector has " + vector.length + " values, but "
+            + size + " are expected");
+        return null;
+      }
+
+      this.queue.addLast(job);
+    }
+
+    this.dispatch();
+
+    return job.future;
+  }
+
+  /**
+   * Close the connections to all workers. Evaluations that are not
+   * completed yet fail.
+   */
+  public void close() {
+
+    final List<Job> jobs = new ArrayList<>();
+
+    synchronized (this.lock) {
+
+      this.closed = true;
+
+      for (final Worker worker : this.workers) {
+        jobs.addAll(worker.inFlight.values());
+        worker.close();
+      }
+
+      jobs.addAll(this.queue);
+
+      this.workers.clear();
+      this.queue.clear();
+    }
+
+    this.readers.shutdown();
+
+    for (final Job job : jobs) {
+      job.future.completeExceptionally(
+          new IllegalStateException("Pool was closed"));
+    }
+  }
+
+  private boolean isProvided(final String circuit) {
+
+    for (final Worker worker : this.workers) {
+      if (worker.slots.containsKey(circuit)) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * Assign queued evaluations to workers and steal prefetched evaluations
+   * for idle workers
+   */
+  private void dispatch() {
+
+    final List<Runnable> messages = new ArrayList<>();
+
+    synchronized (this.lock) {
+
+      final Iterator<Job> iterator = this.queue.iterator();
+
+      Job job;
+      Worker worker;
+
+      while (iterator.hasNext()) {
+
+        job = iterator.next();
+        worker = this.select(job.circuit);
+
+        if (worker != null) {
+
+          iterator.remove();
+          worker.assign(job);
+
+          final Worker target = worker;
+          final Job evaluation = job;
+          messages.add(() -> target.evaluate(evaluation));
+        }
+      }
+
+      // evaluations that remain in the queue cannot be assigned to any
+      // worker, i.e., all idle slots can be filled by stealing
+      final Map<String, Integer> idle = new HashMap<>();
+
+      for (final Worker candidate : this.workers) {
+        for (final Entry<String, Integer> entry : candidate.slots
+            .entrySet()) {
+          idle.merge(entry.getKey(), Math.max(0,
+              entry.getValue() - candidate.getLoad(entry.getKey())),
+              Integer::sum);
+        }
+      }
+
+      int steals;
+
+      for (final Entry<String, Integer> entry : idle.entrySet()) {
+
+        steals = entry.getValue() - this.getNumOfCancellations(entry.getKey());
+
+        for (int i = 0; i < steals; i++) {
+
+          final Job victim = this.selectVictim(entry.getKey());
+
+          if (victim == null) {
+            break;
+          }
+
+          victim.cancelling = true;
+
+          final Worker target = this.getWorker(victim);
+          messages.add(() -> target.cancel(victim));
+        }
+      }
+    }
+
+    for (final Runnable message : messages) {
+      message.run();
+    }
+  }
+
+  /**
+   * Select the least utilized worker that accepts an evaluation of a circuit
+   * 
+   * @param circuit name of the circuit
+   * @return worker, <code>null</code> when all workers are busy
+   */
+  private Worker select(final String circuit) {
+
+    Worker retval = null;
+    double utilization = Double.POSITIVE_INFINITY;
+
+    Integer slots;
+    int load;
+
+    for (final Worker worker : this.workers) {
+
+      slots = worker.slots.get(circuit);
+
+      if (slots == null) {
+        continue;
+      }
+
+      load = worker.getLoad(circuit);
+
+      if ((load < slots + this.prefetch)
+          && ((double) load / slots < utilization)) {
+        retval = worker;
+        utilization = (double) load / slots;
+      }
+    }
+
+    return retval;
+  }
+
+  /**
+   * Select the most recently sent evaluation of a circuit of the worker with
+   * the most prefetched evaluations
+   * 
+   * @param circuit name of the circuit
+   * @return evaluation, <code>null</code> when no worker has prefetched
+   *         evaluations
+   */
+  private Job selectVictim(final String circuit) {
+
+    Job retval = null;
+    int excess = 0;
+
+    Integer slots;
+    Job last;
+    int cancellations;
+
+    for (final Worker worker : this.workers) {
+
+      slots = worker.slots.get(circuit);
+
+      if (slots == null) {
+        continue;
+      }
+
+      last = null;
+      cancellations = 0;
+
+      for (final Job job : worker.inFlight.values()) {
+        if (job.circuit.equals(circuit)) {
+          if (job.cancelling) {
+            cancellations++;
+          } else {
+            last = job;
+          }
+        }
+      }
+
+      if ((last != null)
+          && (worker.getLoad(circuit) - slots - cancellations > excess)) {
+        retval = last;
+        excess = worker.getLoad(circuit) - slots - cancellations;
+      }
+    }
+
+    return retval;
+  }
+
+  private int getNumOfCancellations(final String circuit) {
+
+    int retval = 0;
+
+    for (final Worker worker : this.workers) {
+      for (final Job job : worker.inFlight.values()) {
+        if (job.cancelling && job.circuit.equals(circuit)) {
+          retval++;
+        }
+      }
+    }
+
+    return retval;
+  }
+
+  private Worker getWorker(final Job job) {
+
+    for (final Worker worker : this.workers) {
+      if (worker.inFlight.get(job.id) == job) {
+        return worker;
+      }
+    }
+
+    return null;
+  }
+
+  /**
+   * Read the responses of a worker until the connection is closed
+   * 
+   * @param worker worker
+   */
+  private void read(final Worker worker) {
+
+    final DataInputStream in = worker.in;
+
+    try {
+
+      byte opcode;
+      long id;
+
+      while (true) {
+
+        opcode = in.readByte();
+        id = in.readLong();
+
+        if (opcode == WorkerProtocol.RESULT) {
+
+          final Map<String, double[]> results = new LinkedHashMap<>();
+          final int size = in.readInt();
+
+          for (int i = 0; i < size; i++) {
+            results.put(in.readUTF(),
+                WorkerProtocol.readArray(in, WorkerProtocol.MAX_LENGTH));
+          }
+
+          this.complete(worker, id, results, null);
+
+        } else if (opcode == WorkerProtocol.FAILED) {
+
+          this.complete(worker, id, null, in.readUTF());
+
+        } else if (opcode == WorkerProtocol.CANCELLED) {
+
+          synchronized (this.lock) {
+
+            final Job job = worker.release(id);
+
+            if (job != null) {
+              this.queue.addFirst(job);
+            }
+          }
+
+          this.dispatch();
+
+        } else {
+          throw new IOException("Unknown opcode " + opcode);
+        }
+      }
+
+    } catch (final IOException e) {
+      // the connection was closed or lost
+    } finally {
+      worker.close();
+      this.lost(worker);
+    }
+  }
+
+  /**
+   * Complete an evaluation
+   * 
+   * @param worker  worker of the evaluation
+   * @param id      identifier of the evaluation
+   * @param results performance arrays of the corners, <code>null</code> when
+   *                the evaluation failed
+   * @param message error message when the evaluation failed
+   */
+  private void complete(final Worker worker, final long id,
+      final Map<String, double[]> results, final String message) {
+
+    Job job;
+    PerformanceSchema schema = null;
+
+    synchronized (this.lock) {
+
+      job = worker.release(id);
+
+      if (job != null) {
+        schema = this.circuits.get(job.circuit).schema;
+      }
+    }
+
+    if (job != null) {
+
+      if (results == null) {
+
+        job.future.completeExceptionally(new IllegalStateException(message));
+
+      } else {
+
+        final Map<String, Map<String, Double>> performances = new LinkedHashMap<>();
+
+        for (final Entry<String, double[]> entry : results.entrySet()) {
+          performances.put(entry.getKey(),
+              new PerformanceMap(schema, entry.getValue()));
+        }
+
+        job.future.complete(Collections.unmodifiableMap(performances));
+      }
+    }
+
+    this.dispatch();
+  }
+
+  /**
+   * Reassign the evaluations of a worker that was lost
+   * 
+   * @param worker worker
+   */
+  private void lost(final Worker worker) {
+
+    final List<Job> failed = new ArrayList<>();
+    final List<Job> orphaned = new ArrayList<>();
+
+    synchronized (this.lock) {
+
+      if (!this.workers.remove(worker)) {
+        return;
+      }
+
+      final List<Job> jobs = new ArrayList<>(worker.inFlight.values());
+
+      // keep the order of the evaluations in front of the queue
+      for (int i = jobs.size() - 1; i >= 0; i--) {
+
+        final Job job = jobs.get(i);
+
+        worker.release(job.id);
+        job.attempts++;
+
+        if (job.attempts >= this.maxAttempts) {
+          failed.add(job);
+        } else {
+          this.queue.addFirst(job);
+        }
+      }
+
+      final Iterator<Job> iterator = this.queue.iterator();
+
+      Job job;
+
+      while (iterator.hasNext()) {
+
+        job = iterator.next();
+
+        if (!this.isProvided(job.circuit)) {
+          iterator.remove();
+          orphaned.add(job);
+        }
+      }
+    }
+
+    for (final Job job : failed) {
+      job.future.completeExceptionally(new IllegalStateException(
+          "Evaluation was lost on " + job.attempts + " workers"));
+    }
+
+    for (final Job job : orphaned) {
+      job.future.completeExceptionally(new IllegalStateException("Circuit \""
+          + job.circuit + "\" is not provided by any worker"));
+    }
+
+    this.dispatch();
+  }
+}
@@ -0,0 +1,346 @@
+package edlab.eda.ace;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import edlab.eda.reader.nutmeg.NutReader;
+import edlab.eda.reader.nutmeg.NutmegPlot;
+
+/**
+ * Backend that does not start a simulator, but returns recorded plots or
+ * plots that are computed by a {@link Model}. An artificial latency can be
+ * added to the start and to each run of a session. The backend is intended
+ * for load tests and profiling of the environment without a simulator.
+ */
+public final class ReplayBackend implements SimulatorBackend {
+
+  /**
+   * Model of a circuit that computes the plots of a run
+   */
+  @FunctionalInterface
+  public interface Model {
+
+    /**
+     * Compute the plots of a run
+     * 
+     * @param netlist netlist of the session
+     * @param values  values of the netlist parameters
+     * @return list of plots, one plot per analysis
+     */
+    List<NutmegPlot> simulate(final File netlist,
+        final Map<String, Object> values);
+  }
+
+  private final Model model;
+  private final File dir;
+  private final Map<String, Double> attributes = new ConcurrentHashMap<>();
+
+  private final AtomicLong sessionCounter = new AtomicLong();
+  private final LongAdder runs = new LongAdder();
+
+  private volatile long latency = 0;
+  private volatile long startupLatency = 0;
+
+  /**
+   * Create a backend
+   * 
+   * @param model model of the circuit
+   */
+  public ReplayBackend(final Model model) {
+    this.model = model;
+    this.dir = new File(System.getProperty("java.io.tmpdir"), "ace-replay");
+  }
+
+  /**
+   * Create a backend that returns the plots of a recorded simulation in the
+   * nutascii format
+   * 
+   * @param file path to the results
+   * @return backend, <code>null</code> when the results cannot be read
+   */
+  public static ReplayBackend getNutascii(final String file) {
+    return get(file, false);
+  }
+
+  /**
+   * Create a backend that returns the plots of a recorded simulation in the
+   * nutbin format
+   * 
+   * @param file path to the results
+   * @return backend, <code>null</code> when the results cannot be read
+   */
+  public static ReplayBackend getNutbin(final String file) {
+    return get(file, true);
+  }
+
+  private static ReplayBackend get(final String file, final boolean binary) {
+
+    if (!(new File(file).isFile() && new File(file).canRead())) {
+      System.err.println("Cannot read file \"" + file + "\"");
+      return null;
+    }
+
+    List<NutmegPlot> plots;
+
+    try {
+
+      final NutReader reader = binary ? NutReader.getNutbinReader(file)
+          : NutReader.getNutasciiReader(file);
+
+      plots = reader.read().parse().getPlots();
+
+    } catch (final RuntimeException e) {
+      plots = null;
+    }
+
+    if (plots == null) {
+      System.err.println("Cannot read results \"" + file + "\"");
+      return null;
+    }
+
+    final List<NutmegPlot> recorded = Collections
+        .unmodifiableList(new ArrayList<>(plots));
+
+    return new ReplayBackend((netlist, values) -> recorded);
+  }
+
+  /**
+   * Set the latency of each run
+   * 
+   * @param duration latency
+   * @param unit     unit of the latency
+   * @return this when the latency is valid, <code>null</code> otherwise
+   */
+  public ReplayBackend setLatency(final long duration, final TimeUnit unit) {
+
+    if (duration < 0) {
+      System.err.println("Latency must be non-negative");
+      return null;
+    }
+
+    this.latency = unit.toNanos(duration);
+    return this;
+  }
+
+  /**
+   * Set the latency of the start of a session
+   * 
+   * @param duration latency
+   * @param unit     unit of the latency
+   * @return this when the latency is valid, <code>null</code> otherwise
+   */
+  public ReplayBackend setStartupLatency(final long duration,
+      final TimeUnit unit) {
+
+    if (duration < 0) {
+      System.err.println("Latency must be non-negative");
+      return null;
+    }
+
+    this.startupLatency = unit.toNanos(duration);
+    return this;
+  }
+
+  /**
+   * Set the value of a netlist attribute that is returned by all sessions,
+   * unless the attribute is set as parameter of a session
+   * 
+   * @param name  name of the attribute
+   * @param value value of the attribute
+   * @return this
+   */
+  public ReplayBackend setAttribute(final String name, final double value) {
+    this.attributes.put(name, value);
+    return this;
+  }
+
+  /**
+   * Get the number of runs of all sessions of the backend
+   * 
+   * @return number of runs
+   */
+  public long getNumOfRuns() {
+    return this.runs.sum();
+  }
+
+  @Override
+  public SimulatorSession createSession(final String name, final File netlist,
+      final File[] includeDirs) {
+    return new ReplaySession(this,
+        new File(this.dir, name + "_" + this.sessionCounter.incrementAndGet())
+            .toString(),
+        netlist);
+  }
+
+  /**
+   * Get the name of the analysis of a plot, i.e., the name in quotes in the
+   * plotname
+   * 
+   * @param plot plot
+   * @return name of analysis, <code>null</code> when the plotname does not
+   *         contain a name in quotes
+   */
+  private static String getAnalysis(final NutmegPlot plot) {
+
+    final String plotname = plot.getPlotname();
+
+    if (plotname == null) {
+      return null;
+    }
+
+    final int begin = plotname.indexOf('`');
+    final int end = plotname.indexOf('\'', begin + 1);
+
+    if ((begin < 0) || (end < 0)) {
+      return null;
+    }
+
+    return plotname.substring(begin + 1, end);
+  }
+
+  /**
+   * Wait without blocking interrupts
+   * 
+   * @param nanos duration in nanoseconds
+   */
+  private static void sleep(final long nanos) {
+
+    final long deadline = System.nanoTime() + nanos;
+
+    long remaining = nanos;
+
+    while ((remaining > 0) && !Thread.currentThread().isInterrupted()) {
+      LockSupport.parkNanos(remaining);
+      remaining = deadline - System.nanoTime();
+    }
+  }
+
+  /**
+   * Session of a {@link ReplayBackend}
+   */
+  private static final class ReplaySession implements SimulatorSession {
+
+    private final ReplayBackend backend;
+    private final String workingDir;
+    private final File netlist;
+
+    private final Map<String, Object> values = new HashMap<>();
+    private Set<String> blacklistAnalyses = new HashSet<>();
+    private List<NutmegPlot> plots = Collections.emptyList();
+    private boolean started = false;
+
+    private ReplaySession(final ReplayBackend backend, final String workingDir,
+        final File netlist) {
+      this.backend = backend;
+      this.workingDir = workingDir;
+      this.netlist = netlist;
+    }
+
+    @Override
+    public String getWorkingDir() {
+      return this.workingDir;
+    }
+
+    @Override
+    public File getLogFile() {
+      return new File(this.workingDir, "replay.out");
+    }
+
+    @Override
+    public void setParentThread(final Thread parentThread) {
+    }
+
+    @Override
+    public boolean start() {
+
+      if (!this.started) {
+        sleep(this.backend.startupLatency);
+        this.started = true;
+      }
+
+      return true;
+    }
+
+    @Override
+    public void stop() {
+      this.started = false;
+    }
+
+    @Override
+    public long getGeneration() {
+      // the values are kept when the session is stopped
+      return 0;
+    }
+
+    @Override
+    public boolean setValueAttribute(final String name, final Object value) {
+      this.values.put(name, value);
+      return true;
+    }
+
+    @Override
+    public void setValueAttributes(final Map<String, Object> values) {
+      this.values.putAll(values);
+    }
+
+    @Override
+    public void setBlacklistAnalyses(final Set<String> blacklistAnalyses) {
+      this.blacklistAnalyses = new HashSet<>(blacklistAnalyses);
+    }
+
+    @Override
+    public void run() {
+
+      this.start();
+
+      sleep(this.backend.latency);
+
+      final List<NutmegPlot> plots = this.backend.model.simulate(this.netlist,
+          Collections.unmodifiableMap(this.values));
+
+      this.plots = new ArrayList<>();
+
+      for (final NutmegPlot plot : plots) {
+        if (!this.blacklistAnalyses.contains(getAnalysis(plot))) {
+          this.plots.add(plot);
+        }
+      }
+
+      this.backend.runs.increment();
+    }
+
+    @Override
+    public List<NutmegPlot> getPlots() {
+      return this.plots;
+    }
+
+    @Override
+    public double getNumericValueAttribute(final String name) {
+
+      final Object value = this.values.get(name);
+
+      if (value instanceof Number) {
+        return ((Number) value).doubleValue();
+      }
+
+      final Double attribute = this.backend.attributes.get(name);
+
+      if (attribute == null) {
+        return Double.NaN;
+      }
+
+      return attribute;
+    }
+  }
+}
@@ -0,0 +1,595 @@
+package edlab.eda.ace;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Persistent, append-only store of simulation results. A store is a single
+ * file that is associated with a circuit and a fingerprint of all inputs of
+ * the simulation (netlists, properties and PDK). When one of these inputs is
+ * changed, the fingerprint changes and a new store is used, i.e., outdated
+ * results are never returned.
+ * 
+ * <p>
+ * The file starts with a header that lists the names of the parameters and
+ * performances. Each subsequent record contains the corner, the ignored
+ * analyses, the parameter values and the performance values as raw doubles.
+ * Records are appended while the file is locked, such that several processes
+ * can share a store, e.g., on a shared file system. Records of other
+ * processes are read when a result is not found.
+ */
+public final class ResultStore {
+
+  /**
+   * File extension of a store
+   */
+  public static final String FILE_EXTENSION = ".ace";
+
+  private static final int MAGIC = 0x41434531;
+  private static final int VERSION = 1;
+
+  private static final int SCAN_BUFFER_SIZE = 1 << 16;
+
+  private static final Map<File, ResultStore> STORES = new HashMap<>();
+
+  private final File file;
+  private final String[] parameterNames;
+  private final PerformanceSchema schema;
+  private final String[] performanceIds;
+
+  private final FileChannel channel;
+
+  private final Map<Key, Long> index = new HashMap<>();
+
+  private long size;
+
+  // environments that opened the store, guarded by the map of stores
+  private int references = 0;
+
+  private ResultStore(final File file, final String[] parameterNames,
+      final PerformanceSchema schema) throws IOException {
+
+    this.file = file;
+    this.parameterNames = parameterNames;
+    this.schema = schema;
+    this.performanceIds = schema.getIdentifiers()
+        .toArray(new String[schema.size()]);
+
+    this.channel = new RandomAccessFile(file, "rw").getChannel();
+
+    // other processes must not append while the file is checked
+    try (FileLock lock = this.channel.lock()) {
+
+      if ((this.channel.size() == 0) || !this.readHeader()) {
+        this.writeHeader();
+      }
+
+      this.scan(true);
+
+    } catch (final IOException | RuntimeException e) {
+      this.channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Open a store. Within a JVM, all environments that open the same store
+   * share a single instance, which is closed when it was closed by all
+   * environments.
+   * 
+   * @param directory      directory of the store
+   * @param circuit        name of the circuit
+   * @param fingerprint    fingerprint of all inputs of the simulation
+   * @param parameterNames names of the parameters in a fixed order
+   * @param schema         schema of the performances
+   * @return store
+   * @throws IOException when the store cannot be opened or when the store is
+   *                     already opened with other parameters or performances
+   * @see #close()
+   */
+  static ResultStore open(final File directory, final String circuit,
+      final String fingerprint, final String[] parameterNames,
+      final PerformanceSchema schema) throws IOException {
+
+    final File file = new File(directory,
+        circuit + "-" + fingerprint + FILE_EXTENSION).getCanonicalFile();
+
+    synchronized (STORES) {
+
+      ResultStore store = STORES.get(file);
+
+      if (store == null) {
+        store = new ResultStore(file, parameterNames, schema);
+        STORES.put(file, store);
+      } else if (!(Arrays.equals(store.parameterNames, parameterNames)
+          && store.schema.getIdentifiers().equals(schema.getIdentifiers()))) {
+        throw new IOException("Store \"" + file
+            + "\" is opened with other parameters or performances");
+      }
+
+      store.references++;
+
+      return store;
+    }
+  }
+
+  /**
+   * Close the store for an environment that opened it. The file is closed
+   * when the store was closed by all environments.
+   * 
+   * @throws IOException when the file cannot be closed
+   */
+  void close() throws IOException {
+
+    synchronized (STORES) {
+
+      if ((this.references == 0) || (--this.references > 0)) {
+        return;
+      }
+
+      STORES.remove(this.file);
+    }
+
+    synchronized (this) {
+      this.index.clear();
+      this.channel.close();
+    }
+  }
+
+  /**
+   * Get the file of the store
+   * 
+   * @return file
+   */
+  public File getFile() {
+    return this.file;
+  }
+
+  /**
+   * Get the number of results in the store
+   * 
+   * @return number of results
+   */
+  public synchronized int size() {
+    return this.index.size();
+  }
+
+  /**
+   * Look up the performances of a corner
+   * 
+   * @param corner            name of the corner
+   * @param blacklistAnalyses set of ignored analyses
+   * @param values            parameter values in the order of the store
+   * @return array of performances (indexed by the performance schema),
+   *         <code>null</code> when no result is stored
+   * @throws IOException when the store cannot be read
+   */
+  synchronized double[] get(final String corner,
+      final Set<String> blacklistAnalyses, final double[] values)
+      throws IOException {
+
+    final Key key = new Key(corner, join(blacklistAnalyses), values);
+
+    Long position = this.index.get(key);
+
+    // the result may have been appended by another process
+    if ((position == null) && (this.channel.size() > this.size)) {
+
+      try (FileLock lock = this.channel.lock(0, Long.MAX_VALUE, true)) {
+        this.scan(false);
+      }
+
+      position = this.index.get(key);
+    }
+
+    if (position == null) {
+      return null;
+    }
+
+    final ByteBuffer buffer = ByteBuffer
+        .allocate(this.performanceIds.length * Double.BYTES);
+
+    if (!this.read(buffer, position)) {
+      throw new IOException("Record in \"" + this.file + "\" is truncated");
+    }
+
+    final double[] retval = new double[this.performanceIds.length];
+
+    for (int i = 0; i < retval.length; i++) {
+      retval[i] = buffer.getDouble();
+    }
+
+    return retval;
+  }
+
+  /**
+   * Append the performances of a corner to the store
+   * 
+   * @param corner            name of the corner
+   * @param blacklistAnalyses set of ignored analyses
+   * @param values            parameter values in the order of the store
+   * @param performances      array of performances (indexed by the
+   *                          performance schema)
+   * @throws IOException when the store cannot be written
+   */
+  synchronized void put(final String corner,
+      final Set<String> blacklistAnalyses, final double[] values,
+      final double[] performances) throws IOException {
+
+    final Key key = new Key(corner, join(blacklistAnalyses), values);
+
+    if (this.index.containsKey(key)) {
+      return;
+    }
+
+    final byte[] cornerBytes = key.corner.getBytes(StandardCharsets.UTF_8);
+    final byte[] blacklistBytes = key.blacklistAnalyses
+        .getBytes(StandardCharsets.UTF_8);
+
+    final int length = (2 * Integer.BYTES) + cornerBytes.length
+        + blacklistBytes.length
+        + ((values.length + this.performanceIds.length) * Double.BYTES);
+
+    final ByteBuffer record = ByteBuffer.allocate(Integer.BYTES + length);
+
+    record.putInt(length);
+    record.putInt(cornerBytes.length);
+    record.put(cornerBytes);
+    record.putInt(blacklistBytes.length);
+    record.put(blacklistBytes);
+
+    for (final double value : values) {
+      record.putDouble(value);
+    }
+
+    final int offset = record.position();
+
+    for (final double performance : performances) {
+      record.putDouble(performance);
+    }
+
+    record.flip();
+
+    // records of other processes are appended at the same end of the file
+    try (FileLock lock = this.channel.lock()) {
+
+      this.scan(true);
+
+      if (this.index.containsKey(key)) {
+        return;
+      }
+
+      while (record.hasRemaining()) {
+        this.channel.write(record, this.size + record.position());
+      }
+
+      this.index.put(key, this.size + offset);
+      this.size += record.limit();
+    }
+  }
+
+  /**
+   * Read the header of an existing file
+   * 
+   * @return <code>true</code> when the header matches the parameters and
+   *         performances of this store, <code>false</code> otherwise
+   * @throws IOException when the file cannot be read
+   */
+  private boolean readHeader() throws IOException {
+
+    final ByteBuffer buffer = ByteBuffer.allocate(2 * Integer.BYTES);
+
+    if (!this.read(buffer, 0) || (buffer.getInt() != MAGIC)
+        || (buffer.getInt() != VERSION)) {
+      return false;
+    }
+
+    final long[] position = { buffer.capacity() };
+
+    try {
+
+      if (!(Arrays.equals(this.readStrings(position), this.parameterNames)
+          && Arrays.equals(this.readStrings(position), this.performanceIds))) {
+        return false;
+      }
+
+    } catch (final IllegalArgumentException e) {
+      return false;
+    }
+
+    this.size = position[0];
+
+    return true;
+  }
+
+  /**
+   * Read a list of strings from the header
+   * 
+   * @param position position of the list, the position after the list is
+   *                 returned in this array
+   * @return list of strings
+   * @throws IOException when the file cannot be read
+   */
+  private String[] readStrings(final long[] position) throws IOException {
+
+    final ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+
+    final String[] retval = new String[this.readLength(length, position)];
+
+    ByteBuffer bytes;
+
+    for (int i = 0; i < retval.length; i++) {
+
+      bytes = ByteBuffer.allocate(this.readLength(length, position));
+
+      if (!this.read(bytes, position[0])) {
+        throw new IllegalArgumentException("Header is truncated");
+      }
+
+      position[0] += bytes.capacity();
+      retval[i] = new String(bytes.array(), StandardCharsets.UTF_8);
+    }
+
+    return retval;
+  }
+
+  private int readLength(final ByteBuffer buffer, final long[] position)
+      throws IOException {
+
+    buffer.clear();
+
+    if (!this.read(buffer, position[0])) {
+      throw new IllegalArgumentException("Header is truncated");
+    }
+
+    position[0] += Integer.BYTES;
+
+    final int length = buffer.getInt();
+
+    if ((length < 0) || (length > (this.channel.size() - position[0]))) {
+      throw new IllegalArgumentException("Header is corrupted");
+    }
+
+    return length;
+  }
+
+  /**
+   * Discard the content of the file and write a new header
+   * 
+   * @throws IOException when the file cannot be written
+   */
+  private void writeHeader() throws IOException {
+
+    this.channel.truncate(0);
+
+    int length = 4 * Integer.BYTES;
+
+    for (final String name : this.parameterNames) {
+      length += Integer.BYTES + name.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    for (final String id : this.performanceIds) {
+      length += Integer.BYTES + id.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    final ByteBuffer header = ByteBuffer.allocate(length);
+
+    header.putInt(MAGIC);
+    header.putInt(VERSION);
+
+    for (final String[] strings : new String[][] { this.parameterNames,
+        this.performanceIds }) {
+
+      header.putInt(strings.length);
+
+      for (final String string : strings) {
+        final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        header.putInt(bytes.length);
+        header.put(bytes);
+      }
+    }
+
+    header.flip();
+
+    while (header.hasRemaining()) {
+      this.channel.write(header, header.position());
+    }
+
+    this.size = length;
+  }
+
+  /**
+   * Add the records that were appended after the last scan to the index. An
+   * incomplete record at the end of the file (e.g. from an interrupted JVM)
+   * is discarded when the file is locked exclusively, since other processes
+   * only append while they hold the lock.
+   * 
+   * @param exclusive <code>true</code> when the file is locked exclusively
+   * @throws IOException when the file cannot be read
+   */
+  private void scan(final boolean exclusive) throws IOException {
+
+    final long end = this.channel.size();
+
+    ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+    buffer.limit(0);
+
+    // position of the first byte in the buffer
+    long offset = this.size;
+    long position = this.size;
+    int length;
+    byte[] bytes;
+    String corner;
+    String blacklistAnalyses;
+    double[] values;
+
+    while ((end - position) >= Integer.BYTES) {
+
+      if (buffer.remaining() < Integer.BYTES) {
+        buffer = this.fill(buffer, offset += buffer.position(),
+            Integer.BYTES);
+      }
+
+      length = buffer.getInt(buffer.position());
+
+      if ((length <= 0) || ((end - position - Integer.BYTES) < length)) {
+        break;
+      }
+
+      if (buffer.remaining() < (Integer.BYTES + length)) {
+        buffer = this.fill(buffer, offset += buffer.position(),
+            Integer.BYTES + length);
+      }
+
+      buffer.position(buffer.position() + Integer.BYTES);
+
+      bytes = new byte[buffer.getInt()];
+      buffer.get(bytes);
+      corner = new String(bytes, StandardCharsets.UTF_8);
+
+      bytes = new byte[buffer.getInt()];
+      buffer.get(bytes);
+      blacklistAnalyses = new String(bytes, StandardCharsets.UTF_8);
+
+      values = new double[this.parameterNames.length];
+
+      for (int i = 0; i < values.length; i++) {
+        values[i] = buffer.getDouble();
+      }
+
+      this.index.put(new Key(corner, blacklistAnalyses, values),
+          offset + buffer.position());
+
+      position += Integer.BYTES + length;
+      buffer.position((int) (position - offset));
+    }
+
+    if (exclusive && (position < end)) {
+      this.channel.truncate(position);
+    }
+
+    this.size = position;
+  }
+
+  /**
+   * Discard the consumed bytes of a buffer and read the next bytes of the
+   * file
+   * 
+   * @param buffer   buffer
+   * @param position position in the file of the first unconsumed byte
+   * @param required number of bytes that are required in the buffer
+   * @return buffer that starts at the provided position
+   * @throws IOException when the file cannot be read
+   */
+  private ByteBuffer fill(ByteBuffer buffer, final long position,
+      final int required) throws IOException {
+
+    buffer.compact();
+
+    if (buffer.capacity() < required) {
+
+      final ByteBuffer larger = ByteBuffer.allocate(required);
+
+      buffer.flip();
+      larger.put(buffer);
+      buffer = larger;
+    }
+
+    while (buffer.hasRemaining()) {
+      if (this.channel.read(buffer, position + buffer.position()) <= 0) {
+        break;
+      }
+    }
+
+    buffer.flip();
+
+    return buffer;
+  }
+
+  /**
+   * Read bytes from the file until the buffer is full
+   * 
+   * @param buffer   buffer
+   * @param position position in the file
+   * @return <code>true</code> when the buffer was filled, <code>false</code>
+   *         when the end of the file was reached
+   * @throws IOException when the file cannot be read
+   */
+  private boolean read(final ByteBuffer buffer, final long position)
+      throws IOException {
+
+    while (buffer.hasRemaining()) {
+      if (this.channel.read(buffer, position + buffer.position()) < 0) {
+        return false;
+      }
+    }
+
+    buffer.flip();
+
+    return true;
+  }
+
+  private static String join(final Set<String> set) {
+
+    if (set == null) {
+      return "";
+    }
+
+    return String.join(",", new TreeSet<>(set));
+  }
+
+  /**
+   * Key of a record in the store
+   */
+  private static final class Key {
+
+    private final String corner;
+    private final String blacklistAnalyses;
+    private final double[] values;
+    private final int hashCode;
+
+    private Key(final String corner, final String blacklistAnalyses,
+        final double[] values) {
+      this.corner = corner;
+      this.blacklistAnalyses = blacklistAnalyses;
+      this.values = values;
+      this.hashCode = (31
+          * ((31 * corner.hashCode()) + blacklistAnalyses.hashCode()))
+          + Arrays.hashCode(values);
+    }
+
+    @Override
+    public int hashCode() {
+      return this.hashCode;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+
+      if (this == obj) {
+        return true;
+      }
+
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+
+      final Key other = (Key) obj;
+
+      return (this.hashCode == other.hashCode)
+          && this.corner.equals(other.corner)
+          && this.blacklistAnalyses.equals(other.blacklistAnalyses)
+          && Arrays.equals(this.values, other.values);
+    }
+  }
+}
@@ -0,0 +1,127 @@
+package edlab.eda.ace;
+
+/**
+ * Immutable snapshot of the utilization of a {@link SimulationScheduler}
+ */
+public final class SchedulerStatistics {
+
+  private final int parallelism;
+  private final int activeTasks;
+  private final int queuedTasks;
+  private final long submittedTasks;
+  private final long completedTasks;
+  private final long failedTasks;
+  private final long busyTime;
+  private final long upTime;
+
+  SchedulerStatistics(final int parallelism, final int activeTasks,
+      final int queuedTasks, final long submittedTasks,
+      final long completedTasks, final long failedTasks, final long busyTime,
+      final long upTime) {
+    this.parallelism = parallelism;
+    this.activeTasks = activeTasks;
+    this.queuedTasks = queuedTasks;
+    this.submittedTasks = submittedTasks;
+    this.completedTasks = completedTasks;
+    this.failedTasks = failedTasks;
+    this.busyTime = busyTime;
+    this.upTime = upTime;
+  }
+
+  /**
+   * Get the maximal number of parallel simulations
+   * 
+   * @return parallelism
+   */
+  public int getParallelism() {
+    return this.parallelism;
+  }
+
+  /**
+   * Get the number of simulations that are currently running
+   * 
+   * @return number of active simulations
+   */
+  public int getActiveTasks() {
+    return this.activeTasks;
+  }
+
+  /**
+   * Get the number of simulations that wait for a worker
+   * 
+   * @return number of queued simulations
+   */
+  public int getQueuedTasks() {
+    return this.queuedTasks;
+  }
+
+  /**
+   * Get the number of simulations that were submitted
+   * 
+   * @return number of submitted simulations
+   */
+  public long getSubmittedTasks() {
+    return this.submittedTasks;
+  }
+
+  /**
+   * Get the number of simulations that terminated successfully
+   * 
+   * @return number of completed simulations
+   */
+  public long getCompletedTasks() {
+    return this.completedTasks;
+  }
+
+  /**
+   * Get the number of simulations that terminated with an exception
+   * 
+   * @return number of failed simulations
+   */
+  public long getFailedTasks() {
+    return this.failedTasks;
+  }
+
+  /**
+   * Get the accumulated time the workers were busy
+   * 
+   * @return busy time in nanoseconds
+   */
+  public long getBusyTime() {
+    return this.busyTime;
+  }
+
+  /**
+   * Get the time since the scheduler was created
+   * 
+   * @return up time in nanoseconds
+   */
+  public long getUpTime() {
+    return this.upTime;
+  }
+
+  /**
+   * Get the utilization of the scheduler, i.e., the ratio of the busy time
+   * and the available worker time
+   * 
+   * @return utilization in the range <code>[0,1]</code>
+   */
+  public double getUtilization() {
+
+    if (this.upTime <= 0) {
+      return 0.0;
+    }
+
+    return Math.min(1.0,
+        (double) this.busyTime / ((double) this.upTime * this.parallelism));
+  }
+
+  @Override
+  public String toString() {
+    return "parallelism=" + this.parallelism + ", active=" + this.activeTasks
+        + ", queued=" + this.queuedTasks + ", submitted="
+        + this.submittedTasks + ", completed=" + this.completedTasks
+        + ", failed=" + this.failedTasks + ", utilization="
+        + String.format("%.3f", this.getUtilization());
+  }
+}
@@ -2,9 +2,8 @@ package edlab.eda.ace;
 
 import java.io.File;
 import java.nio.file.Files;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
@@ -13,7 +12,6 @@ import org.json.JSONObject;
 import edlab.eda.ardb.RealResultsDatabase;
 import edlab.eda.ardb.RealWaveform;
 import edlab.eda.cadence.rc.spectre.SpectreFactory;
-import edlab.eda.cadence.rc.spectre.UnableToStartSpectreSession;
 import edlab.eda.reader.nutmeg.NutmegPlot;
 import edlab.eda.reader.nutmeg.NutmegRealPlot;
 
@@ -26,9 +24,9 @@ public final class SchmittTriggerEnvironment extends AnalogCircuitEnvironment {
   public static final double T1 = 1.0;
   public static final double T2 = 100.0e-12;
 
-  protected SchmittTriggerEnvironment(final SpectreFactory factory,
+  protected SchmittTriggerEnvironment(final SimulatorBackend backend,
       final JSONObject jsonObject, final File dir, final File[] includeDirs) {
-    super(factory, jsonObject, dir, includeDirs);
+    super(backend, jsonObject, dir, includeDirs);
   }
 
   /**
@@ -51,7 +49,7 @@ public final class SchmittTriggerEnvironment extends AnalogCircuitEnvironment {
     final File simDirFile = new File(simDir);
 
     if (!(simDirFile.exists() && simDirFile.isDirectory()
-        && simDirFile.canRead())) {
+        && simDirFile.canRead() && simDirFile.canWrite())) {
       System.err
           .println("Cannot write simulation results to \"" + simDir + "\"");
       return null;
@@ -66,10 +64,31 @@ public final class SchmittTriggerEnvironment extends AnalogCircuitEnvironment {
 
     factory.setWatchogTimeout(10, TimeUnit.SECONDS);
 
+    return get(new SpectreBackend(factory), circuitDir, includeDirs);
+  }
+
+  /**
+   * Get a new environment for a Schmitt-Trigger that simulates with the
+   * given backend
+   * 
+   * @param backend     Simulator backend
+   * @param circuitDir  Directory that contains all information of the circuit.
+   *                    The directory contains the files "input.scs" and
+   *                    "properties.json".
+   * @param includeDirs Array of include directories for simulation. These
+   *                    include directories typically reference the model files
+   *                    from the PDK.
+   * 
+   * @return object of {@link SchmittTriggerEnvironment} when all parameters are
+   *         valid, <code>null</code> otherwise
+   */
+  public static SchmittTriggerEnvironment get(final SimulatorBackend backend,
+      final String circuitDir, final String[] includeDirs) {
+
     final File circuitDirFile = new File(circuitDir);
 
     if (!(circuitDirFile.exists() && circuitDirFile.isDirectory()
-        && circuitDirFile.canWrite() && simDirFile.canWrite())) {
+        && circuitDirFile.canWrite())) {
       System.err.println("\"" + circuitDirFile + "\" is not a directory");
       return null;
     }
@@ -114,82 +133,47 @@ public final class SchmittTriggerEnvironment extends AnalogCircuitEnvironment {
       includeDirFiles[i] = includeDir;
     }
 
-    return new SchmittTriggerEnvironment(factory, jsonObj, circuitDirFile,
+    return new SchmittTriggerEnvironment(backend, jsonObj, circuitDirFile,
         includeDirFiles);
   }
 
   @Override
-  public AnalogCircuitEnvironment simulate(final Set<String> blacklistAnalyses,
-      final Set<String> corners) {
-
-    super.simulate(blacklistAnalyses, corners);
-
-    this.performanceValues = new HashMap<>();
-
-    List<NutmegPlot> plots;
-    int resultIdentifier;
-    HashMap<String, Double> performanceValues;
-
-    double vdd = Double.NaN;
-
-    try {
-      vdd = this.sessions.get(corners.iterator().next()).getSession()
-          .getNumericValueAttribute("vdd").doubleValue();
-    } catch (UnableToStartSpectreSession e) {
-      e.printStackTrace();
+  protected String[] getNetlistAttributes() {
+    return new String[] { "vdd" };
+  }
 
-      System.err.print(e.readLogfile());
-    }
+  @Override
+  protected void extract(final String corner, final List<NutmegPlot> plots,
+      final Map<String, Double> values, final Set<String> blacklistAnalyses,
+      final PerformanceVector performanceValues) {
 
-    for (final String corner : corners) {
+    final double vdd = values.get("vdd");
 
-      resultIdentifier = 0;
-      plots = this.sessions.get(corner).getPlots();
-      performanceValues = new HashMap<>();
+    int resultIdentifier = 0;
 
-      RealResultsDatabase rdb;
+    RealResultsDatabase rdb;
 
-      if (!blacklistAnalyses.contains(TRAN)) {
+    if (!blacklistAnalyses.contains(TRAN)) {
 
-        rdb = RealResultsDatabase.buildResultDatabase(
-            (NutmegRealPlot) plots.get(resultIdentifier++));
+      rdb = RealResultsDatabase.buildResultDatabase(
+          (NutmegRealPlot) plots.get(resultIdentifier++));
 
-        final RealWaveform i = rdb.getRealWaveform("I");
-        final RealWaveform o = rdb.getRealWaveform("O");
+      final RealWaveform i = rdb.getRealWaveform("I");
+      final RealWaveform o = rdb.getRealWaveform("O");
 
-        performanceValues.put("v_ih",
-            i.getValue(o.clip(0, T1).cross(vdd / 2, 1)).getValue());
-        performanceValues.put("v_il",
-            i.getValue(o.clip(T1, 2 * T1).cross(vdd / 2, 1)).getValue());
+      performanceValues.put("v_ih",
+          i.getValue(o.clip(0, T1).cross(vdd / 2, 1)).getValue());
+      performanceValues.put("v_il",
+          i.getValue(o.clip(T1, 2 * T1).cross(vdd / 2, 1)).getValue());
 
-        performanceValues.put("t_phl",
-            o.clip(3 * T1, 4 * T1).cross(vdd / 2, 1).getValue()
-                - i.clip(3 * T1, 4 * T1).cross(vdd / 2, 1).getValue());
+      performanceValues.put("t_phl",
+          o.clip(3 * T1, 4 * T1).cross(vdd / 2, 1).getValue()
+              - i.clip(3 * T1, 4 * T1).cross(vdd / 2, 1).getValue());
 
-        performanceValues.put("t_plh",
-            o.clip((4 * T1) + T2, (5 * T1) + T2).cross(vdd / 2, 1).getValue()
-                - i.clip((4 * T1) + T2, (5 * T1) + T2).cross(vdd / 2, 1)
-                    .getValue());
-      }
-
-      this.performanceValues.put(corner, performanceValues);
+      performanceValues.put("t_plh",
+          o.clip((4 * T1) + T2, (5 * T1) + T2).cross(vdd / 2, 1).getValue()
+              - i.clip((4 * T1) + T2, (5 * T1) + T2).cross(vdd / 2, 1)
+                  .getValue());
     }
-
-    return this;
-  }
-
-  @Override
-  public AnalogCircuitEnvironment simulate(
-      final Set<String> blacklistAnalyses) {
-    final HashSet<String> corners = new HashSet<>();
-    corners.add(this.nomCorner);
-    return this.simulate(blacklistAnalyses, corners);
-  }
-
-  @Override
-  public AnalogCircuitEnvironment simulate() {
-    final HashSet<String> corners = new HashSet<>();
-    corners.add(this.nomCorner);
-    return this.simulate(new HashSet<String>(), corners);
   }
 }
@@ -0,0 +1,279 @@
+package edlab.eda.ace;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Health of a single simulation session with respect to a
+ * {@link RecyclingPolicy}. The latency is tracked separately for each set of
+ * ignored analyses, since the simulated analyses dominate the latency. The
+ * resident memory of the simulator is read from <code>/proc</code>, the
+ * simulator process is identified by its working directory and its start
+ * time.
+ */
+final class SessionHealth {
+
+  /**
+   * Smoothing factor of the exponential moving average of the latency
+   */
+  private static final double SMOOTHING = 0.2;
+
+  private static final Path PROC = Paths.get("/proc");
+
+  /**
+   * Latency statistics of a set of ignored analyses
+   */
+  private static final class Latency {
+    private int runs = 0;
+    private double baseline = 0;
+    private double average = 0;
+  }
+
+  private final RecyclingPolicy policy;
+  private final Map<Set<String>, Latency> latencies = new HashMap<>();
+
+  /**
+   * Maximal number of runs between two searches for the simulator process
+   */
+  private static final int MAX_SEARCH_INTERVAL = 64;
+
+  private long pid = -1;
+  private long startTime = -1;
+
+  // runs of the session and the run of the next search for the process
+  private long runs = 0;
+  private long nextSearch = 0;
+  private int searchInterval = 1;
+
+  SessionHealth(final RecyclingPolicy policy) {
+    this.policy = policy;
+  }
+
+  /**
+   * Record a run of the session
+   * 
+   * @param blacklistAnalyses set of analyses that were ignored
+   * @param nanos             duration of the run in nanoseconds
+   * @param workingDir        working directory of the session
+   * @return <code>true</code> when the session must be replaced,
+   *         <code>false</code> otherwise
+   */
+  synchronized boolean record(final Set<String> blacklistAnalyses,
+      final long nanos, final String workingDir) {
+
+    return this.recordLatency(blacklistAnalyses, nanos)
+        || this.exceedsMemory(workingDir);
+  }
+
+  private boolean recordLatency(final Set<String> blacklistAnalyses,
+      final long nanos) {
+
+    if (this.policy.getMaxLatencyDrift() == 0) {
+      return false;
+    }
+
+    Latency latency = this.latencies.get(blacklistAnalyses);
+
+    if (latency == null) {
+      latency = new Latency();
+      this.latencies.put(new HashSet<>(blacklistAnalyses), latency);
+    }
+
+    latency.runs++;
+
+    // the first run includes the start of the simulator
+    if (latency.runs == 1) {
+      return false;
+    }
+
+    if (latency.runs <= this.policy.getBaselineRuns() + 1) {
+
+      latency.baseline += (nanos - latency.baseline) / (latency.runs - 1);
+      latency.average = latency.baseline;
+
+      return false;
+    }
+
+    latency.average += SMOOTHING * (nanos - latency.average);
+
+    return latency.average > this.policy.getMaxLatencyDrift()
+        * latency.baseline;
+  }
+
+  private boolean exceedsMemory(final String workingDir) {
+
+    if (this.policy.getMaxResidentBytes() == 0) {
+      return false;
+    }
+
+    this.runs++;
+
+    // the identifier of a terminated simulator may be reused by another
+    // process
+    if ((this.pid >= 0) && (startTime(this.pid) != this.startTime)) {
+      this.pid = -1;
+    }
+
+    long residentBytes = residentBytes(this.pid);
+
+    // the simulator was restarted or not identified yet, a simulator that
+    // cannot be identified (e.g. a remote simulator) is searched with an
+    // increasing interval
+    if ((residentBytes < 0) && (this.runs >= this.nextSearch)) {
+
+      this.pid = findProcess(workingDir);
+      this.startTime = startTime(this.pid);
+      residentBytes = residentBytes(this.pid);
+
+      if (residentBytes < 0) {
+        this.pid = -1;
+        this.nextSearch = this.runs + this.searchInterval;
+        this.searchInterval = Math.min(2 * this.searchInterval,
+            MAX_SEARCH_INTERVAL);
+      } else {
+        this.searchInterval = 1;
+      }
+    }
+
+    return residentBytes > this.policy.getMaxResidentBytes();
+  }
+
+  /**
+   * Find the process that runs in a working directory. When several
+   * processes run in the directory (e.g., a wrapper script and the
+   * simulator), the process with the largest resident memory is returned.
+   * 
+   * @param workingDir working directory
+   * @return process identifier, <code>-1</code> when no process was found
+   */
+  static long findProcess(final String workingDir) {
+
+    if (!Files.isDirectory(PROC)) {
+      return -1;
+    }
+
+    final Path dir;
+
+    try {
+      dir = Paths.get(workingDir).toRealPath();
+    } catch (final IOException e) {
+      return -1;
+    }
+
+    long retval = -1;
+    long max = -1;
+
+    long pid;
+    long residentBytes;
+
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(PROC,
+        "[0-9]*")) {
+
+      for (final Path process : stream) {
+        try {
+          if (dir.equals(Files.readSymbolicLink(process.resolve("cwd")))) {
+
+            pid = Long.parseLong(process.getFileName().toString());
+            residentBytes = residentBytes(pid);
+
+            if (residentBytes > max) {
+              retval = pid;
+              max = residentBytes;
+            }
+          }
+        } catch (final IOException | UnsupportedOperationException
+            | SecurityException e) {
+          // the process terminated or is not accessible
+        }
+      }
+
+    } catch (final IOException e) {
+    }
+
+    return retval;
+  }
+
+  /**
+   * Read the start time of a process, which identifies the process together
+   * with its identifier
+   * 
+   * @param pid process identifier
+   * @return start time in clock ticks after the boot of the system,
+   *         <code>-1</code> when the start time is not available
+   */
+  static long startTime(final long pid) {
+
+    if (pid < 0) {
+      return -1;
+    }
+
+    final String stat;
+
+    try {
+      stat = new String(Files.readAllBytes(
+          PROC.resolve(Long.toString(pid)).resolve("stat")),
+          StandardCharsets.US_ASCII);
+    } catch (final IOException e) {
+      return -1;
+    }
+
+    // the name of the command is enclosed in parentheses and may contain
+    // spaces, the start time is the 20th field after the name
+    final String[] fields = stat.substring(stat.lastIndexOf(')') + 1).trim()
+        .split("\\s+");
+
+    if (fields.length < 20) {
+      return -1;
+    }
+
+    try {
+      return Long.parseLong(fields[19]);
+    } catch (final NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  /**
+   * Read the resident memory of a process
+   * 
+   * @param pid process identifier
+   * @return memory in bytes, <code>-1</code> when the memory is not available
+   */
+  static long residentBytes(final long pid) {
+
+    if (pid < 0) {
+      return -1;
+    }
+
+    final List<String> lines;
+
+    try {
+      lines = Files.readAllLines(PROC.resolve(Long.toString(pid))
+          .resolve("status"));
+    } catch (final IOException e) {
+      return -1;
+    }
+
+    for (final String line : lines) {
+      if (line.startsWith("VmRSS:")) {
+        try {
+          return 1024 * Long.parseLong(
+              line.substring(6).replace("kB", "").trim());
+        } catch (final NumberFormatException e) {
+          return -1;
+        }
+      }
+    }
+
+    return -1;
+  }
+}
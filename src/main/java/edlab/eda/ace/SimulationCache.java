@@ -0,0 +1,195 @@
+package edlab.eda.ace;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+/**
+ * In-memory cache of simulation results with least-recently-used eviction.
+ * A result is identified by the parameter values (already pushed on the grid
+ * of the parameters), the simulated corners and the ignored analyses.
+ */
+public final class SimulationCache {
+
+  private final int capacity;
+  private final LinkedHashMap<Key, HashMap<String, double[]>> entries;
+
+  private long hits = 0;
+  private long misses = 0;
+  private long evictions = 0;
+
+  /**
+   * Create a new cache
+   * 
+   * @param capacity maximal number of results in the cache
+   */
+  public SimulationCache(final int capacity) {
+
+    if (capacity < 1) {
+      throw new IllegalArgumentException(
+          "Capacity must be positive, but is " + capacity);
+    }
+
+    this.capacity = capacity;
+
+    this.entries = new LinkedHashMap<Key, HashMap<String, double[]>>(
+        16, 0.75f, true) {
+
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(
+          final Entry<Key, HashMap<String, double[]>> eldest) {
+
+        if (this.size() > SimulationCache.this.capacity) {
+          SimulationCache.this.evictions++;
+          return true;
+        }
+
+        return false;
+      }
+    };
+  }
+
+  /**
+   * Get the maximal number of results in the cache
+   * 
+   * @return capacity
+   */
+  public int getCapacity() {
+    return this.capacity;
+  }
+
+  /**
+   * Create a key for the cache
+   * 
+   * @param values            parameter values in a fixed order
+   * @param blacklistAnalyses set of analyses to be ignored
+   * @param corners           set of corners
+   * @return key
+   */
+  static Key key(final double[] values, final Set<String> blacklistAnalyses,
+      final Set<String> corners) {
+    return new Key(values, sorted(blacklistAnalyses), sorted(corners));
+  }
+
+  /**
+   * Look up a result in the cache
+   * 
+   * @param key key of the result
+   * @return copy of the result, <code>null</code> when the result is not
+   *         available
+   */
+  synchronized HashMap<String, double[]> get(final Key key) {
+
+    final HashMap<String, double[]> result = this.entries.get(key);
+
+    if (result == null) {
+      this.misses++;
+      return null;
+    }
+
+    this.hits++;
+
+    return copy(result);
+  }
+
+  /**
+   * Add a result to the cache
+   * 
+   * @param key    key of the result
+   * @param result result to be added
+   */
+  synchronized void put(final Key key, final Map<String, double[]> result) {
+    this.entries.put(key, copy(result));
+  }
+
+  /**
+   * Remove all results from the cache
+   */
+  public synchronized void clear() {
+    this.entries.clear();
+  }
+
+  /**
+   * Get a snapshot of the statistics of the cache
+   * 
+   * @return statistics
+   */
+  public synchronized CacheStatistics getStatistics() {
+    return new CacheStatistics(this.capacity, this.entries.size(), this.hits,
+        this.misses, this.evictions);
+  }
+
+  private static HashMap<String, double[]> copy(
+      final Map<String, double[]> result) {
+
+    final HashMap<String, double[]> retval = new HashMap<>();
+
+    for (final Entry<String, double[]> entry : result.entrySet()) {
+      retval.put(entry.getKey(), entry.getValue().clone());
+    }
+
+    return retval;
+  }
+
+  private static String[] sorted(final Set<String> set) {
+
+    if (set == null) {
+      return new String[0];
+    }
+
+    final String[] retval = set.toArray(new String[set.size()]);
+    Arrays.sort(retval);
+
+    return retval;
+  }
+
+  /**
+   * Key of a result in the cache
+   */
+  static final class Key {
+
+    private final double[] values;
+    private final String[] blacklistAnalyses;
+    private final String[] corners;
+    private final int hashCode;
+
+    private Key(final double[] values, final String[] blacklistAnalyses,
+        final String[] corners) {
+      this.values = values;
+      this.blacklistAnalyses = blacklistAnalyses;
+      this.corners = corners;
+      this.hashCode = (31
+          * ((31 * Arrays.hashCode(values)) + Arrays.hashCode(corners)))
+          + Arrays.hashCode(blacklistAnalyses);
+    }
+
+    @Override
+    public int hashCode() {
+      return this.hashCode;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+
+      if (this == obj) {
+        return true;
+      }
+
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+
+      final Key other = (Key) obj;
+
+      return (this.hashCode == other.hashCode)
+          && Arrays.equals(this.values, other.values)
+          && Arrays.equals(this.corners, other.corners)
+          && Arrays.equals(this.blacklistAnalyses, other.blacklistAnalyses);
+    }
+  }
+}
@@ -0,0 +1,63 @@
+package edlab.eda.ace;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Exception that is thrown when a simulation is corrupted, i.e., when at
+ * least one corner failed
+ */
+public final class SimulationFailedException extends RuntimeException {
+
+  private static final long serialVersionUID = 1L;
+
+  private final transient Map<String, CornerStatus> cornerStatus;
+
+  /**
+   * Create a new exception
+   * 
+   * @param cornerStatus status of all simulated corners
+   */
+  SimulationFailedException(final Map<String, CornerStatus> cornerStatus) {
+
+    super(message(cornerStatus));
+
+    this.cornerStatus = Collections
+        .unmodifiableMap(new TreeMap<>(cornerStatus));
+  }
+
+  /**
+   * Get the status of all simulated corners
+   * 
+   * @return map of status, the key corresponds to the name of the corner
+   */
+  public Map<String, CornerStatus> getCornerStatus() {
+    return this.cornerStatus;
+  }
+
+  /**
+   * Describe the failed corners of a simulation
+   * 
+   * @param cornerStatus status of all simulated corners
+   * @return message
+   */
+  static String message(final Map<String, CornerStatus> cornerStatus) {
+
+    final List<String> failed = new ArrayList<>();
+
+    for (final CornerStatus status : new TreeMap<>(cornerStatus).values()) {
+      if (status.isFailed()) {
+        failed.add(status.toString());
+      }
+    }
+
+    if (failed.isEmpty()) {
+      return "Simulation is corrupted";
+    }
+
+    return "Simulation is corrupted: " + String.join(" | ", failed);
+  }
+}
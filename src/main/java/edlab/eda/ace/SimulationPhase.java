@@ -0,0 +1,32 @@
+package edlab.eda.ace;
+
+/**
+ * Phases of a simulation that are recorded by a {@link MetricsRegistry}
+ */
+public enum SimulationPhase {
+
+  /**
+   * Creation of the simulation session of a corner
+   */
+  ALLOCATION,
+
+  /**
+   * Transfer of the parameter values to the session of a corner
+   */
+  PARAMETERS,
+
+  /**
+   * Run of the simulator
+   */
+  SIMULATION,
+
+  /**
+   * Loading of the plots and netlist attributes returned by the simulator
+   */
+  RESULTS,
+
+  /**
+   * Extraction of the performances from the results
+   */
+  EXTRACTION
+}
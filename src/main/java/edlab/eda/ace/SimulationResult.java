@@ -0,0 +1,226 @@
+package edlab.eda.ace;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Immutable snapshot of a simulation, i.e., the parameter values, the
+ * performances, the status and the timings of all corners. A result is not
+ * affected by later simulations of the environment.
+ * 
+ * @see AnalogCircuitEnvironment#simulateAsync(double[], Set, Set)
+ */
+public final class SimulationResult {
+
+  private final List<String> parameterOrder;
+  private final double[] vector;
+  private final PerformanceSchema schema;
+  private final Map<String, double[]> performanceValues;
+  private final Map<String, CornerStatus> cornerStatus;
+  private final Map<String, Map<SimulationPhase, Long>> phaseTimes;
+  private final Map<String, Long> licenseWaitTimes;
+  private final boolean corrupted;
+  private final long duration;
+
+  SimulationResult(final List<String> parameterOrder, final double[] vector,
+      final PerformanceSchema schema,
+      final Map<String, double[]> performanceValues,
+      final Map<String, CornerStatus> cornerStatus,
+      final Map<String, Map<SimulationPhase, Long>> phaseTimes,
+      final Map<String, Long> licenseWaitTimes, final boolean corrupted,
+      final long duration) {
+
+    this.parameterOrder = parameterOrder;
+    this.vector = vector.clone();
+    this.schema = schema;
+
+    final Map<String, double[]> values = new TreeMap<>();
+
+    for (final Entry<String, double[]> entry : performanceValues.entrySet()) {
+      values.put(entry.getKey(), entry.getValue().clone());
+    }
+
+    this.performanceValues = Collections.unmodifiableMap(values);
+    this.cornerStatus = Collections
+        .unmodifiableMap(new TreeMap<>(cornerStatus));
+
+    final Map<String, Map<SimulationPhase, Long>> times = new TreeMap<>();
+
+    for (final Entry<String, Map<SimulationPhase, Long>> entry : phaseTimes
+        .entrySet()) {
+      times.put(entry.getKey(),
+          Collections.unmodifiableMap(new EnumMap<>(entry.getValue())));
+    }
+
+    this.phaseTimes = Collections.unmodifiableMap(times);
+    this.licenseWaitTimes = Collections
+        .unmodifiableMap(new TreeMap<>(licenseWaitTimes));
+    this.corrupted = corrupted;
+    this.duration = duration;
+  }
+
+  /**
+   * Get the order of the parameters in {@link #getVector()}
+   * 
+   * @return list of parameter names
+   */
+  public List<String> getParameterOrder() {
+    return this.parameterOrder;
+  }
+
+  /**
+   * Get the simulated parameter values, i.e., the values on the grid of the
+   * parameters
+   * 
+   * @return parameter values in the order of {@link #getParameterOrder()}
+   */
+  public double[] getVector() {
+    return this.vector.clone();
+  }
+
+  /**
+   * Get the schema of the performance arrays
+   * 
+   * @return schema
+   */
+  public PerformanceSchema getPerformanceSchema() {
+    return this.schema;
+  }
+
+  /**
+   * Get the corners that returned performances
+   * 
+   * @return set of corners
+   */
+  public Set<String> getCorners() {
+    return this.performanceValues.keySet();
+  }
+
+  /**
+   * Get the performances of a corner
+   * 
+   * @param corner name of corner
+   * @return map of performances, <code>null</code> when the corner did not
+   *         return performances
+   */
+  public Map<String, Double> getPerformanceValues(final String corner) {
+
+    final double[] values = this.performanceValues.get(corner);
+
+    if (values == null) {
+      return null;
+    }
+
+    return new PerformanceMap(this.schema, values);
+  }
+
+  /**
+   * Get the performances of all corners
+   * 
+   * @return map of maps of performances, the key of the outer map
+   *         corresponds to the name of the corner
+   */
+  public Map<String, Map<String, Double>> getAllPerformanceValues() {
+    return PerformanceMap.of(this.schema, this.performanceValues);
+  }
+
+  /**
+   * Get the performances of a corner as an array
+   * 
+   * @param corner name of corner
+   * @return array of performances indexed by the schema, <code>null</code>
+   *         when the corner did not return performances
+   * @see #getPerformanceSchema()
+   */
+  public double[] getPerformanceArray(final String corner) {
+
+    final double[] values = this.performanceValues.get(corner);
+
+    if (values == null) {
+      return null;
+    }
+
+    return values.clone();
+  }
+
+  /**
+   * Get the status of all simulated corners
+   * 
+   * @return map of status, the key corresponds to the name of the corner
+   */
+  public Map<String, CornerStatus> getCornerStatus() {
+    return this.cornerStatus;
+  }
+
+  /**
+   * Get the status of a corner
+   * 
+   * @param corner name of corner
+   * @return status, <code>null</code> when the corner was not simulated
+   */
+  public CornerStatus getCornerStatus(final String corner) {
+    return this.cornerStatus.get(corner);
+  }
+
+  /**
+   * Get the durations of the phases of a corner
+   * 
+   * @param corner name of corner
+   * @return map of durations in nanoseconds, empty when the corner was not
+   *         simulated (e.g. when the results were cached)
+   */
+  public Map<SimulationPhase, Long> getPhaseTimes(final String corner) {
+
+    final Map<SimulationPhase, Long> times = this.phaseTimes.get(corner);
+
+    if (times == null) {
+      return Collections.emptyMap();
+    }
+
+    return times;
+  }
+
+  /**
+   * Get the time the simulation of a corner waited for a license
+   * 
+   * @param corner name of corner
+   * @return waiting time in nanoseconds, <code>0</code> when the corner did
+   *         not wait
+   */
+  public long getLicenseWaitTime(final String corner) {
+
+    final Long time = this.licenseWaitTimes.get(corner);
+
+    if (time == null) {
+      return 0;
+    }
+
+    return time;
+  }
+
+  /**
+   * Get the duration of the simulation, from the start of the first corner
+   * until all performances were extracted
+   * 
+   * @return duration in nanoseconds
+   */
+  public long getDuration() {
+    return this.duration;
+  }
+
+  /**
+   * Identify whether the simulation is corrupted, i.e., whether a corner
+   * failed
+   * 
+   * @return <code>true</code> when the simulation is corrupted,
+   *         <code>false</code> otherwise
+   */
+  public boolean isCorrupted() {
+    return this.corrupted;
+  }
+}
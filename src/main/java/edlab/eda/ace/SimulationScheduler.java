@@ -0,0 +1,281 @@
+package edlab.eda.ace;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide scheduler for simulations. The scheduler owns a bounded set of
+ * long-lived worker threads that run the simulation of individual corners,
+ * and a set of dispatcher threads that orchestrate complete environments (as
+ * submitted by an {@link EnvironmentPool}). All environments and pools share
+ * the default scheduler unless another scheduler is provided explicitly.
+ */
+public final class SimulationScheduler {
+
+  /**
+   * Name of the system property that defines the parallelism of the default
+   * scheduler
+   */
+  public static final String PARALLELISM_PROPERTY = "ace.scheduler.parallelism";
+
+  private static SimulationScheduler defaultScheduler = null;
+
+  private final ThreadPoolExecutor workers;
+  private final ExecutorService dispatchers;
+
+  private final LongAdder submitted = new LongAdder();
+  private final LongAdder completed = new LongAdder();
+  private final LongAdder failed = new LongAdder();
+  private final LongAdder busyTime = new LongAdder();
+
+  private final long startTime = System.nanoTime();
+
+  /**
+   * Create a new scheduler
+   * 
+   * @param parallelism maximal number of simulations that are executed in
+   *                    parallel
+   */
+  public SimulationScheduler(final int parallelism) {
+
+    if (parallelism < 1) {
+      throw new IllegalArgumentException(
+          "Parallelism must be positive, but is " + parallelism);
+    }
+
+    this.workers = new ThreadPoolExecutor(parallelism, parallelism, 0L,
+        TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(),
+        new NamedThreadFactory("ace-simulation"));
+
+    this.dispatchers = Executors
+        .newCachedThreadPool(new NamedThreadFactory("ace-dispatch"));
+  }
+
+  /**
+   * Get the default scheduler that is shared by all environments and pools.
+   * The parallelism of the default scheduler is defined by the system
+   * property {@value #PARALLELISM_PROPERTY}. When the property is not set, the
+   * number of available processors is used. A new default scheduler is
+   * created when the previous default scheduler was shut down.
+   * 
+   * @return default scheduler
+   */
+  public static synchronized SimulationScheduler getDefault() {
+
+    if ((defaultScheduler == null) || defaultScheduler.isShutdown()) {
+
+      int parallelism = Runtime.getRuntime().availableProcessors();
+
+      try {
+        parallelism = Integer.parseInt(System.getProperty(PARALLELISM_PROPERTY,
+            Integer.toString(parallelism)));
+      } catch (final NumberFormatException e) {
+        System.err.println("Invalid value of property \""
+            + PARALLELISM_PROPERTY + "\", use " + parallelism + " instead");
+      }
+
+      defaultScheduler = new SimulationScheduler(Math.max(1, parallelism));
+    }
+
+    return defaultScheduler;
+  }
+
+  /**
+   * Get the maximal number of simulations that are executed in parallel
+   * 
+   * @return parallelism
+   */
+  public int getParallelism() {
+    return this.workers.getMaximumPoolSize();
+  }
+
+  /**
+   * Set the maximal number of simulations that are executed in parallel. The
+   * parallelism can be changed at runtime, queued simulations are not
+   * affected.
+   * 
+   * @param parallelism new parallelism
+   * @return <code>this</code> when the parallelism was changed successfully,
+   *         <code>null</code> otherwise
+   */
+  public synchronized SimulationScheduler setParallelism(
+      final int parallelism) {
+
+    if (parallelism < 1) {
+      return null;
+    }
+
+    // the core pool size must never exceed the maximum pool size
+    if (parallelism > this.workers.getMaximumPoolSize()) {
+      this.workers.setMaximumPoolSize(parallelism);
+      this.workers.setCorePoolSize(parallelism);
+    } else {
+      this.workers.setCorePoolSize(parallelism);
+      this.workers.setMaximumPoolSize(parallelism);
+    }
+
+    return this;
+  }
+
+  /**
+   * Submit a simulation task. The task is executed by one of the worker
+   * threads of the scheduler.
+   * 
+   * @param <T>  type of the result
+   * @param task task to be executed
+   * @return future that is completed with the result of the task
+   */
+  public <T> CompletableFuture<T> submit(final Callable<T> task) {
+
+    final CompletableFuture<T> future = new CompletableFuture<>();
+
+    this.submitted.increment();
+
+    this.workers.execute(() -> {
+
+      final long start = System.nanoTime();
+
+      try {
+        future.complete(task.call());
+        this.completed.increment();
+      } catch (final Throwable e) {
+        this.failed.increment();
+        future.completeExceptionally(e);
+      } finally {
+        this.busyTime.add(System.nanoTime() - start);
+      }
+    });
+
+    return future;
+  }
+
+  /**
+   * Get the executor of the worker threads, e.g., for the extraction of
+   * results, such that the extraction is bounded by the parallelism of the
+   * scheduler
+   * 
+   * @return executor
+   */
+  Executor getExecutor() {
+    return this.workers;
+  }
+
+  /**
+   * Dispatch a task that orchestrates simulations, i.e., a task that submits
+   * simulations to this scheduler and waits for their results. Such tasks are
+   * not executed by the worker threads and hence cannot block them.
+   * 
+   * @param task task to be executed
+   */
+  void dispatch(final Runnable task) {
+    this.dispatchers.execute(task);
+  }
+
+  /**
+   * Dispatch a task that mostly waits, e.g., for a simulator to start. The
+   * task is executed by a dispatcher thread, such that it neither waits for
+   * a worker nor occupies a worker.
+   * 
+   * @param <T>  type of the result
+   * @param task task to be executed
+   * @return future that is completed with the result of the task
+   */
+  <T> CompletableFuture<T> dispatch(final Callable<T> task) {
+
+    final CompletableFuture<T> future = new CompletableFuture<>();
+
+    this.dispatchers.execute(() -> {
+      try {
+        future.complete(task.call());
+      } catch (final Throwable e) {
+        future.completeExceptionally(e);
+      }
+    });
+
+    return future;
+  }
+
+  /**
+   * Shut down the scheduler. Simulations that are already submitted are
+   * executed, new simulations are rejected.
+   */
+  public void shutdown() {
+    this.workers.shutdown();
+    this.dispatchers.shutdown();
+  }
+
+  /**
+   * Wait until all simulations terminated after a shutdown
+   * 
+   * @param timeout maximal time to wait
+   * @param unit    unit of the timeout
+   * @return <code>true</code> when the scheduler terminated,
+   *         <code>false</code> when the timeout elapsed before
+   * @throws InterruptedException when interrupted while waiting
+   */
+  public boolean awaitTermination(final long timeout, final TimeUnit unit)
+      throws InterruptedException {
+
+    final long deadline = System.nanoTime() + unit.toNanos(timeout);
+
+    return this.workers.awaitTermination(timeout, unit)
+        && this.dispatchers.awaitTermination(
+            Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Identify whether the scheduler is shut down
+   * 
+   * @return <code>true</code> when the scheduler is shut down,
+   *         <code>false</code> otherwise
+   */
+  public boolean isShutdown() {
+    return this.workers.isShutdown();
+  }
+
+  /**
+   * Get a snapshot of the utilization statistics of the scheduler
+   * 
+   * @return statistics
+   */
+  public SchedulerStatistics getStatistics() {
+    return new SchedulerStatistics(this.getParallelism(),
+        this.workers.getActiveCount(), this.workers.getQueue().size(),
+        this.submitted.sum(), this.completed.sum(), this.failed.sum(),
+        this.busyTime.sum(), System.nanoTime() - this.startTime);
+  }
+
+  /**
+   * Factory for daemon threads with a common name prefix
+   */
+  static final class NamedThreadFactory implements ThreadFactory {
+
+    private final String prefix;
+    private final AtomicInteger counter = new AtomicInteger();
+
+    NamedThreadFactory(final String prefix) {
+      this.prefix = prefix;
+    }
+
+    @Override
+    public Thread newThread(final Runnable runnable) {
+
+      final Thread thread = new Thread(runnable,
+          this.prefix + "-" + this.counter.incrementAndGet());
+
+      // the scheduler must not prevent the JVM from terminating
+      thread.setDaemon(true);
+
+      return thread;
+    }
+  }
+}
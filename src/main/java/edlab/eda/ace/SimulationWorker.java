@@ -0,0 +1,520 @@
+package edlab.eda.ace;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.json.JSONObject;
+
+/**
+ * Daemon that hosts environments and evaluates parameter vectors on behalf
+ * of a {@link RemoteEnvironmentPool}. Each circuit is hosted by one or more
+ * environments, the number of environments of a circuit corresponds to the
+ * number of parallel evaluations of the circuit.
+ */
+public final class SimulationWorker {
+
+  private final Map<String, List<AnalogCircuitEnvironment>> circuits = new LinkedHashMap<>();
+  private final Map<String, BlockingQueue<AnalogCircuitEnvironment>> idle = new ConcurrentHashMap<>();
+  private final Set<Socket> clients = ConcurrentHashMap.newKeySet();
+
+  private ExecutorService executor = null;
+  private ServerSocket server = null;
+
+  /**
+   * Add an environment to the worker. All environments of a circuit must
+   * have the same parameters and performances.
+   * 
+   * @param circuit name of the circuit
+   * @param env     environment
+   * @return <code>true</code> when the environment was added,
+   *         <code>false</code> when the worker is already running or the
+   *         environment does not match the other environments of the circuit
+   */
+  public synchronized boolean add(final String circuit,
+      final AnalogCircuitEnvironment env) {
+
+    if (this.server != null) {
+      System.err.println("Cannot add environments to a running worker");
+      return false;
+    }
+
+    final List<AnalogCircuitEnvironment> envs = this.circuits
+        .computeIfAbsent(circuit, (key) -> new ArrayList<>());
+
+    if (!envs.isEmpty() && !(envs.get(0).getParameterOrder()
+        .equals(env.getParameterOrder())
+        && envs.get(0).getPerformanceSchema().getIdentifiers()
+            .equals(env.getPerformanceSchema().getIdentifiers()))) {
+
+      System.err.println("Environment does not match circuit \"" + circuit
+          + "\"");
+      return false;
+    }
+
+    envs.add(env);
+
+    return true;
+  }
+
+  /**
+   * Start the worker on the loopback address
+   * 
+   * @param port port, <code>0</code> selects a free port
+   * @return <code>true</code> when the worker was started,
+   *         <code>false</code> otherwise
+   * @see #getPort()
+   */
+  public boolean start(final int port) {
+    return this.start(null, port);
+  }
+
+  /**
+   * Start the worker. The worker accepts connections only on the given
+   * address, the environments should not be exposed to untrusted networks.
+   * 
+   * @param address address of the interface, <code>null</code> selects the
+   *                loopback address
+   * @param port    port, <code>0</code> selects a free port
+   * @return <code>true</code> when the worker was started,
+   *         <code>false</code> otherwise
+   * @see #getPort()
+   */
+  public synchronized boolean start(final String address, final int port) {
+
+    if (this.server != null) {
+      return true;
+    }
+
+    try {
+      this.server = new ServerSocket(port, 0, InetAddress.getByName(address));
+    } catch (final IOException e) {
+      System.err.println("Unable to listen on " + address + ":" + port);
+      return false;
+    }
+
+    for (final Entry<String, List<AnalogCircuitEnvironment>> entry : this.circuits
+        .entrySet()) {
+      // fair queues start the evaluations in the order of their arrival
+      this.idle.put(entry.getKey(), new ArrayBlockingQueue<>(
+          entry.getValue().size(), true, entry.getValue()));
+    }
+
+    this.executor = Executors.newCachedThreadPool(
+        new SimulationScheduler.NamedThreadFactory("ace-worker"));
+
+    final ServerSocket server = this.server;
+
+    this.executor.execute(() -> {
+      while (!server.isClosed()) {
+        try {
+          this.accept(server.accept());
+        } catch (final IOException | RejectedExecutionException e) {
+          // the worker was stopped
+        }
+      }
+    });
+
+    return true;
+  }
+
+  /**
+   * Get the port of the worker
+   * 
+   * @return port, <code>-1</code> when the worker is not running
+   */
+  public synchronized int getPort() {
+
+    if (this.server == null) {
+      return -1;
+    }
+
+    return this.server.getLocalPort();
+  }
+
+  /**
+   * Stop the worker. All connections are closed, running evaluations are
+   * completed, but their results are not sent to the clients.
+   */
+  public synchronized void stop() {
+
+    if (this.server == null) {
+      return;
+    }
+
+    try {
+      this.server.close();
+    } catch (final IOException e) {
+    }
+
+    for (final Socket client : this.clients) {
+      try {
+        client.close();
+      } catch (final IOException e) {
+      }
+    }
+
+    this.executor.shutdown();
+
+    this.server = null;
+    this.executor = null;
+    this.clients.clear();
+  }
+
+  /**
+   * Serve a client in the background
+   * 
+   * @param socket connection to the client
+   * @throws IOException when the connection cannot be established
+   */
+  private void accept(final Socket socket) throws IOException {
+
+    socket.setTcpNoDelay(true);
+    socket.setKeepAlive(true);
+
+    final DataInputStream in = new DataInputStream(
+        new BufferedInputStream(socket.getInputStream()));
+    final DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(socket.getOutputStream()));
+
+    this.clients.add(socket);
+
+    final ExecutorService executor = this.executor;
+
+    executor.execute(() -> {
+
+      // evaluations that were received, but not started yet
+      final Set<Long> pending = ConcurrentHashMap.newKeySet();
+
+      try {
+
+        if (in.readInt() != WorkerProtocol.MAGIC) {
+          throw new IOException("Unknown protocol");
+        }
+
+        byte opcode;
+        long id;
+
+        while (true) {
+
+          opcode = in.readByte();
+
+          if (opcode == WorkerProtocol.HELLO) {
+
+            this.writeHello(out);
+
+          } else if (opcode == WorkerProtocol.EVALUATE) {
+
+            id = in.readLong();
+
+            final long evaluation = id;
+            final String circuit = in.readUTF();
+            final List<AnalogCircuitEnvironment> envs = this.circuits
+                .get(circuit);
+
+            // unknown circuits are reported when they are evaluated
+            final double[] vector = WorkerProtocol.readArray(in,
+                envs == null ? WorkerProtocol.MAX_LENGTH
+                    : envs.get(0).getParameterOrder().size());
+            final Set<String> blacklistAnalyses = new HashSet<>(
+                WorkerProtocol.readStrings(in));
+            final Set<String> corners = new HashSet<>(
+                WorkerProtocol.readStrings(in));
+
+            pending.add(evaluation);
+            executor.execute(() -> this.evaluate(out, pending, evaluation,
+                circuit, vector, blacklistAnalyses, corners));
+
+          } else if (opcode == WorkerProtocol.CANCEL) {
+
+            id = in.readLong();
+
+            if (pending.remove(id)) {
+              synchronized (out) {
+                out.writeByte(WorkerProtocol.CANCELLED);
+                out.writeLong(id);
+                out.flush();
+              }
+            }
+
+          } else {
+            throw new IOException("Unknown opcode " + opcode);
+          }
+        }
+
+      } catch (final IOException | RejectedExecutionException e) {
+        // the client closed the connection or the worker was stopped
+      } finally {
+
+        pending.clear();
+        this.clients.remove(socket);
+
+        try {
+          socket.close();
+        } catch (final IOException e) {
+        }
+      }
+    });
+  }
+
+  /**
+   * Write the description of all circuits
+   * 
+   * @param out output stream
+   * @throws IOException when the description cannot be written
+   */
+  private void writeHello(final DataOutputStream out) throws IOException {
+
+    synchronized (out) {
+
+      out.writeInt(WorkerProtocol.MAGIC);
+      out.writeByte(WorkerProtocol.HELLO);
+      out.writeInt(this.circuits.size());
+
+      AnalogCircuitEnvironment env;
+
+      for (final Entry<String, List<AnalogCircuitEnvironment>> entry : this.circuits
+          .entrySet()) {
+
+        env = entry.getValue().get(0);
+
+        out.writeUTF(entry.getKey());
+        out.writeInt(entry.getValue().size());
+        WorkerProtocol.writeStrings(out, env.getParameterOrder());
+        WorkerProtocol.writeStrings(out,
+            env.getPerformanceSchema().getIdentifiers());
+      }
+
+      out.flush();
+    }
+  }
+
+  /**
+   * Evaluate a parameter vector with an idle environment of the circuit
+   * 
+   * @param out               output stream
+   * @param pending           evaluations that were not started yet
+   * @param id                identifier of the evaluation
+   * @param circuit           name of the circuit
+   * @param vector            parameter vector
+   * @param blacklistAnalyses set of analyses to be ignored
+   * @param corners           set of corners to be simulated, the nominal
+   *                          corner is simulated when the set is empty
+   */
+  private void evaluate(final DataOutputStream out, final Set<Long> pending,
+      final long id, final String circuit, final double[] vector,
+      final Set<String> blacklistAnalyses, final Set<String> corners) {
+
+    final BlockingQueue<AnalogCircuitEnvironment> envs = this.idle
+        .get(circuit);
+
+    if (envs == null) {
+      if (pending.remove(id)) {
+        this.writeFailed(out, id, "Unknown circuit \"" + circuit + "\"");
+      }
+      return;
+    }
+
+    AnalogCircuitEnvironment env;
+
+    try {
+      env = envs.take();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return;
+    }
+
+    try {
+
+      // the evaluation was cancelled or the client disconnected
+      if (!pending.remove(id)) {
+        return;
+      }
+
+      if (!env.setVector(vector)) {
+        this.writeFailed(out, id, "Vector has " + vector.length
+            + " values, but " + env.getParameterOrder().size()
+            + " are expected");
+        return;
+      }
+
+      env.simulate(blacklistAnalyses, corners);
+
+      if (env.isCorrupted()) {
+        this.writeFailed(out, id,
+            SimulationFailedException.message(env.getCornerStatus()));
+        return;
+      }
+
+      final Map<String, double[]> results = new LinkedHashMap<>();
+
+      double[] values;
+
+      for (final String corner : env.getCorners()) {
+
+        values = env.getPerformanceArray(corner);
+
+        if (values != null) {
+          results.put(corner, values);
+        }
+      }
+
+      synchronized (out) {
+
+        out.writeByte(WorkerProtocol.RESULT);
+        out.writeLong(id);
+        out.writeInt(results.size());
+
+        for (final Entry<String, double[]> entry : results.entrySet()) {
+          out.writeUTF(entry.getKey());
+          WorkerProtocol.writeArray(out, entry.getValue());
+        }
+
+        out.flush();
+      }
+
+    } catch (final IOException e) {
+      // the client closed the connection
+    } catch (final RuntimeException e) {
+      this.writeFailed(out, id, e.toString());
+    } finally {
+      envs.add(env);
+    }
+  }
+
+  private void writeFailed(final DataOutputStream out, final long id,
+      final String message) {
+
+    try {
+      synchronized (out) {
+        out.writeByte(WorkerProtocol.FAILED);
+        out.writeLong(id);
+        out.writeUTF(message);
+        out.flush();
+      }
+    } catch (final IOException e) {
+      // the client closed the connection
+    }
+  }
+
+  /**
+   * Start a worker for the circuits of a backend. Each directory of the
+   * backend that contains a "properties.json" is hosted as circuit, the
+   * environment is selected by the property "environment".
+   * 
+   * @param args address and port (e.g. "192.168.0.10:4711", the loopback
+   *             address is used when only the port is given), directory for
+   *             simulation results, backend directory (e.g.
+   *             "./resource/sky130-1V8"), number of environments per circuit
+   *             and include directories
+   */
+  public static void main(final String[] args) {
+
+    if (args.length < 4) {
+      System.err.println("Usage: SimulationWorker [<address>:]<port> <simDir> "
+          + "<backendDir> <environments> [<includeDir> ...]");
+      System.exit(1);
+    }
+
+    final int separator = args[0].lastIndexOf(':');
+    final String address = separator < 0 ? null
+        : args[0].substring(0, separator);
+    final int port = Integer.parseInt(args[0].substring(separator + 1));
+    final String simDir = args[1];
+    final File backendDir = new File(args[2]);
+    final int instances = Integer.parseInt(args[3]);
+    final String[] includeDirs = Arrays.copyOfRange(args, 4, args.length);
+
+    final File[] circuitDirs = backendDir.listFiles((dir) -> new File(dir,
+        AnalogCircuitEnvironment.JSON_FILE_NAME).isFile());
+
+    if (circuitDirs == null) {
+      System.err.println("\"" + backendDir + "\" is not a directory");
+      System.exit(1);
+    }
+
+    Arrays.sort(circuitDirs);
+
+    final SimulationWorker worker = new SimulationWorker();
+
+    AnalogCircuitEnvironment env;
+    String environment;
+
+    for (final File circuitDir : circuitDirs) {
+
+      try {
+        environment = new JSONObject(new String(Files.readAllBytes(
+            new File(circuitDir, AnalogCircuitEnvironment.JSON_FILE_NAME)
+                .toPath()))).optString("environment");
+      } catch (final Exception e) {
+        System.err.println("Cannot read properties of \"" + circuitDir
+            + "\"");
+        continue;
+      }
+
+      for (int i = 0; i < instances; i++) {
+
+        switch (environment) {
+        case "SingleEndedOpampEnvironment":
+          env = SingleEndedOpampEnvironment.get(simDir,
+              circuitDir.toString(), includeDirs);
+          break;
+        case "Nand4Environment":
+          env = Nand4Environment.get(simDir, circuitDir.toString(),
+              includeDirs);
+          break;
+        case "SchmittTriggerEnvironment":
+          env = SchmittTriggerEnvironment.get(simDir, circuitDir.toString(),
+              includeDirs);
+          break;
+        default:
+          env = GenericEnvironment.get(simDir, circuitDir.toString(),
+              includeDirs);
+        }
+
+        if (env != null) {
+          worker.add(circuitDir.getName(), env.disableVerbose());
+        }
+      }
+    }
+
+    if (!worker.start(address, port)) {
+      System.exit(1);
+    }
+
+    Runtime.getRuntime().addShutdownHook(new Thread(worker::stop));
+
+    System.out.println("Worker listening on "
+        + worker.server.getInetAddress().getHostAddress() + ":"
+        + worker.getPort()
+        + " with circuits " + worker.circuits.keySet());
+
+    // the threads of the worker are daemons
+    try {
+      Thread.currentThread().join();
+    } catch (final InterruptedException e) {
+      worker.stop();
+    }
+  }
+}
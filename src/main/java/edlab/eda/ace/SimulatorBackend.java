@@ -0,0 +1,50 @@
+package edlab.eda.ace;
+
+import java.io.File;
+import java.util.Set;
+
+/**
+ * Simulator that is used by an {@link AnalogCircuitEnvironment} to simulate
+ * the corners of a circuit. A backend creates one {@link SimulatorSession}
+ * per corner.
+ * 
+ * @see SpectreBackend
+ * @see ReplayBackend
+ */
+public interface SimulatorBackend {
+
+  /**
+   * Create a new session. The simulator is started on demand by the first
+   * run or explicitly by {@link SimulatorSession#start()}.
+   * 
+   * @param name        name of the session
+   * @param netlist     netlist of the corner
+   * @param includeDirs include directories of the netlist
+   * @return session
+   */
+  SimulatorSession createSession(final String name, final File netlist,
+      final File[] includeDirs);
+
+  /**
+   * Get the analyses that the simulator can simulate with a netlist. Analyses
+   * of an environment that are not supported are ignored by the environment
+   * instead of being reported as failures.
+   * 
+   * @param netlist netlist of the corner
+   * @return set of analyses, <code>null</code> when all analyses are
+   *         supported
+   */
+  default Set<String> getSupportedAnalyses(final File netlist) {
+    return null;
+  }
+
+  /**
+   * Get an identifier of the simulator. Results of backends with different
+   * identifiers are never mixed in a {@link ResultStore}.
+   * 
+   * @return identifier
+   */
+  default String getIdentifier() {
+    return this.getClass().getName();
+  }
+}
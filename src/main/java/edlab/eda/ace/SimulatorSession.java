@@ -0,0 +1,105 @@
+package edlab.eda.ace;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import edlab.eda.reader.nutmeg.NutmegPlot;
+
+/**
+ * Session of a {@link SimulatorBackend} that simulates a single corner. The
+ * session keeps the values of the netlist parameters between runs.
+ */
+public interface SimulatorSession {
+
+  /**
+   * Get the working directory of the session
+   * 
+   * @return path to the working directory
+   */
+  String getWorkingDir();
+
+  /**
+   * Get the logfile of the simulator
+   * 
+   * @return logfile
+   */
+  File getLogFile();
+
+  /**
+   * Set the thread that owns the session. The session is stopped when the
+   * thread terminates.
+   * 
+   * @param parentThread parent thread
+   */
+  void setParentThread(final Thread parentThread);
+
+  /**
+   * Start the simulator
+   * 
+   * @return <code>true</code> when the simulator was started,
+   *         <code>false</code> otherwise
+   */
+  boolean start();
+
+  /**
+   * Stop the simulator. The session is started again on demand by the next
+   * run.
+   */
+  void stop();
+
+  /**
+   * Get the generation of the simulator. The generation changes whenever the
+   * simulator was started again without the values of the netlist parameters
+   * that were set before, e.g. after a crash or a timeout of the simulator.
+   * 
+   * @return generation
+   */
+  long getGeneration();
+
+  /**
+   * Set the value of a netlist parameter
+   * 
+   * @param name  name of the parameter
+   * @param value value of the parameter
+   * @return <code>true</code> when the value was set, <code>false</code>
+   *         otherwise
+   */
+  boolean setValueAttribute(final String name, final Object value);
+
+  /**
+   * Set the values of netlist parameters for the next run
+   * 
+   * @param values map of parameter values
+   */
+  void setValueAttributes(final Map<String, Object> values);
+
+  /**
+   * Set the analyses that are ignored by the next run
+   * 
+   * @param blacklistAnalyses set of analyses to be ignored
+   */
+  void setBlacklistAnalyses(final Set<String> blacklistAnalyses);
+
+  /**
+   * Run the simulator
+   */
+  void run();
+
+  /**
+   * Get the plots of the last run. A plot is returned for each analysis that
+   * was not ignored, unless the simulator failed.
+   * 
+   * @return list of plots
+   */
+  List<NutmegPlot> getPlots();
+
+  /**
+   * Get the value of a netlist attribute
+   * 
+   * @param name name of the attribute
+   * @return value, <code>Double.NaN</code> when the value is not available
+   */
+  double getNumericValueAttribute(final String name);
+}
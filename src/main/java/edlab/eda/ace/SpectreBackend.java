@@ -0,0 +1,60 @@
+package edlab.eda.ace;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import edlab.eda.cadence.rc.spectre.SpectreFactory;
+import edlab.eda.cadence.rc.spectre.SpectreInteractiveSession;
+
+/**
+ * Backend that simulates with interactive sessions of Cadence Spectre
+ */
+public final class SpectreBackend implements SimulatorBackend {
+
+  private final SpectreFactory factory;
+
+  /**
+   * Create a backend
+   * 
+   * @param factory factory of Spectre sessions
+   */
+  public SpectreBackend(final SpectreFactory factory) {
+    this.factory = factory;
+    this.factory.setTimeout(1, TimeUnit.MINUTES);
+  }
+
+  /**
+   * Get the factory of Spectre sessions
+   * 
+   * @return factory
+   */
+  public SpectreFactory getFactory() {
+    return this.factory;
+  }
+
+  @Override
+  public SimulatorSession createSession(final String name, final File netlist,
+      final File[] includeDirs) {
+
+    final SpectreInteractiveSession session = this.factory
+        .createInteractiveSession(name);
+
+    for (final File file : includeDirs) {
+      try {
+        session.addIncludeDirectory(file);
+      } catch (final FileNotFoundException e) {
+        e.printStackTrace();
+      }
+    }
+
+    try {
+      session.setNetlist(netlist);
+    } catch (final IOException e) {
+      e.printStackTrace();
+    }
+
+    return new SpectreSimulatorSession(session);
+  }
+}
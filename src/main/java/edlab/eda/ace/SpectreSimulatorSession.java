@@ -0,0 +1,128 @@
+package edlab.eda.ace;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import edlab.eda.cadence.rc.spectre.SpectreInteractiveSession;
+import edlab.eda.cadence.rc.spectre.SpectreSession;
+import edlab.eda.cadence.rc.spectre.UnableToStartSpectreSession;
+import edlab.eda.cadence.rc.spectre.parallel.SpectreInteractiveParallelHandle;
+import edlab.eda.reader.nutmeg.NutmegPlot;
+
+/**
+ * Session of a {@link SpectreBackend}
+ */
+final class SpectreSimulatorSession implements SimulatorSession {
+
+  private final SpectreInteractiveSession session;
+  private final SpectreInteractiveParallelHandle handle;
+
+  // simulator process of the current generation
+  private long pid = -1;
+  private long startTime = -1;
+  private long generation = 0;
+
+  SpectreSimulatorSession(final SpectreInteractiveSession session) {
+    this.session = session;
+    this.handle = new SpectreInteractiveParallelHandle(session);
+  }
+
+  @Override
+  public String getWorkingDir() {
+    return this.session.getWorkingDir();
+  }
+
+  @Override
+  public File getLogFile() {
+    return new File(this.session.getWorkingDir(), SpectreSession.LOG_FILENAME);
+  }
+
+  @Override
+  public void setParentThread(final Thread parentThread) {
+    this.session.setParentThread(parentThread);
+  }
+
+  @Override
+  public boolean start() {
+
+    try {
+      return this.session.start();
+    } catch (final UnableToStartSpectreSession e) {
+      return false;
+    }
+  }
+
+  @Override
+  public void stop() {
+    this.session.stop();
+  }
+
+  /**
+   * {@inheritDoc} The session restarts the simulator on its own after a crash
+   * or a timeout, hence the simulator process is identified before each run.
+   * A new generation is reported whenever the process cannot be identified.
+   */
+  @Override
+  public synchronized long getGeneration() {
+
+    if ((this.pid < 0)
+        || (SessionHealth.startTime(this.pid) != this.startTime)) {
+      this.pid = SessionHealth.findProcess(this.session.getWorkingDir());
+      this.startTime = SessionHealth.startTime(this.pid);
+      this.generation++;
+
+      if (this.startTime < 0) {
+        this.pid = -1;
+      }
+    }
+
+    return this.generation;
+  }
+
+  @Override
+  public boolean setValueAttribute(final String name, final Object value) {
+
+    try {
+      return this.session.setValueAttribute(name, value);
+    } catch (final Exception e) {
+      return false;
+    }
+  }
+
+  @Override
+  public void setValueAttributes(final Map<String, Object> values) {
+    this.handle.setValueAttributes(values);
+  }
+
+  @Override
+  public void setBlacklistAnalyses(final Set<String> blacklistAnalyses) {
+    this.handle.setBlackListAnalyses(blacklistAnalyses);
+  }
+
+  @Override
+  public void run() {
+    this.handle.run();
+  }
+
+  @Override
+  public List<NutmegPlot> getPlots() {
+    return this.handle.getPlots();
+  }
+
+  @Override
+  public double getNumericValueAttribute(final String name) {
+
+    try {
+      return this.session.getNumericValueAttribute(name).doubleValue();
+    } catch (final UnableToStartSpectreSession e) {
+
+      e.printStackTrace();
+
+      System.err.print(e.readLogfile());
+
+      return Double.NaN;
+    }
+  }
+}
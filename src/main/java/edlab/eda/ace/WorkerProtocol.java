@@ -0,0 +1,139 @@
+package edlab.eda.ace;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary protocol between a {@link SimulationWorker} and a
+ * {@link RemoteEnvironmentPool}. Each message starts with an opcode. The
+ * client opens the connection with {@link #MAGIC} and {@link #HELLO}, the
+ * worker answers with the description of its circuits. Afterwards, the
+ * client sends {@link #EVALUATE} and {@link #CANCEL} messages and the worker
+ * answers each evaluation with exactly one {@link #RESULT}, {@link #FAILED}
+ * or {@link #CANCELLED} message.
+ */
+final class WorkerProtocol {
+
+  /**
+   * First word of a connection
+   */
+  static final int MAGIC = 0x41434531;
+
+  /**
+   * Request and response of the description of all circuits of a worker
+   */
+  static final byte HELLO = 0;
+
+  /**
+   * Evaluation of a parameter vector with a set of ignored analyses in a set
+   * of corners
+   */
+  static final byte EVALUATE = 1;
+
+  /**
+   * Cancellation of an evaluation that was not started yet
+   */
+  static final byte CANCEL = 2;
+
+  /**
+   * Performances of an evaluation
+   */
+  static final byte RESULT = 3;
+
+  /**
+   * Failure or corrupted simulation of an evaluation
+   */
+  static final byte FAILED = 4;
+
+  /**
+   * Confirmation of a cancellation
+   */
+  static final byte CANCELLED = 5;
+
+  /**
+   * Maximal number of elements of a list or array in a message
+   */
+  static final int MAX_LENGTH = 1 << 20;
+
+  private WorkerProtocol() {
+  }
+
+  static void writeStrings(final DataOutputStream out,
+      final List<String> strings) throws IOException {
+
+    out.writeInt(strings.size());
+
+    for (final String string : strings) {
+      out.writeUTF(string);
+    }
+  }
+
+  static List<String> readStrings(final DataInputStream in)
+      throws IOException {
+
+    final int size = readLength(in, MAX_LENGTH);
+    final List<String> retval = new ArrayList<>(size);
+
+    for (int i = 0; i < size; i++) {
+      retval.add(in.readUTF());
+    }
+
+    return retval;
+  }
+
+  static void writeArray(final DataOutputStream out, final double[] values)
+      throws IOException {
+
+    out.writeInt(values.length);
+
+    for (final double value : values) {
+      out.writeDouble(value);
+    }
+  }
+
+  /**
+   * Read an array of values
+   * 
+   * @param in        input stream
+   * @param maxLength maximal number of values
+   * @return array
+   * @throws IOException when the array cannot be read or has more than
+   *                     <code>maxLength</code> values
+   */
+  static double[] readArray(final DataInputStream in, final int maxLength)
+      throws IOException {
+
+    final double[] retval = new double[readLength(in, maxLength)];
+
+    for (int i = 0; i < retval.length; i++) {
+      retval[i] = in.readDouble();
+    }
+
+    return retval;
+  }
+
+  /**
+   * Read the length prefix of a list or array, the length is not trusted
+   * since it is used to allocate memory
+   * 
+   * @param in        input stream
+   * @param maxLength maximal length
+   * @return length
+   * @throws IOException when the length is negative or exceeds
+   *                     <code>maxLength</code>
+   */
+  private static int readLength(final DataInputStream in,
+      final int maxLength) throws IOException {
+
+    final int length = in.readInt();
+
+    if ((length < 0) || (length > maxLength)) {
+      throw new IOException("Invalid length " + length);
+    }
+
+    return length;
+  }
+}
@@ -0,0 +1,62 @@
+package edlab.eda.ace;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class ExpressionTest {
+
+  private static double evaluate(final String text,
+      final Map<String, Double> values) {
+    return Expression.compile(text)
+        .extract(new AnalysisResults("dcop", null, values));
+  }
+
+  @Test
+  void arithmetic() {
+
+    final Map<String, Double> values = new HashMap<>();
+    values.put("vs", 0.9);
+    values.put("vsup", 1.8);
+
+    assertEquals(7.0, evaluate(" 1 + 2 * 3 ", values));
+    assertEquals(-1.0, evaluate("-(2 - 1)", values));
+    assertEquals(512.0, evaluate("2 ^ 3 ^ 2", values));
+    assertEquals(0.5, evaluate("vs / vsup", values));
+    assertEquals(1.2e-6, evaluate("1.2e-6 * max(vs, vsup) / 1.8", values),
+        1e-20);
+    assertEquals(20.0, evaluate("db20(-10)", values));
+    assertTrue(Double.isNaN(evaluate("unknown + 1", values)));
+  }
+
+  @Test
+  void constantsAreFolded() {
+
+    assertTrue(Expression.compile("sqrt(4) * (1 + 2)").isConstant());
+    assertFalse(Expression.compile("vs * (1 + 2)").isConstant());
+  }
+
+  @Test
+  void invalidExpressions() {
+
+    final String[] invalid = { "1 +", "(1 + 2", "foo(1)", "wave(\"OUT\")",
+        "wave(\"OUT\") - 1", "phase(wave(\"OUT\"))", "cross(\"OUT\", 1)",
+        "abs(1, 2)", "1 2" };
+
+    for (final String text : invalid) {
+      assertThrows(IllegalArgumentException.class,
+          () -> Expression.compile(text), text);
+    }
+  }
+
+  @Test
+  void missingResults() {
+
+    // no results are available, the extraction fails gracefully
+    assertTrue(Double.isNaN(evaluate("ymax(wave(\"OUT\")) - 1",
+        new HashMap<>())));
+  }
+}
@@ -0,0 +1,92 @@
+package edlab.eda.ace;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToDoubleFunction;
+
+import org.json.JSONObject;
+
+import edlab.eda.reader.nutmeg.NutmegPlot;
+
+/**
+ * Environment for tests that computes the performance <code>y</code> of the
+ * analysis <code>dc</code> with a function of the parameter values, such
+ * that the environment can be simulated with a {@link ReplayBackend}
+ */
+final class FunctionEnvironment extends AnalogCircuitEnvironment {
+
+  /**
+   * Analyses that are ignored when the backend returns no plots, an ignored
+   * analysis is not missing
+   */
+  static final Set<String> IGNORED = Collections.singleton("dc");
+
+  private final ToDoubleFunction<Map<String, Double>> function;
+
+  /**
+   * Create an environment without retries
+   * 
+   * @param backend    simulator backend
+   * @param parameters JSON description of the parameters
+   * @param function   function of the parameter values
+   */
+  FunctionEnvironment(final SimulatorBackend backend, final String parameters,
+      final ToDoubleFunction<Map<String, Double>> function) {
+    super(backend,
+        new JSONObject("{\"parameters\": " + parameters
+            + ", \"performances\": {\"dc\": {\"y\": {}}}}"),
+        new File(System.getProperty("java.io.tmpdir")), new File[0]);
+    this.function = function;
+    this.setMaxRetries(0);
+    this.disableVerbose();
+  }
+
+  @Override
+  protected void extract(final String corner, final List<NutmegPlot> plots,
+      final Map<String, Double> values, final Set<String> blacklistAnalyses,
+      final PerformanceVector performanceValues) {
+    performanceValues.put("y", this.function.applyAsDouble(values));
+  }
+
+  /**
+   * Create a backend that returns no plots
+   * 
+   * @return backend
+   */
+  static ReplayBackend emptyBackend() {
+    return new ReplayBackend((netlist, values) -> Collections.emptyList());
+  }
+
+  /**
+   * Create a backend that returns a recorded plot of the analysis
+   * <code>dc</code>
+   * 
+   * @return backend
+   * @throws IOException when the plot cannot be recorded
+   */
+  static ReplayBackend recordedBackend() throws IOException {
+
+    final File file = File.createTempFile("recorded", ".raw");
+
+    try {
+
+      Files.write(file.toPath(),
+          Arrays.asList("Title: ace test fixture",
+              "Date: 1:00:00 AM, Sat Jan 1, 2022",
+              "Plotname: DC Analysis `dc'", "Flags: real", "No. Variables: 1",
+              "No. Points: 1", "Variables:", "\t0\ty\tV", "Values:",
+              "0\t1.0"));
+
+      return ReplayBackend.getNutascii(file.toString());
+
+    } finally {
+      Files.delete(file.toPath());
+    }
+  }
+}
@@ -0,0 +1,110 @@
+package edlab.eda.ace;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class LicenseBudgetTest {
+
+  private static void awaitQueueLength(final LicenseBudget budget,
+      final int length) throws InterruptedException {
+
+    final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+
+    while (budget.getQueueLength() < length) {
+      assertTrue(System.nanoTime() < deadline);
+      Thread.sleep(1);
+    }
+  }
+
+  @Test
+  void waitersAreServedInOrder() throws Exception {
+
+    final LicenseBudget budget = new LicenseBudget(1);
+    final List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+    final List<CompletableFuture<Void>> waiters = new ArrayList<>();
+
+    budget.acquire();
+
+    for (int i = 0; i < 3; i++) {
+
+      final int waiter = i;
+
+      waiters.add(CompletableFuture.runAsync(() -> {
+        try {
+          budget.acquire();
+          order.add(waiter);
+          budget.release();
+        } catch (final InterruptedException e) {
+          throw new IllegalStateException(e);
+        }
+      }, (runnable) -> new Thread(runnable).start()));
+
+      awaitQueueLength(budget, i + 1);
+    }
+
+    budget.release();
+
+    for (final CompletableFuture<Void> waiter : waiters) {
+      waiter.get(10, TimeUnit.SECONDS);
+    }
+
+    assertEquals(Arrays.asList(0, 1, 2), order);
+  }
+
+  @Test
+  void idleLeasesAreRevoked() throws Exception {
+
+    final LicenseBudget budget = new LicenseBudget(1);
+    final AtomicInteger stopped = new AtomicInteger();
+
+    final LicenseBudget.Lease first = budget.lease(stopped::incrementAndGet);
+    final LicenseBudget.Lease second = budget.lease(stopped::incrementAndGet);
+
+    first.activate();
+    assertEquals(0, budget.getAvailableTokens());
+
+    // the token of an active lease is not revoked
+    final CompletableFuture<Long> waiting = CompletableFuture.supplyAsync(() -> {
+      try {
+        return second.activate();
+      } catch (final InterruptedException e) {
+        throw new IllegalStateException(e);
+      }
+    });
+
+    awaitQueueLength(budget, 1);
+    assertFalse(waiting.isDone());
+
+    // the idle simulator is stopped, since a simulation waits for its token
+    first.deactivate();
+    assertTrue(waiting.get(10, TimeUnit.SECONDS) > 0);
+    assertEquals(1, stopped.get());
+
+    second.deactivate();
+    assertEquals(1, budget.getIdleTokens());
+
+    // an idle lease keeps its token
+    assertEquals(0, second.activate());
+    second.deactivate();
+
+    second.release();
+    assertEquals(0, budget.getIdleTokens());
+    assertEquals(1, budget.getAvailableTokens());
+    assertEquals(1, stopped.get());
+
+    // a released lease acquires a new token
+    first.activate();
+    assertEquals(0, budget.getAvailableTokens());
+    first.release();
+    assertEquals(1, budget.getAvailableTokens());
+  }
+}
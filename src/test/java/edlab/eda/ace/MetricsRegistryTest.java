@@ -0,0 +1,47 @@
+package edlab.eda.ace;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class MetricsRegistryTest {
+
+  @Test
+  void histogram() {
+
+    final MetricsRegistry registry = new MetricsRegistry();
+
+    for (int i = 1; i <= 100; i++) {
+      registry.record("op1", "nom", null, SimulationPhase.SIMULATION,
+          i * 1000L);
+    }
+
+    registry.record("op1", "nom", "dcop", SimulationPhase.EXTRACTION, 10);
+    registry.record("op2", null, null, SimulationPhase.ALLOCATION, 10);
+
+    assertEquals(102, registry.getRecordings());
+    assertEquals(3, registry.getStatistics().size());
+
+    final List<PhaseStatistics> statistics = registry.getStatistics("op1");
+
+    assertEquals(2, statistics.size());
+
+    final PhaseStatistics simulation = statistics.get(0);
+
+    assertEquals(SimulationPhase.SIMULATION, simulation.getPhase());
+    assertNull(simulation.getAnalysis());
+    assertEquals(100, simulation.getCount());
+    assertEquals(50500, simulation.getMeanTime());
+    assertEquals(100000, simulation.getMaxTime());
+
+    // upper bound of the bucket [32768, 65535]
+    assertEquals(65535, simulation.getMedianTime());
+    assertEquals(100000, simulation.getP99Time());
+
+    registry.reset();
+
+    assertTrue(registry.getStatistics().isEmpty());
+  }
+}
@@ -0,0 +1,42 @@
+package edlab.eda.ace;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class NgspiceBackendTest {
+
+  @Test
+  void analysesAreReadInOrder() throws IOException {
+
+    final File netlist = File.createTempFile("input", ".spice");
+
+    try {
+
+      Files.write(netlist.toPath(),
+          Arrays.asList("* nand4", ".param vdd = 1.8",
+              "*ace dc1 dc vin 0 1.8 0.01", "*ace dc1 let O = v(o)",
+              "*ace dc0   dc vin 0 1.8 0.01", "*acedc2 dc vin 0 1.8 0.01",
+              "* ace dc3 dc vin 0 1.8 0.01", ".end"));
+
+      final Map<String, List<String>> analyses = NgspiceBackend
+          .readAnalyses(netlist);
+
+      assertEquals(Arrays.asList("dc1", "dc0"),
+          Arrays.asList(analyses.keySet().toArray()));
+      assertEquals(Arrays.asList("dc vin 0 1.8 0.01", "let O = v(o)"),
+          analyses.get("dc1"));
+      assertEquals(Arrays.asList("dc vin 0 1.8 0.01"), analyses.get("dc0"));
+
+    } finally {
+      Files.delete(netlist.toPath());
+    }
+  }
+}
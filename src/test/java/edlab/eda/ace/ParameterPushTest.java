@@ -0,0 +1,147 @@
+package edlab.eda.ace;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import edlab.eda.reader.nutmeg.NutmegPlot;
+
+class ParameterPushTest {
+
+  private static final String PARAMETERS = "{"
+      + "\"a\": {\"min\": 0, \"max\": 10, \"init\": 1, \"sizing\": true}, "
+      + "\"b\": {\"min\": 0, \"max\": 10, \"init\": 2, \"sizing\": true}, "
+      + "\"vs\": {\"init\": 0.5}}";
+
+  /**
+   * Backend that records the values that are pushed to its sessions
+   */
+  private static final class RecordingBackend implements SimulatorBackend {
+
+    private final ReplayBackend backend = FunctionEnvironment.emptyBackend();
+
+    private final List<Map<String, Object>> pushes = new ArrayList<>();
+
+    // restarts of the simulators that were not triggered by the environment
+    private long restarts = 0;
+
+    @Override
+    public SimulatorSession createSession(final String name,
+        final File netlist, final File[] includeDirs) {
+
+      final SimulatorSession session = this.backend.createSession(name,
+          netlist, includeDirs);
+
+      return new SimulatorSession() {
+
+        @Override
+        public String getWorkingDir() {
+          return session.getWorkingDir();
+        }
+
+        @Override
+        public File getLogFile() {
+          return session.getLogFile();
+        }
+
+        @Override
+        public void setParentThread(final Thread parentThread) {
+        }
+
+        @Override
+        public boolean start() {
+          return session.start();
+        }
+
+        @Override
+        public void stop() {
+          session.stop();
+        }
+
+        @Override
+        public long getGeneration() {
+          return session.getGeneration() + RecordingBackend.this.restarts;
+        }
+
+        @Override
+        public boolean setValueAttribute(final String name,
+            final Object value) {
+          return session.setValueAttribute(name, value);
+        }
+
+        @Override
+        public void setValueAttributes(final Map<String, Object> values) {
+          RecordingBackend.this.pushes.add(new HashMap<>(values));
+          session.setValueAttributes(values);
+        }
+
+        @Override
+        public void setBlacklistAnalyses(final Set<String> blacklistAnalyses) {
+          session.setBlacklistAnalyses(blacklistAnalyses);
+        }
+
+        @Override
+        public void run() {
+          session.run();
+        }
+
+        @Override
+        public List<NutmegPlot> getPlots() {
+          return session.getPlots();
+        }
+
+        @Override
+        public double getNumericValueAttribute(final String name) {
+          return session.getNumericValueAttribute(name);
+        }
+      };
+    }
+  }
+
+  @Test
+  void onlyChangedValuesArePushed() {
+
+    final RecordingBackend backend = new RecordingBackend();
+    // y = a + b
+    final FunctionEnvironment env = new FunctionEnvironment(backend,
+        PARAMETERS, (values) -> values.get("a") + values.get("b"));
+
+    env.simulate(FunctionEnvironment.IGNORED);
+    assertEquals(3, backend.pushes.get(0).size());
+    assertEquals(Double.valueOf(3), env.getPerformanceValues().get("y"));
+
+    env.set("b", 4);
+    env.simulate(FunctionEnvironment.IGNORED);
+    assertEquals(Collections.singletonMap("b", 4.0), backend.pushes.get(1));
+    assertEquals(Double.valueOf(5), env.getPerformanceValues().get("y"));
+
+    env.simulate(FunctionEnvironment.IGNORED);
+    assertTrue(backend.pushes.get(2).isEmpty());
+    assertEquals(Double.valueOf(5), env.getPerformanceValues().get("y"));
+
+    // a stopped session receives all values again
+    env.stop();
+    env.set("a", 2);
+    env.simulate(FunctionEnvironment.IGNORED);
+    assertEquals(3, backend.pushes.get(3).size());
+    assertEquals(Double.valueOf(6), env.getPerformanceValues().get("y"));
+
+    // a session that restarted its simulator receives all values again
+    backend.restarts++;
+    env.simulate(FunctionEnvironment.IGNORED);
+    assertEquals(3, backend.pushes.get(4).size());
+
+    env.set("a", 3);
+    env.simulate(FunctionEnvironment.IGNORED);
+    assertEquals(Collections.singletonMap("a", 3.0), backend.pushes.get(5));
+    assertEquals(6, backend.pushes.size());
+  }
+}
@@ -0,0 +1,99 @@
+package edlab.eda.ace;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.SplittableRandom;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+class ParameterSamplerTest {
+
+  public static final int NUM_OF_POINTS = 256;
+
+  private static ParameterSampler sampler(final long seed) {
+
+    final Parameter[] parameters = new Parameter[4];
+
+    for (int i = 0; i < parameters.length; i++) {
+
+      final JSONObject jsonObj = new JSONObject();
+
+      jsonObj.put("min", 0.0);
+      jsonObj.put("max", 1.0);
+      jsonObj.put("init", 0.5);
+      // the last parameter is not sampled
+      jsonObj.put("sizing", i < (parameters.length - 1));
+
+      parameters[i] = Parameter.get("p" + i, jsonObj);
+    }
+
+    return new ParameterSampler(parameters, new double[] { 0, 0, 0, 0.5 },
+        new SplittableRandom(seed));
+  }
+
+  private static void assertStratified(final double[][] points) {
+
+    for (int d = 0; d < 3; d++) {
+
+      final boolean[] occupied = new boolean[points.length];
+
+      for (final double[] point : points) {
+
+        final int stratum = (int) (point[d] * points.length);
+
+        assertFalse(occupied[stratum], "dimension " + d);
+        occupied[stratum] = true;
+      }
+    }
+
+    for (final double[] point : points) {
+      assertEquals(0.5, point[3]);
+    }
+  }
+
+  @Test
+  void latinHypercubeIsStratified() {
+    assertStratified(sampler(1).latinHypercube(NUM_OF_POINTS));
+  }
+
+  @Test
+  void sobolIsStratified() {
+
+    final ParameterSampler sampler = sampler(2);
+
+    assertStratified(sampler.sobol(NUM_OF_POINTS));
+
+    // the next points of the sequence are stratified again
+    assertStratified(sampler.sobol(NUM_OF_POINTS));
+  }
+
+  @Test
+  void designsAreReproducible() {
+
+    assertArrayEquals(sampler(3).sobol(NUM_OF_POINTS),
+        sampler(3).sobol(NUM_OF_POINTS));
+    assertArrayEquals(sampler(3).split().latinHypercube(NUM_OF_POINTS),
+        sampler(3).split().latinHypercube(NUM_OF_POINTS));
+
+    final ParameterSampler sampler = sampler(3);
+
+    assertNotEquals(sampler.split().random(1)[0][0],
+        sampler.split().random(1)[0][0]);
+  }
+
+  @Test
+  void primitivePolynomials() {
+
+    // x+1, x^2+x+1, x^3+x+1, x^3+x^2+1, x^4+x+1, x^4+x^3+1
+    final long[] expected = { 3, 7, 11, 13, 19, 25 };
+
+    int i = 0;
+
+    for (long polynomial = 2; i < expected.length; polynomial++) {
+      if (ParameterSampler.isPrimitive(polynomial)) {
+        assertEquals(expected[i++], polynomial);
+      }
+    }
+  }
+}
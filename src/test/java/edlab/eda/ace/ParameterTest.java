@@ -0,0 +1,125 @@
+package edlab.eda.ace;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+class ParameterTest {
+
+  public static final int NUM_OF_TESTS = 10000;
+
+  private static Parameter parameter(final double min, final double max,
+      final double grid) {
+
+    final JSONObject jsonObj = new JSONObject();
+
+    jsonObj.put("min", min);
+    jsonObj.put("max", max);
+    jsonObj.put("init", min);
+    jsonObj.put("sizing", true);
+
+    if (!Double.isNaN(grid)) {
+      jsonObj.put("grid", grid);
+    }
+
+    return Parameter.get("p", jsonObj);
+  }
+
+  @Test
+  void gridIsIdenticalToReference() {
+
+    final double[][] configurations = { { 1e-7, 1e-5, 1e-8 },
+        { 0.0, 1.0, 0.1 }, { 2e-7, 2.5e-5, 5e-9 }, { 1e-6, 1e-4, 1e-7 },
+        { -1.0, 1.0, 0.05 }, { 1.0, 20.0, 1.0 }, { 0.4, 1.8, 0.001 },
+        { 3.3e-12, 1e-9, 1.1e-13 } };
+
+    final Random random = new Random(42);
+
+    Parameter parameter;
+    double min;
+    double max;
+    double grid;
+    double value;
+
+    for (final double[] configuration : configurations) {
+
+      min = configuration[0];
+      max = configuration[1];
+      grid = configuration[2];
+
+      parameter = parameter(min, max, grid);
+
+      for (int i = 0; i < NUM_OF_TESTS; i++) {
+
+        if ((i % 4) == 0) {
+          // values exactly between two grid points
+          value = min + (grid * (random.nextInt((int) ((max - min) / grid))
+              + 0.5));
+        } else {
+          value = min - grid + ((max - min + (2 * grid)) * random.nextDouble());
+        }
+
+        assertEquals(
+            Double.doubleToLongBits(parameter.getValidValueExact(value)),
+            Double.doubleToLongBits(parameter.getValidValue(value)),
+            "value=" + value + ", min=" + min + ", grid=" + grid);
+      }
+    }
+  }
+
+  @Test
+  void fineGridIsIdenticalToReference() {
+
+    // the number of steps is close to the limit of the fast path
+    final double[][] configurations = { { 0.123456789, 1.0, 1e-12 },
+        { 0.3, 1.0, 1e-12 }, { 0.7, 50.0, 1e-10 }, { -0.3, 0.4, 7e-13 } };
+
+    final Random random = new Random(42);
+
+    Parameter parameter;
+    double min;
+    double max;
+    double grid;
+    double value;
+
+    for (final double[] configuration : configurations) {
+
+      min = configuration[0];
+      max = configuration[1];
+      grid = configuration[2];
+
+      parameter = parameter(min, max, grid);
+
+      for (int i = 0; i < (5 * NUM_OF_TESTS); i++) {
+
+        value = min + ((max - min) * random.nextDouble());
+
+        if ((i % 2) == 0) {
+          // values close to the middle between two grid points
+          value = min + (grid * (Math.floor((value - min) / grid) + 0.5));
+        }
+
+        assertEquals(
+            Double.doubleToLongBits(parameter.getValidValueExact(value)),
+            Double.doubleToLongBits(parameter.getValidValue(value)),
+            "value=" + value + ", min=" + min + ", grid=" + grid);
+      }
+    }
+
+    assertEquals(0.249523108324,
+        parameter(0.123456789, 1.0, 1e-12).getValidValue(0.2495231083235));
+  }
+
+  @Test
+  void noGridOnlyClipsValue() {
+
+    final Parameter parameter = parameter(1.0, 2.0, Double.NaN);
+
+    assertEquals(1.5, parameter.getValidValue(1.5));
+    assertEquals(1.0, parameter.getValidValue(0.5));
+    assertEquals(2.0, parameter.getValidValue(2.5));
+  }
+}
@@ -0,0 +1,202 @@
+package edlab.eda.ace;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class RemoteEnvironmentPoolTest {
+
+  private static final String PARAMETERS = "{\"x\": "
+      + "{\"min\": -1000, \"max\": 1000, \"init\": 0, \"sizing\": true}}";
+
+  private static final Set<String> CORNERS = Collections
+      .singleton(AnalogCircuitEnvironment.NOMINAL_DEFAULT);
+
+  private final List<SimulationWorker> workers = new ArrayList<>();
+  private final List<SimulationScheduler> schedulers = new ArrayList<>();
+  private final RemoteEnvironmentPool pool = new RemoteEnvironmentPool();
+
+  private ReplayBackend startWorker(final int environments,
+      final long latency) {
+
+    final ReplayBackend backend = FunctionEnvironment.emptyBackend()
+        .setLatency(latency, TimeUnit.MILLISECONDS);
+
+    // each worker simulates a separate host
+    final SimulationScheduler scheduler = new SimulationScheduler(
+        environments);
+    final SimulationWorker worker = new SimulationWorker();
+
+    // y = 2x
+    for (int i = 0; i < environments; i++) {
+      assertTrue(worker.add("linear",
+          new FunctionEnvironment(backend, PARAMETERS,
+              (values) -> 2 * values.get("x")).setScheduler(scheduler)));
+    }
+
+    this.schedulers.add(scheduler);
+
+    assertTrue(worker.start(0));
+    this.workers.add(worker);
+
+    assertTrue(this.pool.connect("localhost", worker.getPort()));
+
+    return backend;
+  }
+
+  private List<CompletableFuture<Map<String, Map<String, Double>>>> submit(
+      final int size) {
+
+    final List<CompletableFuture<Map<String, Map<String, Double>>>> futures = new ArrayList<>();
+
+    for (int i = 0; i < size; i++) {
+      futures.add(
+          this.pool.submit("linear", new double[] { i },
+          FunctionEnvironment.IGNORED, CORNERS));
+    }
+
+    return futures;
+  }
+
+  private static void verify(
+      final List<CompletableFuture<Map<String, Map<String, Double>>>> futures) {
+
+    for (int i = 0; i < futures.size(); i++) {
+      assertEquals(Double.valueOf(2.0 * i),
+          futures.get(i).join().get(AnalogCircuitEnvironment.NOMINAL_DEFAULT)
+              .get("y"));
+    }
+  }
+
+  @AfterEach
+  void close() {
+
+    this.pool.close();
+
+    for (final SimulationWorker worker : this.workers) {
+      worker.stop();
+    }
+
+    for (final SimulationScheduler scheduler : this.schedulers) {
+      scheduler.shutdown();
+    }
+  }
+
+  @Test
+  void evaluationsAreDistributed() {
+
+    final ReplayBackend first = this.startWorker(2, 5);
+    final ReplayBackend second = this.startWorker(2, 5);
+
+    assertEquals(2, this.pool.getNumOfWorkers());
+    assertEquals(Collections.singletonList("x"),
+        this.pool.getParameterOrder("linear"));
+    assertNull(this.pool.submit("linear", new double[] { 1, 2 }));
+    assertNull(this.pool.submit("unknown", new double[] { 1 }));
+
+    verify(this.submit(40));
+
+    assertEquals(40, first.getNumOfRuns() + second.getNumOfRuns());
+    assertTrue(first.getNumOfRuns() > 0);
+    assertTrue(second.getNumOfRuns() > 0);
+  }
+
+  @Test
+  void idleWorkersSteal() {
+
+    this.pool.setPrefetch(10);
+
+    final ReplayBackend slow = this.startWorker(1, 500);
+
+    final List<CompletableFuture<Map<String, Map<String, Double>>>> futures = this
+        .submit(6);
+
+    // all evaluations are prefetched by the slow worker
+    final ReplayBackend fast = this.startWorker(1, 0);
+
+    verify(futures);
+
+    assertTrue(slow.getNumOfRuns() <= 2);
+    assertEquals(6, slow.getNumOfRuns() + fast.getNumOfRuns());
+  }
+
+  @Test
+  void lostEvaluationsAreReassigned() {
+
+    this.startWorker(2, 20);
+    final ReplayBackend second = this.startWorker(2, 20);
+
+    final List<CompletableFuture<Map<String, Map<String, Double>>>> futures = this
+        .submit(40);
+
+    futures.get(0).join();
+    this.workers.get(0).stop();
+
+    verify(futures);
+
+    assertEquals(1, this.pool.getNumOfWorkers());
+    assertTrue(second.getNumOfRuns() > 20);
+  }
+
+  @Test
+  void corruptedEvaluationsFail() {
+
+    this.startWorker(1, 0);
+
+    final CompletionException e = assertThrows(CompletionException.class,
+        () -> this.pool.submit("linear", new double[] { 1 }).join());
+
+    assertTrue(e.getCause().getMessage().startsWith("Simulation is corrupted"));
+  }
+
+  /**
+   * Send an evaluation with a length prefix of the vector to a worker
+   */
+  private void evaluate(final int length) throws IOException {
+
+    try (Socket socket = new Socket("localhost",
+        this.workers.get(0).getPort())) {
+
+      socket.setSoTimeout(10000);
+
+      final DataOutputStream out = new DataOutputStream(
+          socket.getOutputStream());
+
+      out.writeInt(WorkerProtocol.MAGIC);
+      out.writeByte(WorkerProtocol.EVALUATE);
+      out.writeLong(0);
+      out.writeUTF("linear");
+      out.writeInt(length);
+      out.flush();
+
+      // the worker closes the connection
+      assertEquals(-1, new DataInputStream(socket.getInputStream()).read());
+    }
+  }
+
+  @Test
+  void invalidFramesAreRejected() throws IOException {
+
+    this.startWorker(1, 0);
+
+    this.evaluate(-1);
+    this.evaluate(2);
+    this.evaluate(Integer.MAX_VALUE);
+
+    verify(this.submit(4));
+  }
+}
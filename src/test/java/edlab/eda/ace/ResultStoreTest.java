@@ -0,0 +1,168 @@
+package edlab.eda.ace;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ResultStoreTest {
+
+  private static final String[] PARAMETERS = { "a", "b" };
+  private static final PerformanceSchema SCHEMA = new PerformanceSchema(
+      new HashSet<>(Arrays.asList("x", "y")));
+  private static final Set<String> IGNORED = Collections.singleton("ac");
+
+  private File dir;
+
+  @BeforeEach
+  void createDirectory() throws IOException {
+    this.dir = Files.createTempDirectory("store").toFile();
+  }
+
+  @AfterEach
+  void deleteDirectory() throws IOException {
+    FileUtils.deleteDirectory(this.dir);
+  }
+
+  private ResultStore open(final String... parameters) throws IOException {
+    return ResultStore.open(this.dir, "circuit", "0", parameters, SCHEMA);
+  }
+
+  @Test
+  void resultsAreReadFromTheFile() throws IOException {
+
+    ResultStore store = this.open(PARAMETERS);
+
+    store.put("nom", IGNORED, new double[] { 1, 2 }, new double[] { 3, 4 });
+    store.put("nom", null, new double[] { 1, 2 }, new double[] { 5, 6 });
+    store.close();
+
+    store = this.open(PARAMETERS);
+
+    assertEquals(2, store.size());
+    assertArrayEquals(new double[] { 3, 4 },
+        store.get("nom", IGNORED, new double[] { 1, 2 }));
+    assertArrayEquals(new double[] { 5, 6 },
+        store.get("nom", new HashSet<String>(), new double[] { 1, 2 }));
+    assertNull(store.get("slow", IGNORED, new double[] { 1, 2 }));
+    assertNull(store.get("nom", IGNORED, new double[] { 1, 3 }));
+
+    store.close();
+  }
+
+  @Test
+  void truncatedRecordsAreDiscarded() throws IOException {
+
+    ResultStore store = this.open(PARAMETERS);
+
+    store.put("nom", IGNORED, new double[] { 1, 2 }, new double[] { 3, 4 });
+    store.put("nom", IGNORED, new double[] { 2, 2 }, new double[] { 5, 6 });
+
+    final File file = store.getFile();
+    final long length = file.length();
+
+    store.close();
+
+    // the last record was interrupted
+    try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+      raf.setLength(length - 3);
+    }
+
+    store = this.open(PARAMETERS);
+
+    assertEquals(1, store.size());
+    assertNull(store.get("nom", IGNORED, new double[] { 2, 2 }));
+
+    store.put("nom", IGNORED, new double[] { 2, 2 }, new double[] { 7, 8 });
+    store.close();
+
+    store = this.open(PARAMETERS);
+
+    assertEquals(2, store.size());
+    assertArrayEquals(new double[] { 3, 4 },
+        store.get("nom", IGNORED, new double[] { 1, 2 }));
+    assertArrayEquals(new double[] { 7, 8 },
+        store.get("nom", IGNORED, new double[] { 2, 2 }));
+
+    store.close();
+  }
+
+  @Test
+  void mismatchingHeadersAreReplaced() throws IOException {
+
+    ResultStore store = this.open(PARAMETERS);
+
+    store.put("nom", IGNORED, new double[] { 1, 2 }, new double[] { 3, 4 });
+
+    // a shared instance is not returned for other parameters
+    assertThrows(IOException.class, () -> this.open("b", "a"));
+
+    store.close();
+
+    store = this.open("b", "a");
+    assertEquals(0, store.size());
+    store.close();
+
+    store = this.open(PARAMETERS);
+    assertEquals(0, store.size());
+    store.close();
+  }
+
+  @Test
+  void storesAreSharedUntilClosed() throws IOException {
+
+    final ResultStore first = this.open(PARAMETERS);
+    final ResultStore second = this.open(PARAMETERS);
+
+    assertSame(first, second);
+
+    first.close();
+    second.put("nom", IGNORED, new double[] { 1, 2 }, new double[] { 3, 4 });
+    second.close();
+
+    final ResultStore third = this.open(PARAMETERS);
+
+    assertNotSame(first, third);
+    assertEquals(1, third.size());
+
+    third.close();
+  }
+
+  @Test
+  void environmentsReuseStoredResults() {
+
+    final String parameters = "{\"a\": {\"init\": 1, \"sizing\": true}}";
+
+    final FunctionEnvironment first = new FunctionEnvironment(
+        FunctionEnvironment.emptyBackend(), parameters,
+        (values) -> 2 * values.get("a"));
+
+    assertTrue(first.enableResultStore(this.dir.toString()));
+    first.simulate(FunctionEnvironment.IGNORED);
+    first.stop();
+
+    final ReplayBackend backend = FunctionEnvironment.emptyBackend();
+    final FunctionEnvironment second = new FunctionEnvironment(backend,
+        parameters, (values) -> 2 * values.get("a"));
+
+    assertTrue(second.enableResultStore(this.dir.toString()));
+    second.simulate(FunctionEnvironment.IGNORED);
+
+    assertEquals(0, backend.getNumOfRuns());
+    assertEquals(Double.valueOf(2), second.getPerformanceValues().get("y"));
+
+    second.disableResultStore();
+    assertNull(second.getResultStore());
+  }
+}
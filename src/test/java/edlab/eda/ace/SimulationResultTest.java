@@ -0,0 +1,212 @@
+package edlab.eda.ace;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class SimulationResultTest {
+
+  private static final String PARAMETERS = "{"
+      + "\"a\": {\"min\": 0, \"max\": 10, \"grid\": 0.5, \"init\": 1, "
+      + "\"sizing\": true}, \"b\": {\"min\": 0, \"max\": 10, \"init\": 2, "
+      + "\"sizing\": true}}";
+
+  /**
+   * Create an environment that computes <code>y = a * b</code>
+   */
+  private static FunctionEnvironment product(final SimulatorBackend backend) {
+    return new FunctionEnvironment(backend, PARAMETERS,
+        (values) -> values.get("a") * values.get("b"));
+  }
+
+  @Test
+  void asyncSimulationsReturnSnapshots() {
+
+    final FunctionEnvironment env = product(FunctionEnvironment
+        .emptyBackend().setLatency(5, TimeUnit.MILLISECONDS));
+
+    assertNull(env.simulateAsync(new double[] { 1 }));
+
+    final List<CompletableFuture<SimulationResult>> futures = new ArrayList<>();
+
+    // all vectors are submitted before the first simulation is finished
+    for (int i = 0; i < 10; i++) {
+      futures.add(env.simulateAsync(new double[] { i + 0.2, 3 },
+          FunctionEnvironment.IGNORED, null));
+    }
+
+    SimulationResult result;
+
+    for (int i = 0; i < futures.size(); i++) {
+
+      result = futures.get(i).join();
+
+      assertArrayEquals(new double[] { i, 3 }, result.getVector());
+      assertEquals(Arrays.asList("a", "b"), result.getParameterOrder());
+      assertEquals(Double.valueOf(3 * i), result
+          .getPerformanceValues(AnalogCircuitEnvironment.NOMINAL_DEFAULT)
+          .get("y"));
+      assertFalse(result.isCorrupted());
+      assertFalse(result
+          .getCornerStatus(AnalogCircuitEnvironment.NOMINAL_DEFAULT)
+          .isFailed());
+      assertTrue(result
+          .getPhaseTimes(AnalogCircuitEnvironment.NOMINAL_DEFAULT)
+          .get(SimulationPhase.SIMULATION) >= TimeUnit.MILLISECONDS
+              .toNanos(5));
+    }
+
+    // the parameters of the environment are not changed
+    assertArrayEquals(new double[] { 1, 2 }, env.getVector());
+  }
+
+  @Test
+  void cachedSimulationsDoNotWait() {
+
+    final FunctionEnvironment env = product(
+        FunctionEnvironment.emptyBackend());
+
+    env.enableCache(4);
+
+    env.simulate(FunctionEnvironment.IGNORED);
+    assertTrue(env.getLicenseWaitTimes()
+        .containsKey(AnalogCircuitEnvironment.NOMINAL_DEFAULT));
+
+    // the second simulation is answered by the cache
+    env.simulate(FunctionEnvironment.IGNORED);
+    assertTrue(env.getLicenseWaitTimes().isEmpty());
+    assertEquals(Double.valueOf(2), env.getPerformanceValues().get("y"));
+  }
+
+  @Test
+  void batchWaitTimesAreSummed() throws InterruptedException {
+
+    final FunctionEnvironment env = product(
+        FunctionEnvironment.emptyBackend());
+    final LicenseBudget budget = new LicenseBudget(1);
+
+    env.setLicenseBudget(budget);
+    budget.acquire();
+
+    final CompletableFuture<List<Map<String, Map<String, Double>>>> batch = CompletableFuture
+        .supplyAsync(() -> env.simulateBatch(
+            Arrays.asList(Collections.singletonMap("a", 2.0),
+                Collections.singletonMap("a", 3.0)),
+            FunctionEnvironment.IGNORED, null));
+
+    final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+
+    while (budget.getQueueLength() == 0) {
+      assertTrue(System.nanoTime() < deadline);
+      Thread.sleep(1);
+    }
+
+    // only the first point waits for the token
+    Thread.sleep(50);
+    budget.release();
+
+    assertEquals(2, batch.join().size());
+    assertTrue(env.getLicenseWaitTimes()
+        .get(AnalogCircuitEnvironment.NOMINAL_DEFAULT) >= TimeUnit.MILLISECONDS
+            .toNanos(50));
+  }
+
+  @Test
+  void cacheIsClearedWithBackend() {
+
+    final FunctionEnvironment env = product(
+        FunctionEnvironment.emptyBackend());
+
+    env.enableCache(4);
+
+    env.simulate(FunctionEnvironment.IGNORED);
+    env.simulate(FunctionEnvironment.IGNORED);
+    assertEquals(1, env.getCache().getStatistics().getHits());
+
+    // the sizing is simulated again by the new backend
+    final ReplayBackend backend = FunctionEnvironment.emptyBackend();
+
+    env.setBackend(backend);
+    env.simulate(FunctionEnvironment.IGNORED);
+
+    assertEquals(1, backend.getNumOfRuns());
+    assertEquals(Double.valueOf(2), env.getPerformanceValues().get("y"));
+  }
+
+  @Test
+  void extractionIsExecutedByTheScheduler() {
+
+    final Set<String> threads = ConcurrentHashMap.newKeySet();
+    final SimulationScheduler scheduler = new SimulationScheduler(1);
+
+    try {
+
+      final FunctionEnvironment env = new FunctionEnvironment(
+          FunctionEnvironment.emptyBackend(), PARAMETERS, (values) -> {
+            threads.add(Thread.currentThread().getName());
+            return values.get("a") * values.get("b");
+          });
+
+      env.setScheduler(scheduler);
+      env.simulate(FunctionEnvironment.IGNORED);
+
+      assertEquals(1, threads.size());
+      assertTrue(threads.iterator().next().startsWith("ace-simulation"));
+
+    } finally {
+      scheduler.shutdown();
+    }
+  }
+
+  @Test
+  void simulationsOnASchedulerKeepTheScheduler() throws IOException {
+
+    final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+    final SimulationScheduler scheduler = new SimulationScheduler(1);
+
+    try {
+
+      final FunctionEnvironment env = new FunctionEnvironment(
+          FunctionEnvironment.recordedBackend(), PARAMETERS, (values) -> {
+            threads.add(Thread.currentThread());
+            return values.get("a") * values.get("b");
+          });
+
+      env.simulateOn(scheduler);
+
+      assertSame(SimulationScheduler.getDefault(), env.getScheduler());
+      assertEquals(Double.valueOf(2), env.getPerformanceValues().get("y"));
+      assertEquals(Collections.singleton(
+          scheduler.submit(() -> Thread.currentThread()).join()), threads);
+
+    } finally {
+      scheduler.shutdown();
+    }
+  }
+
+  @Test
+  void recordedPlotsAreExtracted() throws IOException {
+
+    final FunctionEnvironment env = product(
+        FunctionEnvironment.recordedBackend());
+
+    env.simulate(new HashSet<String>());
+
+    assertFalse(env.isCorrupted());
+    assertFalse(env.getCornerStatus(AnalogCircuitEnvironment.NOMINAL_DEFAULT)
+        .isFailed());
+    assertEquals(Double.valueOf(2), env.getPerformanceValues().get("y"));
+  }
+}